@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2026 by k3b.
+ *
+ * This file is part of k3b-geoHelper library.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.k3b.geo.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import de.k3b.geo.api.IGeoPointInfo;
+import de.k3b.geo.io.gpx.GpxFormatter;
+import de.k3b.geo.io.kml.KmlFormatter;
+import de.k3b.geo.io.poi.PoiFormatter;
+
+/**
+ * Benchmarks for the export of {@link GpxFormatter}, {@link KmlFormatter} and {@link PoiFormatter}.
+ *
+ * One benchmark operation exports pointCount points to a {@link Writer} that discards the output.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class FormatterBenchmark {
+    @Param({GeoTestData.FORMAT_GPX, GeoTestData.FORMAT_KML, GeoTestData.FORMAT_POI})
+    public String format;
+
+    @Param({"1000", "100000", "1000000"})
+    public int pointCount;
+
+    private List<IGeoPointInfo> points;
+
+    @Setup
+    public void setup() {
+        points = GeoTestData.createPoints(pointCount);
+    }
+
+    @Benchmark
+    public void export(Blackhole blackhole) throws IOException {
+        NullWriter out = new NullWriter();
+        PrintWriter printWriter = new PrintWriter(out);
+        if (GeoTestData.FORMAT_GPX.equals(format)) {
+            GpxFormatter.export(points, printWriter);
+        } else if (GeoTestData.FORMAT_KML.equals(format)) {
+            KmlFormatter.export(points, printWriter);
+        } else {
+            PoiFormatter.export(points, printWriter);
+        }
+        blackhole.consume(out.count);
+    }
+
+    /** Counts the written chars without keeping them in memory */
+    private static class NullWriter extends Writer {
+        long count = 0;
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            count += len;
+        }
+
+        @Override
+        public void write(String str, int off, int len) {
+            count += len;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
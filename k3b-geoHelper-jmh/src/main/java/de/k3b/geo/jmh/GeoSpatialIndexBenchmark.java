@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2026 by k3b.
+ *
+ * This file is part of k3b-geoHelper library.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.k3b.geo.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import de.k3b.geo.api.GeoSpatialIndex;
+import de.k3b.geo.api.IGeoPointInfo;
+
+/**
+ * Benchmarks for {@link GeoSpatialIndex} queries compared to a linear scan of the list.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class GeoSpatialIndexBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int pointCount;
+
+    private List<IGeoPointInfo> points;
+    private GeoSpatialIndex<IGeoPointInfo> index;
+
+    /** viewport in the middle of the generated track */
+    private double minLat;
+    private double maxLat;
+    private double minLon;
+    private double maxLon;
+
+    @Setup
+    public void setup() {
+        points = GeoTestData.createPoints(pointCount);
+        index = new GeoSpatialIndex<>(points);
+
+        IGeoPointInfo center = points.get(pointCount / 2);
+        minLat = center.getLatitude() - 0.001;
+        maxLat = center.getLatitude() + 0.001;
+        minLon = center.getLongitude() - 0.001;
+        maxLon = center.getLongitude() + 0.001;
+    }
+
+    @Benchmark
+    public List<IGeoPointInfo> query() {
+        return index.query(minLat, minLon, maxLat, maxLon);
+    }
+
+    @Benchmark
+    public List<IGeoPointInfo> nearest() {
+        return index.nearest((minLat + maxLat) / 2, (minLon + maxLon) / 2, 10);
+    }
+
+    @Benchmark
+    public int linearScan() {
+        int found = 0;
+        for (IGeoPointInfo point : points) {
+            if ((point.getLatitude() >= minLat) && (point.getLatitude() <= maxLat)
+                    && (point.getLongitude() >= minLon) && (point.getLongitude() <= maxLon)) {
+                found++;
+            }
+        }
+        return found;
+    }
+}
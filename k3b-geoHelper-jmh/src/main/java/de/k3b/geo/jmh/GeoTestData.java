@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2026 by k3b.
+ *
+ * This file is part of k3b-geoHelper library.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.k3b.geo.jmh;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import de.k3b.geo.api.GeoPointDto;
+import de.k3b.geo.api.IGeoPointInfo;
+import de.k3b.geo.io.GeoFormatter;
+import de.k3b.geo.io.gpx.GpxFormatter;
+import de.k3b.geo.io.kml.KmlFormatter;
+import de.k3b.geo.io.poi.PoiFormatter;
+import de.k3b.util.XmlUtil;
+
+/**
+ * Generates reproducible synthetic geo data for the benchmarks.
+ *
+ * The points form a track starting at Hamburg. Every 10th point is a
+ * "waypoint" with name, description, link and symbol so that all
+ * code paths of the parsers and formatters are used.
+ */
+public class GeoTestData {
+    public static final Charset UTF8 = Charset.forName("UTF-8");
+
+    /** Supported generated xml formats */
+    public static final String FORMAT_GPX = "gpx";
+    public static final String FORMAT_KML = "kml";
+    public static final String FORMAT_POI = "poi";
+    public static final String FORMAT_WIKIMEDIA = "wikimedia";
+
+    private static final long START_TIME = 1423555485000L; // 2015-02-10T08:04:45Z
+
+    private GeoTestData() {}
+
+    /** Creates pointCount points. Same pointCount always creates same data. */
+    public static List<IGeoPointInfo> createPoints(int pointCount) {
+        List<IGeoPointInfo> result = new ArrayList<>(pointCount);
+        for (int i = 0; i < pointCount; i++) {
+            result.add(createPoint(i));
+        }
+        return result;
+    }
+
+    /** Creates the i-th point of the generated track. */
+    public static GeoPointDto createPoint(int i) {
+        GeoPointDto geo = new GeoPointDto()
+                .setLatLon(53.55 + (i % 10000) * 0.0000123, 9.99 + (i / 10000) * 0.0000321)
+                .setTimeOfMeasurement(new Date(START_TIME + i * 1000L))
+                .setId("id" + i);
+        if ((i % 10) == 0) {
+            geo.setName("Point " + i)
+                    .setDescription("Description of point " + i + " with <special> & chars")
+                    .setLink("https://en.wikipedia.org/wiki/Point_" + i)
+                    .setSymbol("https://upload.wikimedia.org/thumb/symbol" + (i % 100) + ".png")
+                    .setZoomMin(5)
+                    .setZoomMax(17);
+        }
+        return geo;
+    }
+
+    /** Creates the xml representation of pointCount points in format {@link #FORMAT_GPX}, ... */
+    public static byte[] createXml(String format, int pointCount) throws IOException {
+        List<IGeoPointInfo> points = createPoints(pointCount);
+        String xml;
+        if (FORMAT_GPX.equals(format)) {
+            xml = GpxFormatter.toGpxXml(points);
+        } else if (FORMAT_KML.equals(format)) {
+            StringWriter stringWriter = new StringWriter();
+            KmlFormatter.export(points, new PrintWriter(stringWriter));
+            xml = stringWriter.toString();
+        } else if (FORMAT_POI.equals(format)) {
+            xml = PoiFormatter.toPoiXml(points);
+        } else if (FORMAT_WIKIMEDIA.equals(format)) {
+            xml = toWikimediaXml(points);
+        } else {
+            throw new IllegalArgumentException("Unknown format " + format);
+        }
+        return xml.getBytes(UTF8);
+    }
+
+    /** Same format as returned by https://en.wikipedia.org/w/api.php?action=query&format=xml&generator=geosearch... */
+    private static String toWikimediaXml(List<IGeoPointInfo> points) {
+        StringBuilder result = new StringBuilder(points.size() * 400);
+        result.append("<?xml version='1.0' encoding='UTF-8'?>\n<api batchcomplete=''><query><pages>\n");
+        for (IGeoPointInfo geo : points) {
+            result.append("<page pageid='").append(XmlUtil.escapeXmlAttribute(geo.getId()))
+                    .append("' ns='0' title='").append(XmlUtil.escapeXmlAttribute(nonNull(geo.getName(), geo.getId())))
+                    .append("' touched='").append(GeoFormatter.formatDate(geo.getTimeOfMeasurement()))
+                    .append("' fullurl='").append(XmlUtil.escapeXmlAttribute(nonNull(geo.getLink(), "")))
+                    .append("'>\n\t<coordinates><co lat='").append(geo.getLatitude())
+                    .append("' lon='").append(geo.getLongitude())
+                    .append("' primary='' globe='earth'/></coordinates>\n");
+            if (geo.getSymbol() != null) {
+                result.append("\t<thumbnail source='").append(XmlUtil.escapeXmlAttribute(geo.getSymbol()))
+                        .append("' width='50' height='38'/>\n");
+            }
+            if (geo.getDescription() != null) {
+                result.append("\t<extract xml:space='preserve'>").append(XmlUtil.escapeXMLElement(geo.getDescription()))
+                        .append("</extract>\n");
+            }
+            result.append("</page>\n");
+        }
+        result.append("</pages></query></api>\n");
+        return result.toString();
+    }
+
+    private static String nonNull(String value, String defaultValue) {
+        return (value != null) ? value : defaultValue;
+    }
+}
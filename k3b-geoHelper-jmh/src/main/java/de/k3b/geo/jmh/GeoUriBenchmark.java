@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2026 by k3b.
+ *
+ * This file is part of k3b-geoHelper library.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.k3b.geo.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import de.k3b.geo.api.GeoPointDto;
+import de.k3b.geo.io.GeoUri;
+
+/**
+ * Benchmarks for {@link GeoUri#fromUri(String, GeoPointDto)} for every supported
+ * provider branch and for {@link GeoUri#toUriString(de.k3b.geo.api.IGeoPointInfo)}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeoUriBenchmark {
+    /** Input for {@link #fromUri(ParseState)} */
+    @State(Scope.Thread)
+    public static class ParseState {
+        /** which branch of {@link GeoUri#fromUri(String, GeoPointDto)} to measure */
+        @Param({"geo", "geoMinimal", "google", "osm", "here", "yandex"})
+        public String provider;
+
+        GeoUri geoUri;
+        GeoPointDto reuse;
+        String uri;
+
+        @Setup
+        public void setup() {
+            geoUri = new GeoUri(GeoUri.OPT_DEFAULT);
+            reuse = new GeoPointDto();
+            uri = createUri(provider, geoUri.toUriString(GeoTestData.createPoint(10)));
+        }
+
+        private static String createUri(String provider, String geoUri) {
+            if ("geo".equals(provider)) return geoUri;
+            if ("geoMinimal".equals(provider)) return "geo:53.5501234,9.9900321";
+            if ("google".equals(provider)) return "https://www.google.com/maps/@53.5501234,9.9900321,14z";
+            if ("osm".equals(provider)) return "https://www.openstreetmap.org/#map=14/53.5501234/9.9900321";
+            if ("here".equals(provider)) return "https://wego.here.com/?map=53.5501234,9.9900321,14";
+            if ("yandex".equals(provider)) return "https://www.yandex.com/maps/?ll=9.9900321,53.5501234&z=14";
+            throw new IllegalArgumentException("Unknown provider " + provider);
+        }
+    }
+
+    /** Input for {@link #toUriString(FormatState)} */
+    @State(Scope.Thread)
+    public static class FormatState {
+        GeoUri geoUri;
+        GeoPointDto point;
+
+        @Setup
+        public void setup() {
+            geoUri = new GeoUri(GeoUri.OPT_DEFAULT);
+            point = GeoTestData.createPoint(10);
+        }
+    }
+
+    @Benchmark
+    public GeoPointDto fromUri(ParseState state) {
+        return state.geoUri.fromUri(state.uri, state.reuse.clear());
+    }
+
+    @Benchmark
+    public String toUriString(FormatState state) {
+        return state.geoUri.toUriString(state.point);
+    }
+}
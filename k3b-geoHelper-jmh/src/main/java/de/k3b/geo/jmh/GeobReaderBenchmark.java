@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2026 by k3b.
+ *
+ * This file is part of k3b-geoHelper library.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.k3b.geo.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import de.k3b.geo.api.GeoPointDto;
+import de.k3b.geo.api.IGeoInfoHandler;
+import de.k3b.geo.api.IGeoPointInfo;
+import de.k3b.geo.io.geob.GeobReader;
+import de.k3b.geo.io.geob.GeobWriter;
+
+/**
+ * Benchmarks for {@link GeobReader#parse(java.io.InputStream)} and {@link GeobWriter}.
+ *
+ * Compare with {@link GpxReaderBenchmark} for the same points in xml.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class GeobReaderBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int pointCount;
+
+    private List<IGeoPointInfo> points;
+    private byte[] geob;
+
+    @Setup
+    public void setup() throws IOException {
+        points = GeoTestData.createPoints(pointCount);
+        geob = write();
+    }
+
+    @Benchmark
+    public void parse(final Blackhole blackhole) throws IOException {
+        GeobReader parser = new GeobReader(new IGeoInfoHandler() {
+            @Override
+            public boolean onGeoInfo(IGeoPointInfo geoInfo) {
+                blackhole.consume(geoInfo.getLatitude());
+                return true;
+            }
+        }, new GeoPointDto());
+        parser.parse(new BufferedInputStream(new ByteArrayInputStream(geob)));
+    }
+
+    @Benchmark
+    public byte[] write() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        GeobWriter.export(points, out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2026 by k3b.
+ *
+ * This file is part of k3b-geoHelper library.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.k3b.geo.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.xml.sax.InputSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import de.k3b.geo.api.GeoPointDto;
+import de.k3b.geo.api.IGeoInfoHandler;
+import de.k3b.geo.api.IGeoPointInfo;
+import de.k3b.geo.io.gpx.GpxPullReader;
+import de.k3b.geo.io.gpx.GpxReaderBase;
+
+/**
+ * Benchmarks for {@link GpxReaderBase#parse(InputSource)} for the supported xml formats.
+ *
+ * One benchmark operation parses the complete document with pointCount points.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class GpxReaderBenchmark {
+    @Param({GeoTestData.FORMAT_GPX, GeoTestData.FORMAT_KML, GeoTestData.FORMAT_POI, GeoTestData.FORMAT_WIKIMEDIA})
+    public String format;
+
+    @Param({"1000", "100000", "1000000"})
+    public int pointCount;
+
+    /** true: StAX pull parser; false: sax parser */
+    @Param({"false", "true"})
+    public boolean usePullParser;
+
+    private byte[] xml;
+
+    @Setup
+    public void setup() throws IOException {
+        xml = GeoTestData.createXml(format, pointCount);
+    }
+
+    @Benchmark
+    public void parse(final Blackhole blackhole) throws IOException {
+        parse(blackhole, GpxReaderBase.FIELD_ALL);
+    }
+
+    /** Only lat/lon and time are read. Other element content is skipped */
+    @Benchmark
+    public void parseLatLonTimeOnly(final Blackhole blackhole) throws IOException {
+        parse(blackhole, GpxReaderBase.FIELD_TIME);
+    }
+
+    private void parse(final Blackhole blackhole, int fields) throws IOException {
+        GpxReaderBase parser = new GpxReaderBase(new IGeoInfoHandler() {
+            @Override
+            public boolean onGeoInfo(IGeoPointInfo geoInfo) {
+                blackhole.consume(geoInfo.getLatitude());
+                return true;
+            }
+        }, new GeoPointDto());
+        parser.setXmlParser(usePullParser ? new GpxPullReader() : null).setFields(fields);
+        parser.parse(new InputSource(new ByteArrayInputStream(xml)));
+    }
+}
@@ -34,6 +34,13 @@ public class FileSymbolConverter extends SymbolConverterBase<File> implements IG
         super(rootDir, name2file, nextConverter);
     }
 
+    public FileSymbolConverter(@NonNull final File rootDir,
+                               @Nullable final Map<String, File> name2file,
+                               @Nullable Index index,
+                               @Nullable IGeoInfoHandler nextConverter) {
+        super(rootDir, name2file, index, nextConverter);
+    }
+
     // ----- File api abstractions
     @NonNull @Override protected  String getName(@NonNull File file) {
         return file.getName();
@@ -39,11 +39,16 @@ public class GeoConfig {
     public static final String EXT_POZ2 = EXT_POI+EXT_ZIP;
     public static final String[] EXT_ALL_POI = new String[]{EXT_POZ, EXT_POZ2, EXT_POI};
 
+    /** compact binary format. See {@link de.k3b.geo.io.geob.GeobDef} */
+    public static final String EXT_GEOB = ".geob";
+    public static final String EXT_GEOB2 = EXT_GEOB+EXT_ZIP;
+    public static final String[] EXT_ALL_GEOB = new String[]{EXT_GEOB2, EXT_GEOB};
+
     public static final String[] EXT_ALL_ZIP = new String[]{EXT_GPZ,EXT_KMZ,EXT_POZ,EXT_ZIP};
     public static final String[] EXT_ALL = new String[]{
             EXT_GPZ,EXT_KMZ,EXT_POZ,
-            EXT_GPZ2,EXT_KMZ2,EXT_POZ2,
-            EXT_GPX,EXT_KML,EXT_POI};
+            EXT_GPZ2,EXT_KMZ2,EXT_POZ2,EXT_GEOB2,
+            EXT_GPX,EXT_KML,EXT_POI,EXT_GEOB};
 
     public static boolean isOneOf(String outFileName, String... suffixes) {
         String lowerCase = outFileName.toLowerCase();
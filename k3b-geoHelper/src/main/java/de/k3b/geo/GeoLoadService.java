@@ -26,18 +26,26 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.xml.sax.InputSource;
 
+import java.io.BufferedInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
 
 import de.k3b.geo.api.GeoPointDto;
 import de.k3b.geo.api.IGeoInfoHandler;
+import de.k3b.geo.io.geob.GeobReader;
 import de.k3b.geo.io.gpx.GeoXmlOrTextParser;
 import de.k3b.geo.io.gpx.GpxReaderBase;
+import de.k3b.util.Unzip;
 
 public class GeoLoadService {
     private static final Logger LOGGER = LoggerFactory.getLogger(GeoLoadService.class);
@@ -110,8 +118,19 @@ public class GeoLoadService {
         }
     }
 
+    /** Loads gpx, kml, poi or geob (see {@link GeobReader}) from is */
     public static void loadGeoPointDtos(InputStream is, IGeoInfoHandler pointCollector) throws IOException {
         if (is != null) {
+            if (!is.markSupported()) is = new BufferedInputStream(is);
+            if (GeobReader.isGeob(is)) {
+                try {
+                    new GeobReader(pointCollector, new GeoPointDto()).parse(is);
+                } finally {
+                    // same as the xml parser
+                    is.close();
+                }
+                return;
+            }
             GpxReaderBase parser = new GpxReaderBase(pointCollector, new GeoPointDto());
             parser.parse(new InputSource(is));
         } else {
@@ -119,6 +138,82 @@ public class GeoLoadService {
         }
     }
 
+    /**
+     * Loads the points of a geo file. A zip file (gpz, kmz, poz) is not unzipped to disk:
+     * its first geo entry is parsed directly from the zip.
+     *
+     * @param symbolDir if not null and geoFile is a zip: relative symbols of the points are
+     *                  extracted to this dir when they are referenced for the first time
+     *                  and converted to absolute uris (see {@link ZipSymbolConverter}).
+     */
+    public static void loadGeoPointDtos(File geoFile, @Nullable File symbolDir, IGeoInfoHandler pointCollector) throws IOException {
+        if (iszip(geoFile.getName())) {
+            ZipFile zipFile = new ZipFile(geoFile);
+            try {
+                ZipEntry geoEntry = getFirstGeoEntry(zipFile);
+                if (geoEntry != null) {
+                    IGeoInfoHandler handler = (symbolDir == null)
+                            ? pointCollector
+                            : new ZipSymbolConverter(zipFile, geoEntry, symbolDir, pointCollector);
+                    loadGeoPointDtos(zipFile.getInputStream(geoEntry), handler);
+                } else {
+                    LOGGER.warn("loadGeoPointDtos: No geo found in {}" , geoFile);
+                }
+            } finally {
+                zipFile.close();
+            }
+        } else {
+            InputStream is = null;
+            try {
+                is = new BufferedInputStream(new FileInputStream(geoFile));
+                loadGeoPointDtos(is, pointCollector);
+            } finally {
+                closeSilently(is);
+            }
+        }
+    }
+
+    /**
+     * Opens a geo stream without unzipping to disk.
+     *
+     * @param isZipped null: means unknown: try to find out
+     * @return inputStream if it is not zipped. Else the zip stream positioned at the content of
+     * the first geo entry or null if the zip contains no geo entry.
+     */
+    @Nullable
+    public static InputStream openGeoInputStream(@NonNull InputStream inputStream, @Nullable Boolean isZipped) throws IOException {
+        if (isZipped == null) {
+            if (!inputStream.markSupported()) inputStream = new BufferedInputStream(inputStream);
+            isZipped = Unzip.isZipStream(inputStream);
+        }
+
+        if (!isZipped) return inputStream;
+
+        ZipInputStream zipInputStream = new ZipInputStream(inputStream);
+        for (ZipEntry entry = zipInputStream.getNextEntry(); entry != null; entry = zipInputStream.getNextEntry()) {
+            if (isGeoEntry(entry)) return zipInputStream;
+        }
+        closeSilently(zipInputStream);
+        return null;
+    }
+
+    /** @return the first entry that is a geo file or null if there is none */
+    @Nullable
+    public static ZipEntry getFirstGeoEntry(@NonNull ZipFile zipFile) {
+        final Enumeration<? extends ZipEntry> entries = zipFile.entries();
+        while (entries.hasMoreElements()) {
+            final ZipEntry entry = entries.nextElement();
+            if (isGeoEntry(entry)) return entry;
+        }
+        return null;
+    }
+
+    /** true if entry is a geo file that is not zipped itself */
+    private static boolean isGeoEntry(ZipEntry entry) {
+        final String name = entry.getName();
+        return !entry.isDirectory() && isGeo(name) && !iszip(name);
+    }
+
     public static String getName(String decodedPath) {
         if (decodedPath == null) return null;
         return new File(decodedPath).getName();
@@ -0,0 +1,259 @@
+/*
+ * Copyright (c) 2026 by k3b.
+ *
+ * This file is part of k3b-geoHelper library.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.k3b.geo;
+
+import androidx.annotation.NonNull;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xml.sax.InputSource;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import de.k3b.geo.api.GeoPointDto;
+import de.k3b.geo.api.IGeoInfoHandler;
+import de.k3b.geo.api.IGeoPointInfo;
+import de.k3b.geo.io.geob.GeobReader;
+import de.k3b.geo.io.gpx.GpxReaderBase;
+
+/**
+ * Loads all geo files (gpx, kml, poi and their zipped variants gpz, kmz, poz)
+ * of a directory concurrently.
+ *
+ * ```java
+ * ExecutorService executor = Executors.newFixedThreadPool(4);
+ * List<ParallelGeoLoadService.FileStatistics> statistics = new ParallelGeoLoadService(executor)
+ *         .load(new File("/path/to/geo/files"), threadSafeSink);
+ * for (ParallelGeoLoadService.FileStatistics file : statistics) {
+ *     System.out.println(file);
+ * }
+ * ```
+ *
+ * Every file is parsed by one task of the executor. The points of one file are delivered to the sink
+ * in file order from the thread that parses the file. Points of different files are delivered
+ * concurrently so the sink must be thread safe.
+ *
+ * Like {@link GpxReaderBase} the {@link IGeoPointInfo} given to the sink is reused for the next point
+ * of the same file. The sink must copy it if it wants to keep it.
+ */
+public class ParallelGeoLoadService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParallelGeoLoadService.class);
+
+    private final Executor executor;
+
+    /** FIELD_XXX from {@link GpxReaderBase#setFields(int)} */
+    private int fields = GpxReaderBase.FIELD_ALL;
+
+    /**
+     * @param executor where the files are parsed. I.e. Executors.newFixedThreadPool(threadCount).
+     */
+    public ParallelGeoLoadService(@NonNull Executor executor) {
+        this.executor = executor;
+    }
+
+    /** The fields that should be read. See {@link GpxReaderBase#setFields(int)} */
+    public ParallelGeoLoadService setFields(int fields) {
+        this.fields = fields;
+        return this;
+    }
+
+    /**
+     * Loads all geo files directly below dir.
+     *
+     * @return statistics for every geo file in the order of the directory listing.
+     */
+    @NonNull
+    public List<FileStatistics> load(File dir, @NonNull IGeoInfoHandler sink) throws InterruptedException {
+        final Map<String, File> name2file = new HashMap<>();
+        final List<File> files = new ArrayList<>();
+        for (String name : GeoLoadService.getGeoFiles(dir, name2file)) {
+            files.add(name2file.get(name.toLowerCase()));
+        }
+        return load(files, sink);
+    }
+
+    /**
+     * Loads the geo files.
+     *
+     * @return statistics for every file in the order of files.
+     * A file that cannot be read does not stop the other files. See {@link FileStatistics#getError()}.
+     */
+    @NonNull
+    public List<FileStatistics> load(List<File> files, @NonNull final IGeoInfoHandler sink) throws InterruptedException {
+        final List<FutureTask<FileStatistics>> tasks = new ArrayList<>(files.size());
+        for (final File file : files) {
+            final FutureTask<FileStatistics> task = new FutureTask<>(new Callable<FileStatistics>() {
+                @Override
+                public FileStatistics call() {
+                    return loadFile(file, sink);
+                }
+            });
+            tasks.add(task);
+            executor.execute(task);
+        }
+
+        final List<FileStatistics> result = new ArrayList<>(tasks.size());
+        try {
+            for (FutureTask<FileStatistics> task : tasks) {
+                result.add(task.get());
+            }
+        } catch (ExecutionException e) {
+            // loadFile() catches all exceptions
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            for (FutureTask<FileStatistics> task : tasks) {
+                task.cancel(true);
+            }
+            throw e;
+        }
+        return result;
+    }
+
+    /** Parses one geo file or all geo files inside a zip file. Executed by the executor */
+    private FileStatistics loadFile(File file, IGeoInfoHandler sink) {
+        final FileStatistics statistics = new FileStatistics(file);
+        final PointCounter counter = new PointCounter(sink);
+        final long start = System.nanoTime();
+        InputStream inputStream = null;
+        try {
+            inputStream = new BufferedInputStream(new FileInputStream(file));
+            if (GeoLoadService.iszip(file.getName())) {
+                ZipInputStream zipInputStream = new ZipInputStream(inputStream);
+                inputStream = zipInputStream;
+                for (ZipEntry entry = zipInputStream.getNextEntry(); entry != null; entry = zipInputStream.getNextEntry()) {
+                    final String entryName = entry.getName();
+                    if (!entry.isDirectory() && GeoLoadService.isGeo(entryName) && !GeoLoadService.iszip(entryName)) {
+                        // the xml parser closes its input: keep zipInputStream open for the next entry
+                        parse(new FilterInputStream(zipInputStream) {
+                            @Override
+                            public void close() {
+                            }
+                        }, counter);
+                    }
+                }
+            } else {
+                parse(inputStream, counter);
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("load: cannot load " + file, e);
+            statistics.error = e;
+        } finally {
+            GeoLoadService.closeSilently(inputStream);
+        }
+        statistics.nanos = System.nanoTime() - start;
+        statistics.pointCount = counter.count;
+        LOGGER.debug("load: {}", statistics);
+        return statistics;
+    }
+
+    private void parse(InputStream inputStream, IGeoInfoHandler pointCollector) throws IOException {
+        if (!inputStream.markSupported()) inputStream = new BufferedInputStream(inputStream);
+        if (GeobReader.isGeob(inputStream)) {
+            new GeobReader(pointCollector, new GeoPointDto()).parse(inputStream);
+            return;
+        }
+        GpxReaderBase parser = new GpxReaderBase(pointCollector, new GeoPointDto());
+        parser.setFields(fields);
+        parser.parse(new InputSource(inputStream));
+    }
+
+    /** Forwards to the sink and counts the points of one file */
+    private static class PointCounter implements IGeoInfoHandler {
+        private final IGeoInfoHandler sink;
+        private int count = 0;
+
+        PointCounter(IGeoInfoHandler sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        public boolean onGeoInfo(IGeoPointInfo geoInfo) {
+            count++;
+            return sink.onGeoInfo(geoInfo);
+        }
+    }
+
+    /** Result of loading one file */
+    public static class FileStatistics {
+        private final File file;
+        private final long size;
+        private int pointCount = 0;
+        private long nanos = 0;
+        private Exception error = null;
+
+        FileStatistics(File file) {
+            this.file = file;
+            this.size = file.length();
+        }
+
+        public File getFile() {
+            return file;
+        }
+
+        /** Number of points delivered to the sink */
+        public int getPointCount() {
+            return pointCount;
+        }
+
+        /** File size in bytes. For zip files this is the compressed size */
+        public long getSize() {
+            return size;
+        }
+
+        /** Time to load the file in milliseconds */
+        public long getMillis() {
+            return nanos / 1000000;
+        }
+
+        public double getPointsPerSecond() {
+            return (nanos > 0) ? (pointCount * 1e9 / nanos) : 0;
+        }
+
+        public double getBytesPerSecond() {
+            return (nanos > 0) ? (size * 1e9 / nanos) : 0;
+        }
+
+        /** null if loaded without error */
+        public Exception getError() {
+            return error;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d points, %d bytes in %d ms (%.0f points/s, %.0f bytes/s)%s",
+                    file.getName(), pointCount, size, getMillis(), getPointsPerSecond(), getBytesPerSecond(),
+                    (error == null) ? "" : " error " + error.getMessage());
+        }
+    }
+}
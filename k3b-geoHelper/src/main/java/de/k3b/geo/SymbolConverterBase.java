@@ -22,8 +22,11 @@ package de.k3b.geo;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import java.io.Serializable;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 import de.k3b.geo.api.GeoPointDto;
 import de.k3b.geo.api.IGeoInfoHandler;
@@ -33,12 +36,20 @@ import de.k3b.geo.api.IGeoPointInfo;
  * A {@link IGeoInfoHandler} in a chain of {@link IGeoInfoHandler}s that converts
  * {@link IGeoPointInfo#getSymbol()}s from "relative to the containing geo-file" to absolute.
  *
+ * Directories are listed lazily when a symbol inside them is converted for the first time,
+ * and every directory is listed at most once. The result is kept in an {@link Index}
+ * that can be serialized and reused later, so known and missing symbols need no directory listing at all.
+ *
  * @param <T> OS-Specific File-Translations system
  */
 public abstract class SymbolConverterBase<T>  implements IGeoInfoHandler {
     @NonNull protected final T rootDir;
     @NonNull protected final Map<String, T> name2file;
     @Nullable protected final IGeoInfoHandler nextConverter;
+    @NonNull protected final Index index;
+
+    /** lowercase paths ("" or ending with "/") of the directories whose children are in name2file */
+    private final Set<String> listedDirs = new HashSet<>();
 
     /**
      * @param rootDir where all relative paths refer to
@@ -46,14 +57,33 @@ public abstract class SymbolConverterBase<T>  implements IGeoInfoHandler {
      * @param nextConverter if not null: next converter in a chain to be executed
      */
     protected SymbolConverterBase(@NonNull final T rootDir, @Nullable final Map<String, T> name2file, @Nullable IGeoInfoHandler nextConverter) {
+        this(rootDir, name2file, null, nextConverter);
+    }
+
+    /**
+     * @param rootDir where all relative paths refer to
+     * @param name2file a map that translates relative items to absolute items.
+     *                  If not empty it must contain all items of rootDir.
+     * @param index if not null: result of {@link #getIndex()} of an earlier converter of the same rootDir
+     * @param nextConverter if not null: next converter in a chain to be executed
+     */
+    protected SymbolConverterBase(@NonNull final T rootDir, @Nullable final Map<String, T> name2file,
+                                  @Nullable Index index, @Nullable IGeoInfoHandler nextConverter) {
         this.rootDir = rootDir;
         this.name2file = name2file != null ? name2file : new HashMap<String, T>();
+        this.index = index != null ? index : new Index();
         this.nextConverter = nextConverter;
-        if (this.name2file.size() == 0) {
-            addFiles("", rootDir);
+        if (this.name2file.size() > 0) {
+            listedDirs.add("");
         }
     }
 
+    /** @return translation of relative symbols to uris found so far. Can be passed to the constructor of a later converter. */
+    @NonNull
+    public Index getIndex() {
+        return index;
+    }
+
     // IGeoInfoHandler
     @Override
     public boolean onGeoInfo(IGeoPointInfo aGeoPoint) {
@@ -69,41 +99,62 @@ public abstract class SymbolConverterBase<T>  implements IGeoInfoHandler {
         String symbol = aGeoPoint != null ? aGeoPoint.getSymbol() : null;
         if (symbol != null && !symbol.contains(":") && symbol.contains(".")) {
             symbol = symbol.toLowerCase();
-            T doc = name2file.get(symbol);
-            if (doc == null && symbol.contains("/")) {
-                doc = addFiles(symbol.split("/"));
+            String uri = index.name2uri.get(symbol);
+            if (uri == null) {
+                T doc = name2file.get(symbol);
+                if (doc != null) {
+                    uri = getUri(doc);
+                    index.name2uri.put(symbol, uri);
+                } else {
+                    final String dirPath = symbol.substring(0, symbol.lastIndexOf('/') + 1);
+                    if (!index.listedDirs.contains(dirPath)) {
+                        // symbol is not found if the directory does not exist
+                        addFiles(dirPath, getDir(dirPath));
+                        uri = index.name2uri.get(symbol);
+                    }
+                }
             }
-            if (doc != null) return getUri(doc);
+            return uri;
         }
         return null;
     }
 
-    private T addFiles(String[] pathElements) {
-        T currentdir = rootDir;
-        StringBuilder path = new StringBuilder();
-        T doc = null;
-        for (String pathElement : pathElements) {
-            if (path.length() > 0) path.append("/");
-            String parentPath = path.toString();
-            path.append(pathElement);
-            String pathLowerCase = path.toString();
-            doc = name2file.get(pathLowerCase);
-            if (doc == null) {
-                addFiles(parentPath, currentdir);
-                doc = name2file.get(pathLowerCase);
+    /** @return the directory of lowercase dirPath ("" or ending with "/") or null if it does not exist */
+    @Nullable
+    private T getDir(String dirPath) {
+        if (dirPath.isEmpty()) return rootDir;
+
+        final String path = dirPath.substring(0, dirPath.length() - 1);
+        T dir = name2file.get(path);
+        if (dir == null) {
+            final String parentPath = path.substring(0, path.lastIndexOf('/') + 1);
+            if (!listedDirs.contains(parentPath)) {
+                addFiles(parentPath, getDir(parentPath));
+                dir = name2file.get(path);
             }
-            currentdir = doc;
         }
-        return doc;
+        return dir;
     }
 
-    private void addFiles(String parentPath, T currentdir) {
-        T[] children = listFiles(currentdir);
+    /**
+     * Adds the children of currentdir to name2file and to the {@link #index}.
+     *
+     * @param parentPath lowercase path of currentdir: "" or ending with "/"
+     * @return the children of currentdir or null if it is not an existing directory
+     */
+    @Nullable
+    protected T[] addFiles(String parentPath, @Nullable T currentdir) {
+        listedDirs.add(parentPath);
+        index.listedDirs.add(parentPath);
+        T[] children = (currentdir != null) ? listFiles(currentdir) : null;
         if (children != null) {
             for (T child : children) {
-                name2file.put(parentPath + getName(child).toLowerCase(), child);
+                final String name = parentPath + getName(child).toLowerCase();
+                name2file.put(name, child);
+                index.name2uri.put(name, getUri(child));
             }
         }
+        return children;
     }
 
     public static boolean isGeo(String nameLower) {
@@ -122,4 +173,23 @@ public abstract class SymbolConverterBase<T>  implements IGeoInfoHandler {
     @NonNull protected abstract String getUri(@NonNull T doc);
 
     protected abstract boolean isExistingDirectory(@Nullable T dir);
+
+    /**
+     * Translation of lowercase relative paths to uris of all items in the directories listed so far.
+     *
+     * A symbol that is not in a listed directory does not exist. Changes of the directories
+     * after they were listed are not detected, so an index should not be kept forever.
+     */
+    public static class Index implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final HashMap<String, String> name2uri = new HashMap<>();
+        /** lowercase paths of the listed directories: "" or ending with "/" */
+        private final HashSet<String> listedDirs = new HashSet<>();
+
+        /** Number of known items */
+        public int size() {
+            return name2uri.size();
+        }
+    }
 }
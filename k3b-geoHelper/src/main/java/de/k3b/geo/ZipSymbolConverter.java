@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2026 by k3b.
+ *
+ * This file is part of k3b-geoHelper library.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.k3b.geo;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import de.k3b.geo.api.GeoPointDto;
+import de.k3b.geo.api.IGeoInfoHandler;
+import de.k3b.geo.api.IGeoPointInfo;
+
+/**
+ * A {@link IGeoInfoHandler} in a chain of {@link IGeoInfoHandler}s that converts
+ * {@link IGeoPointInfo#getSymbol()}s from "relative to the geo-file inside a zip" to absolute.
+ *
+ * Same as {@link FileSymbolConverter} for a zip file (gpz, kmz, poz) that is not unzipped:
+ * a symbol is extracted to symbolDir when it is referenced for the first time.
+ * Zip entries that are not referenced are never extracted.
+ */
+public class ZipSymbolConverter implements IGeoInfoHandler {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ZipSymbolConverter.class);
+
+    @NonNull private final ZipFile zipFile;
+    /** lowercase path of the directory containing the geo-file inside the zip. "" or ending with "/" */
+    @NonNull private final String basePath;
+    @NonNull private final File symbolDir;
+    @Nullable private final IGeoInfoHandler nextConverter;
+
+    /** lowercase path relative to basePath to zip entry. Created on demand */
+    private Map<String, ZipEntry> name2entry = null;
+
+    /** lowercase symbol to absolute uri or null if there is no such entry */
+    private final Map<String, String> name2uri = new HashMap<>();
+
+    /**
+     * @param zipFile where the symbols are extracted from
+     * @param geoEntry the geo-file inside the zip. Relative symbols refer to the directory of this entry.
+     * @param symbolDir where symbols are extracted to
+     * @param nextConverter if not null: next converter in a chain to be executed
+     */
+    public ZipSymbolConverter(@NonNull ZipFile zipFile, @NonNull ZipEntry geoEntry,
+                              @NonNull File symbolDir, @Nullable IGeoInfoHandler nextConverter) {
+        this.zipFile = zipFile;
+        final String geoEntryName = geoEntry.getName().toLowerCase();
+        this.basePath = geoEntryName.substring(0, geoEntryName.lastIndexOf('/') + 1);
+        this.symbolDir = symbolDir;
+        this.nextConverter = nextConverter;
+    }
+
+    // IGeoInfoHandler
+    @Override
+    public boolean onGeoInfo(IGeoPointInfo aGeoPoint) {
+        String symbol = convertSymbol(aGeoPoint);
+        if (symbol != null) {
+            ((GeoPointDto) aGeoPoint).setSymbol(symbol);
+        }
+        if (nextConverter != null) nextConverter.onGeoInfo(aGeoPoint);
+        return true;
+    }
+
+    private String convertSymbol(final IGeoPointInfo aGeoPoint) {
+        String symbol = aGeoPoint != null ? aGeoPoint.getSymbol() : null;
+        if (symbol != null && !symbol.contains(":") && symbol.contains(".")) {
+            symbol = symbol.toLowerCase();
+            if (name2uri.containsKey(symbol)) return name2uri.get(symbol);
+
+            String uri = null;
+            ZipEntry entry = getName2entry().get(symbol);
+            if (entry != null) {
+                try {
+                    uri = "file://" + extract(entry).getAbsolutePath();
+                } catch (IOException e) {
+                    LOGGER.warn("convertSymbol: cannot extract " + entry + " from " + zipFile.getName(), e);
+                }
+            }
+            name2uri.put(symbol, uri);
+            return uri;
+        }
+        return null;
+    }
+
+    private Map<String, ZipEntry> getName2entry() {
+        if (name2entry == null) {
+            name2entry = new HashMap<>();
+            final Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                final ZipEntry entry = entries.nextElement();
+                final String name = entry.getName().toLowerCase();
+                if (!entry.isDirectory() && name.startsWith(basePath)) {
+                    name2entry.put(name.substring(basePath.length()), entry);
+                }
+            }
+        }
+        return name2entry;
+    }
+
+    /** Extracts entry below symbolDir unless it already exists with the same content.
+     * symbolDir may be shared by several zips containing different files with the same path. */
+    private File extract(ZipEntry entry) throws IOException {
+        final File outputFile = new File(symbolDir, entry.getName());
+        if (!outputFile.getCanonicalPath().startsWith(symbolDir.getCanonicalPath() + File.separator)) {
+            throw new IOException("Zip entry is outside of the target dir: " + entry.getName());
+        }
+        if (isExtracted(entry, outputFile)) return outputFile;
+
+        final File parent = outputFile.getParentFile();
+        if (!parent.exists() && !parent.mkdirs()) {
+            throw new IOException("Can not create dir " + parent);
+        }
+
+        LOGGER.debug("extract {} to {}", entry, outputFile);
+        InputStream input = null;
+        OutputStream output = null;
+        try {
+            input = zipFile.getInputStream(entry);
+            output = new FileOutputStream(outputFile);
+            byte[] buffer = new byte[8192];
+            int count;
+            while ((count = input.read(buffer)) != -1) {
+                output.write(buffer, 0, count);
+            }
+        } finally {
+            GeoLoadService.closeSilently(input);
+            if (output != null) output.close();
+        }
+        return outputFile;
+    }
+
+    /** true if file has the same size and crc as entry */
+    private static boolean isExtracted(ZipEntry entry, File file) throws IOException {
+        if (!file.exists() || (file.length() != entry.getSize()) || (entry.getCrc() == -1)) return false;
+
+        final CRC32 crc = new CRC32();
+        InputStream input = null;
+        try {
+            input = new FileInputStream(file);
+            byte[] buffer = new byte[8192];
+            int count;
+            while ((count = input.read(buffer)) != -1) {
+                crc.update(buffer, 0, count);
+            }
+        } finally {
+            GeoLoadService.closeSilently(input);
+        }
+        return crc.getValue() == entry.getCrc();
+    }
+}
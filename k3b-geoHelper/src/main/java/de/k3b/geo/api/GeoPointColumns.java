@@ -0,0 +1,309 @@
+/*
+ * Copyright (c) 2026 by k3b.
+ *
+ * This file is part of k3b-geoHelper library.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.k3b.geo.api;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Memory saving {@link List} of {@link IGeoPointInfo} for big tracks.
+ *
+ * Instead of one {@link GeoPointDto} per point the values are stored in primitive arrays
+ * (one array per property). Strings are stored in a dictionary so that equal values
+ * (i.e. the same symbol-url for many points) are stored only once.
+ *
+ * {@link #add(IGeoPointInfo)} copies the values of the point so the same
+ * {@link GeoPointDto} can be reused for every point added.
+ * {@link #get(int)} returns a flyweight view that reads the values from the arrays.
+ *
+ * **Example**
+ *
+ * ```java
+ * GpxReader<IGeoPointInfo> reader = new GpxReader<IGeoPointInfo>();
+ * List<IGeoPointInfo> points = reader.getTracks(new InputSource(new FileReader("test.gpx")), new GeoPointColumns());
+ * ```
+ *
+ * Items can be added or replaced but not removed.
+ */
+public class GeoPointColumns extends AbstractList<IGeoPointInfo> {
+    /** Value in {@link #timeOfMeasurement} for null */
+    private static final long NO_TIME = Long.MIN_VALUE;
+
+    /** Value in the string columns for null */
+    private static final int NO_STRING = -1;
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int size = 0;
+
+    private double[] latitude;
+    private double[] longitude;
+
+    /** Milliseconds since 1970 or {@link #NO_TIME} */
+    private long[] timeOfMeasurement;
+
+    /** zoomMin in the upper and zoomMax in the lower 16 bits */
+    private int[] zoom;
+
+    /** Index into {@link #strings} or {@link #NO_STRING} */
+    private int[] name;
+    private int[] description;
+    private int[] id;
+    private int[] link;
+    private int[] symbol;
+
+    /** Dictionary for all string columns */
+    private final List<String> strings = new ArrayList<>();
+    private final Map<String, Integer> stringIndex = new HashMap<>();
+
+    public GeoPointColumns() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public GeoPointColumns(int initialCapacity) {
+        final int capacity = Math.max(initialCapacity, 1);
+        latitude = new double[capacity];
+        longitude = new double[capacity];
+        timeOfMeasurement = new long[capacity];
+        zoom = new int[capacity];
+        name = new int[capacity];
+        description = new int[capacity];
+        id = new int[capacity];
+        link = new int[capacity];
+        symbol = new int[capacity];
+    }
+
+    /** Flyweight view of the point at position index. */
+    @Override
+    public IGeoPointInfo get(int index) {
+        checkIndex(index);
+        return new Item(index);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /** Appends a copy of the values of point. */
+    @Override
+    public boolean add(IGeoPointInfo point) {
+        ensureCapacity(size + 1);
+        size++;
+        setValues(size - 1, point);
+        modCount++;
+        return true;
+    }
+
+    /** Replaces the values at position index by a copy of the values of point.
+     *
+     * @return a copy of the old values */
+    @Override
+    public IGeoPointInfo set(int index, IGeoPointInfo point) {
+        checkIndex(index);
+        IGeoPointInfo old = new GeoPointDto(new Item(index));
+        setValues(index, point);
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+        strings.clear();
+        stringIndex.clear();
+        modCount++;
+    }
+
+    /** Number of distinct strings stored in the dictionary. */
+    public int getStringCount() {
+        return strings.size();
+    }
+
+    public double getLatitude(int index) {
+        checkIndex(index);
+        return latitude[index];
+    }
+
+    public double getLongitude(int index) {
+        checkIndex(index);
+        return longitude[index];
+    }
+
+    /** Milliseconds since 1970 or {@link Long#MIN_VALUE} if there is no time. */
+    public long getTimeOfMeasurementMillis(int index) {
+        checkIndex(index);
+        return timeOfMeasurement[index];
+    }
+
+    private void setValues(int index, IGeoPointInfo point) {
+        latitude[index] = point.getLatitude();
+        longitude[index] = point.getLongitude();
+        final Date time = point.getTimeOfMeasurement();
+        timeOfMeasurement[index] = (time != null) ? time.getTime() : NO_TIME;
+        zoom[index] = (point.getZoomMin() << 16) | (point.getZoomMax() & 0xffff);
+        name[index] = toStringIndex(point.getName());
+        description[index] = toStringIndex(point.getDescription());
+        id[index] = toStringIndex(point.getId());
+        link[index] = toStringIndex(point.getLink());
+        symbol[index] = toStringIndex(point.getSymbol());
+    }
+
+    private int toStringIndex(String value) {
+        if (value == null) return NO_STRING;
+        Integer result = stringIndex.get(value);
+        if (result == null) {
+            result = strings.size();
+            strings.add(value);
+            stringIndex.put(value, result);
+        }
+        return result;
+    }
+
+    private String fromStringIndex(int index) {
+        return (index == NO_STRING) ? null : strings.get(index);
+    }
+
+    private void ensureCapacity(int minCapacity) {
+        if (minCapacity > latitude.length) {
+            final int capacity = Math.max(minCapacity, latitude.length + (latitude.length >> 1));
+            latitude = Arrays.copyOf(latitude, capacity);
+            longitude = Arrays.copyOf(longitude, capacity);
+            timeOfMeasurement = Arrays.copyOf(timeOfMeasurement, capacity);
+            zoom = Arrays.copyOf(zoom, capacity);
+            name = Arrays.copyOf(name, capacity);
+            description = Arrays.copyOf(description, capacity);
+            id = Arrays.copyOf(id, capacity);
+            link = Arrays.copyOf(link, capacity);
+            symbol = Arrays.copyOf(symbol, capacity);
+        }
+    }
+
+    /** Releases unused capacity after the last point has been added. */
+    public void trimToSize() {
+        if (size < latitude.length) {
+            final int capacity = Math.max(size, 1);
+            latitude = Arrays.copyOf(latitude, capacity);
+            longitude = Arrays.copyOf(longitude, capacity);
+            timeOfMeasurement = Arrays.copyOf(timeOfMeasurement, capacity);
+            zoom = Arrays.copyOf(zoom, capacity);
+            name = Arrays.copyOf(name, capacity);
+            description = Arrays.copyOf(description, capacity);
+            id = Arrays.copyOf(id, capacity);
+            link = Arrays.copyOf(link, capacity);
+            symbol = Arrays.copyOf(symbol, capacity);
+        }
+    }
+
+    private void checkIndex(int index) {
+        if ((index < 0) || (index >= size)) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    /** Flyweight {@link IGeoPointInfo} that reads its values from the columns. */
+    private class Item implements IGeoPointInfo {
+        private final int index;
+
+        Item(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public double getLatitude() {
+            return latitude[index];
+        }
+
+        @Override
+        public double getLongitude() {
+            return longitude[index];
+        }
+
+        @Override
+        public int getZoomMin() {
+            return zoom[index] >> 16;
+        }
+
+        @Override
+        public int getZoomMax() {
+            return (short) zoom[index];
+        }
+
+        @Override
+        public Date getTimeOfMeasurement() {
+            final long time = timeOfMeasurement[index];
+            return (time == NO_TIME) ? null : new Date(time);
+        }
+
+        @Override
+        public String getName() {
+            return fromStringIndex(name[index]);
+        }
+
+        @Override
+        public String getDescription() {
+            return fromStringIndex(description[index]);
+        }
+
+        @Override
+        public String getId() {
+            return fromStringIndex(id[index]);
+        }
+
+        @Override
+        public String getLink() {
+            return fromStringIndex(link[index]);
+        }
+
+        @Override
+        public String getSymbol() {
+            return fromStringIndex(symbol[index]);
+        }
+
+        /** Same as {@link GeoPointDto#equals(IGeoPointInfo, IGeoPointInfo)}: equal id or else equal lat/lon. */
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) return true;
+            return (other instanceof IGeoPointInfo) && GeoPointDto.equals(this, (IGeoPointInfo) other);
+        }
+
+        @Override
+        public int hashCode() {
+            final String id = getId();
+            if (id != null) return id.hashCode();
+            final long bits = Double.doubleToLongBits(getLatitude()) * 31 + Double.doubleToLongBits(getLongitude());
+            return (int) (bits ^ (bits >>> 32));
+        }
+
+        /** Creates an independent {@link GeoPointDto} copy. */
+        @Override
+        public IGeoPointInfo clone() {
+            return new GeoPointDto(this);
+        }
+
+        @Override
+        public String toString() {
+            return GeoPointDto.toString(this);
+        }
+    }
+}
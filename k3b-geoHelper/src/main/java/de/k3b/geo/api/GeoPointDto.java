@@ -379,7 +379,7 @@ public class GeoPointDto implements ILocation, IGeoPointInfo, Cloneable   {
         if ((lhs == null) && (rhs == null)) return true;
         if ((lhs == null) || (rhs == null)) return false;
 
-        if (lhs.getId() != null) return lhs.getId().compareTo(rhs.getId()) == 0;
+        if (lhs.getId() != null) return lhs.getId().equals(rhs.getId());
 
         return (lhs.getLatitude() == rhs.getLatitude()) && (lhs.getLongitude() == rhs.getLongitude());
     }
@@ -0,0 +1,292 @@
+/*
+ * Copyright (c) 2026 by k3b.
+ *
+ * This file is part of k3b-geoHelper library.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.k3b.geo.api;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Read only spatial index (packed R-tree) over loaded points for
+ * bounding-box and k-nearest-neighbour queries.
+ *
+ * The tree is bulk loaded with the Sort-Tile-Recursive (STR) algorithm:
+ * points are sorted by longitude into vertical slices, every slice is sorted by
+ * latitude and cut into leaves of {@link #NODE_CAPACITY} points.
+ * Consecutive nodes are then grouped into the parent nodes.
+ *
+ * **Example**
+ *
+ * ```java
+ * GeoSpatialIndex<GeoPointDto> index = GeoSpatialIndex.create(repository);
+ * GeoPointDto[] area = new GeoUri(GeoUri.OPT_DEFAULT).fromUri("geoarea:53,9,54,10",
+ *             new GeoPointDto[]{new GeoPointDto(), new GeoPointDto()});
+ * List<GeoPointDto> visible = index.query(area[0], area[1]);
+ * List<GeoPointDto> nearest = index.nearest(53.55, 9.99, 10);
+ * ```
+ *
+ * Points without lat/lon ({@link IGeoPointInfo#NO_LAT_LON}) are not indexed.
+ * Areas crossing the 180 degree meridian are not supported.
+ */
+public class GeoSpatialIndex<T extends ILocation> {
+    /** Max number of children per node */
+    public static final int NODE_CAPACITY = 16;
+
+    /** Indexed points in leaf order */
+    private final List<T> items;
+    private final double[] latitude;
+    private final double[] longitude;
+
+    /** Bounding boxes per tree level. Level 0 contains the leaves, the last level the root.
+     * The children of node i are the nodes (or items) i * NODE_CAPACITY ... (i + 1) * NODE_CAPACITY - 1 of
+     * the level below. */
+    private final double[][] minLatitude;
+    private final double[][] maxLatitude;
+    private final double[][] minLongitude;
+    private final double[][] maxLongitude;
+
+    /** Build index from the points loaded by repository */
+    public static <T extends IGeoPointInfo> GeoSpatialIndex<T> create(IGeoRepository<T> repository) {
+        return new GeoSpatialIndex<T>(repository.load());
+    }
+
+    /** Build index from points, i.e. the result of {@link de.k3b.geo.io.gpx.GpxReader#getTracks(org.xml.sax.InputSource)}. */
+    public GeoSpatialIndex(List<? extends T> points) {
+        List<T> valid = new ArrayList<>(points.size());
+        for (T point : points) {
+            if ((point != null) && (point.getLatitude() != IGeoPointInfo.NO_LAT_LON)
+                    && (point.getLongitude() != IGeoPointInfo.NO_LAT_LON)) {
+                valid.add(point);
+            }
+        }
+
+        final int count = valid.size();
+        items = new ArrayList<>(count);
+        latitude = new double[count];
+        longitude = new double[count];
+        int pos = 0;
+        for (Integer index : sortTileRecursive(valid)) {
+            T point = valid.get(index);
+            items.add(point);
+            latitude[pos] = point.getLatitude();
+            longitude[pos] = point.getLongitude();
+            pos++;
+        }
+
+        int levels = 1;
+        for (int nodes = nodeCount(count); nodes > 1; nodes = nodeCount(nodes)) levels++;
+        minLatitude = new double[levels][];
+        maxLatitude = new double[levels][];
+        minLongitude = new double[levels][];
+        maxLongitude = new double[levels][];
+        buildLevels(count);
+    }
+
+    /** Number of indexed points */
+    public int size() {
+        return items.size();
+    }
+
+    /** Returns all points inside the rectangle given by two opposite corners,
+     * i.e. the two points of a "geoarea:" uri. */
+    public List<T> query(ILocation corner1, ILocation corner2) {
+        return query(corner1.getLatitude(), corner1.getLongitude(), corner2.getLatitude(), corner2.getLongitude());
+    }
+
+    /** Returns all points inside the rectangle given by two opposite corners. */
+    public List<T> query(double latitude1, double longitude1, double latitude2, double longitude2) {
+        final List<T> result = new ArrayList<>();
+        if (items.size() > 0) {
+            query(minLatitude.length - 1, 0,
+                    Math.min(latitude1, latitude2), Math.max(latitude1, latitude2),
+                    Math.min(longitude1, longitude2), Math.max(longitude1, longitude2), result);
+        }
+        return result;
+    }
+
+    /** Returns the k points nearest to latitude/longitude ordered by distance.
+     *
+     * The distance is approximated in a plane with longitudes scaled by cos(latitude).
+     * This is exact enough for the order of points that are not far apart. */
+    public List<T> nearest(double latitude, double longitude, int k) {
+        final List<T> result = new ArrayList<>(Math.max(0, Math.min(k, items.size())));
+        if ((items.size() == 0) || (k <= 0)) return result;
+
+        final double lonScale = Math.cos(Math.toRadians(latitude));
+        final PriorityQueue<Candidate> queue = new PriorityQueue<>();
+        final int root = minLatitude.length - 1;
+        queue.add(new Candidate(0, root, 0));
+        while (!queue.isEmpty() && (result.size() < k)) {
+            final Candidate candidate = queue.poll();
+            if (candidate.level < 0) {
+                result.add(items.get(candidate.index));
+            } else {
+                final int first = candidate.index * NODE_CAPACITY;
+                if (candidate.level == 0) {
+                    final int last = Math.min(first + NODE_CAPACITY, items.size());
+                    for (int i = first; i < last; i++) {
+                        queue.add(new Candidate(distance(latitude, longitude, lonScale,
+                                this.latitude[i], this.longitude[i]), -1, i));
+                    }
+                } else {
+                    final int childLevel = candidate.level - 1;
+                    final int last = Math.min(first + NODE_CAPACITY, minLatitude[childLevel].length);
+                    for (int i = first; i < last; i++) {
+                        queue.add(new Candidate(distance(latitude, longitude, lonScale,
+                                clamp(latitude, minLatitude[childLevel][i], maxLatitude[childLevel][i]),
+                                clamp(longitude, minLongitude[childLevel][i], maxLongitude[childLevel][i])),
+                                childLevel, i));
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private void query(int level, int node, double minLat, double maxLat, double minLon, double maxLon, List<T> result) {
+        final int first = node * NODE_CAPACITY;
+        if (level == 0) {
+            final int last = Math.min(first + NODE_CAPACITY, items.size());
+            for (int i = first; i < last; i++) {
+                if ((latitude[i] >= minLat) && (latitude[i] <= maxLat)
+                        && (longitude[i] >= minLon) && (longitude[i] <= maxLon)) {
+                    result.add(items.get(i));
+                }
+            }
+        } else {
+            final int childLevel = level - 1;
+            final int last = Math.min(first + NODE_CAPACITY, minLatitude[childLevel].length);
+            for (int i = first; i < last; i++) {
+                if ((minLatitude[childLevel][i] <= maxLat) && (maxLatitude[childLevel][i] >= minLat)
+                        && (minLongitude[childLevel][i] <= maxLon) && (maxLongitude[childLevel][i] >= minLon)) {
+                    query(childLevel, i, minLat, maxLat, minLon, maxLon, result);
+                }
+            }
+        }
+    }
+
+    /** STR: Returns the indexes of points in leaf order */
+    private static <T extends ILocation> Integer[] sortTileRecursive(final List<T> points) {
+        final int count = points.size();
+        final Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) order[i] = i;
+
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer lhs, Integer rhs) {
+                return Double.compare(points.get(lhs).getLongitude(), points.get(rhs).getLongitude());
+            }
+        });
+
+        final int slices = (int) Math.ceil(Math.sqrt(nodeCount(count)));
+        final int sliceSize = slices * NODE_CAPACITY;
+        final Comparator<Integer> byLatitude = new Comparator<Integer>() {
+            @Override
+            public int compare(Integer lhs, Integer rhs) {
+                return Double.compare(points.get(lhs).getLatitude(), points.get(rhs).getLatitude());
+            }
+        };
+        for (int start = 0; start < count; start += sliceSize) {
+            Arrays.sort(order, start, Math.min(start + sliceSize, count), byLatitude);
+        }
+        return order;
+    }
+
+    /** Calculates the bounding boxes of all levels */
+    private void buildLevels(int count) {
+        // leaves
+        int nodes = nodeCount(count);
+        allocateLevel(0, nodes);
+        for (int node = 0; node < nodes; node++) {
+            final int first = node * NODE_CAPACITY;
+            final int last = Math.min(first + NODE_CAPACITY, count);
+            for (int i = first; i < last; i++) {
+                extend(0, node, latitude[i], latitude[i], longitude[i], longitude[i]);
+            }
+        }
+
+        for (int level = 1; level < minLatitude.length; level++) {
+            final int children = nodes;
+            nodes = nodeCount(children);
+            allocateLevel(level, nodes);
+            for (int node = 0; node < nodes; node++) {
+                final int first = node * NODE_CAPACITY;
+                final int last = Math.min(first + NODE_CAPACITY, children);
+                for (int i = first; i < last; i++) {
+                    extend(level, node, minLatitude[level - 1][i], maxLatitude[level - 1][i],
+                            minLongitude[level - 1][i], maxLongitude[level - 1][i]);
+                }
+            }
+        }
+    }
+
+    private void allocateLevel(int level, int nodes) {
+        minLatitude[level] = new double[nodes];
+        maxLatitude[level] = new double[nodes];
+        minLongitude[level] = new double[nodes];
+        maxLongitude[level] = new double[nodes];
+        Arrays.fill(minLatitude[level], Double.POSITIVE_INFINITY);
+        Arrays.fill(maxLatitude[level], Double.NEGATIVE_INFINITY);
+        Arrays.fill(minLongitude[level], Double.POSITIVE_INFINITY);
+        Arrays.fill(maxLongitude[level], Double.NEGATIVE_INFINITY);
+    }
+
+    private void extend(int level, int node, double minLat, double maxLat, double minLon, double maxLon) {
+        if (minLat < minLatitude[level][node]) minLatitude[level][node] = minLat;
+        if (maxLat > maxLatitude[level][node]) maxLatitude[level][node] = maxLat;
+        if (minLon < minLongitude[level][node]) minLongitude[level][node] = minLon;
+        if (maxLon > maxLongitude[level][node]) maxLongitude[level][node] = maxLon;
+    }
+
+    /** Number of nodes needed for count children. At least one so that an empty index has a root. */
+    private static int nodeCount(int count) {
+        return Math.max(1, (count + NODE_CAPACITY - 1) / NODE_CAPACITY);
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return (value < min) ? min : ((value > max) ? max : value);
+    }
+
+    /** Squared distance in a plane where longitude is scaled by lonScale */
+    private static double distance(double lat1, double lon1, double lonScale, double lat2, double lon2) {
+        final double dLat = lat2 - lat1;
+        final double dLon = (lon2 - lon1) * lonScale;
+        return dLat * dLat + dLon * dLon;
+    }
+
+    /** Entry of the nearest() search queue: a node (level >= 0) or an item (level = -1) */
+    private static class Candidate implements Comparable<Candidate> {
+        private final double distance;
+        private final int level;
+        private final int index;
+
+        Candidate(double distance, int level, int index) {
+            this.distance = distance;
+            this.level = level;
+            this.index = index;
+        }
+
+        @Override
+        public int compareTo(Candidate other) {
+            return Double.compare(distance, other.distance);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2026 by k3b.
+ *
+ * This file is part of k3b-geoHelper library.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.k3b.geo.api;
+
+/**
+ * {@link IGeoRepository} with fast access to items by {@link IGeoPointInfo#getId()}.
+ */
+public interface IGeoIdRepository<R extends IGeoPointInfo> extends IGeoRepository<R> {
+
+    /** @return the item with {@link IGeoPointInfo#getId()} or null if there is none. */
+    R get(String id);
+
+    /** Adds item or replaces the item with the same {@link IGeoPointInfo#getId()}. */
+    IGeoIdRepository<R> put(R item);
+
+    /** Removes the item with {@link IGeoPointInfo#getId()} from repository. */
+    IGeoIdRepository<R> deleteById(String id);
+}
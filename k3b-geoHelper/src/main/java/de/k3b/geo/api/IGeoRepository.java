@@ -51,6 +51,6 @@ public interface IGeoRepository<R extends IGeoPointInfo> {
     /** Generate a new id for {@link IGeoPointInfo#getId()}. */
     String createId();
 
-    /** Removes item from repository. */
+    /** Removes item from repository. The order of the remaining items is kept. */
     IGeoRepository<R> delete(R item);
 }
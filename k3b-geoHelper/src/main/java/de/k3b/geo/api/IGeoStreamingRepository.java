@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2026 by k3b.
+ *
+ * This file is part of k3b-geoHelper library.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.k3b.geo.api;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * {@link IGeoRepository} that can process huge repositories item by item
+ * without loading all items into memory.
+ */
+public interface IGeoStreamingRepository<R extends IGeoPointInfo> extends IGeoRepository<R> {
+
+    /** Streaming: Calls handler for every item in the repository without loading all items into memory.
+     *
+     * The item passed to the handler may be reused for the next item.
+     * Since {@link IGeoInfoHandler#onGeoInfo(IGeoPointInfo)} returns true for accepted items
+     * this can also be used to count items matching a condition.
+     *
+     * @return number of items where handler returned true
+     */
+    int forEach(IGeoInfoHandler handler);
+
+    /** Streaming: Load at most maxCount items where filter returns true.
+     *
+     * @return data loaded. These items are not reused.
+     */
+    List<R> load(IGeoInfoHandler filter, int maxCount);
+
+    /** Streaming: Iterates over all items without loading all items into memory.
+     *
+     * The item returned by {@link Iterator#next()} may be reused for the next item.
+     */
+    Iterator<R> iterator();
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2026 by k3b.
+ *
+ * This file is part of k3b-geoHelper library.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.k3b.geo.io;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import de.k3b.geo.api.IGeoIdRepository;
+import de.k3b.geo.api.IGeoInfoHandler;
+import de.k3b.geo.api.IGeoPointInfo;
+import de.k3b.geo.api.IGeoRepository;
+import de.k3b.geo.api.IGeoStreamingRepository;
+
+/**
+ * Thread safe {@link IGeoRepository} that can be shared by many threads, i.e. the request threads of a server.
+ *
+ * Readers ({@link #load()}, {@link #get(String)}, {@link #forEach(IGeoInfoHandler)}, ...) use an
+ * immutable snapshot of the items without any locking. Writers ({@link #put(IGeoPointInfo)},
+ * {@link #deleteById(String)}, ...) are serialised: every change creates a new snapshot
+ * (copy on write) that is visible to readers after the change is complete.
+ *
+ * Loading and saving is delegated to a {@link GeoFileRepository} that must not be used directly any more.
+ * Saving only blocks other writers. Use {@link GeoFileRepository#setJournalEnabled(boolean)} or
+ * {@link GeoFileRepository#setSaveDelay(long, java.util.concurrent.ScheduledExecutorService)}
+ * so that a change does not rewrite the whole file.
+ *
+ * Every change copies the list and rebuilds the id index of the snapshot, so a write takes O(n) time
+ * for n items, while reads take constant time. This is meant for repositories that are read much more often
+ * than they are changed. Items must not be modified after they were put into the repository:
+ * {@link #put(IGeoPointInfo)} a modified copy instead.
+ *
+ * **Example**
+ *
+ * ```java
+ * ConcurrentGeoRepository<GeoPointDto> repository = new ConcurrentGeoRepository<>(
+ *             new GeoFileRepository<GeoPointDto>(new File("/path/to/repository.txt")).setJournalEnabled(true));
+ * repository.put(new GeoPointDto().setLatLon(1, 2).setId("4711").setName("my test point"));
+ * GeoPointDto item = repository.get("4711");
+ * ```
+ */
+public class ConcurrentGeoRepository<T extends IGeoPointInfo> implements IGeoStreamingRepository<T>, IGeoIdRepository<T> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConcurrentGeoRepository.class);
+
+    /** Loads and saves the items. Guarded by mWriteLock */
+    private final GeoFileRepository<T> mDelegate;
+
+    /** Serialises writers */
+    private final Object mWriteLock = new Object();
+
+    /** Items visible to readers or null if not loaded yet. Replaced, never modified. */
+    private volatile Snapshot<T> mSnapshot = null;
+
+    /** @param delegate loads and saves the items. Must not be used directly any more. */
+    public ConcurrentGeoRepository(GeoFileRepository<T> delegate) {
+        this.mDelegate = delegate;
+    }
+
+    /**
+     * Lock free: Loads the items on first call.
+     *
+     * @return immutable snapshot of the items. Later changes are not visible in the snapshot.
+     */
+    @Override
+    public List<T> load() {
+        return getSnapshot().items;
+    }
+
+    /**
+     * Fresh load from the file.
+     *
+     * @return immutable snapshot of the items.
+     */
+    @Override
+    public List<T> reload() {
+        synchronized (mWriteLock) {
+            mDelegate.reload();
+            return publish().items;
+        }
+    }
+
+    /** Saves the items. Readers are not blocked. */
+    @Override
+    public ConcurrentGeoRepository<T> save() {
+        synchronized (mWriteLock) {
+            if (mSnapshot != null) mDelegate.save();
+        }
+        return this;
+    }
+
+    /** Writes the snapshot of a delayed save or compaction now. */
+    public ConcurrentGeoRepository<T> flush() {
+        synchronized (mWriteLock) {
+            mDelegate.flush();
+        }
+        return this;
+    }
+
+    @Override
+    public String createId() {
+        return mDelegate.createId();
+    }
+
+    @Override
+    public ConcurrentGeoRepository<T> delete(T item) {
+        if (item != null) {
+            synchronized (mWriteLock) {
+                getSnapshot();
+                mDelegate.delete(item);
+                publish();
+            }
+        }
+        return this;
+    }
+
+    /** Lock free.
+     * @return the item with {@link IGeoPointInfo#getId()} or null if there is none. */
+    @Override
+    public T get(String id) {
+        return getSnapshot().id2item.get(id);
+    }
+
+    @Override
+    public ConcurrentGeoRepository<T> put(T item) {
+        synchronized (mWriteLock) {
+            getSnapshot();
+            mDelegate.put(item);
+            publish();
+        }
+        return this;
+    }
+
+    @Override
+    public ConcurrentGeoRepository<T> deleteById(String id) {
+        synchronized (mWriteLock) {
+            if (getSnapshot().id2item.containsKey(id)) {
+                mDelegate.deleteById(id);
+                publish();
+            }
+        }
+        return this;
+    }
+
+    /** Lock free: Calls handler for every item of the current snapshot. */
+    @Override
+    public int forEach(IGeoInfoHandler handler) {
+        return forEach(handler, null, Integer.MAX_VALUE);
+    }
+
+    /** Lock free.
+     * @return at most maxCount items of the current snapshot where filter returns true */
+    @Override
+    public List<T> load(IGeoInfoHandler filter, int maxCount) {
+        List<T> result = new ArrayList<>();
+        forEach(filter, result, maxCount);
+        return result;
+    }
+
+    /** Lock free: Iterates over the current snapshot. Items are not reused. */
+    @Override
+    public Iterator<T> iterator() {
+        return getSnapshot().items.iterator();
+    }
+
+    private int forEach(IGeoInfoHandler handler, List<T> result, int maxCount) {
+        final List<T> items = getSnapshot().items;
+        int count = 0;
+        for (int i = 0; (i < items.size()) && (count < maxCount); i++) {
+            T geo = items.get(i);
+            if (handler.onGeoInfo(geo)) {
+                count++;
+                if (result != null) result.add(geo);
+            }
+        }
+        return count;
+    }
+
+    private Snapshot<T> getSnapshot() {
+        Snapshot<T> snapshot = mSnapshot;
+        if (snapshot == null) {
+            synchronized (mWriteLock) {
+                snapshot = mSnapshot;
+                if (snapshot == null) {
+                    mDelegate.load();
+                    snapshot = publish();
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    /** Makes the items of mDelegate visible to readers: O(n). Caller must hold mWriteLock */
+    private Snapshot<T> publish() {
+        final Snapshot<T> snapshot = new Snapshot<>(mDelegate.load());
+        mSnapshot = snapshot;
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("publish(): " + snapshot.items.size() + " items");
+        }
+        return snapshot;
+    }
+
+    /** Immutable copy of the items with an index on {@link IGeoPointInfo#getId()} */
+    private static class Snapshot<T extends IGeoPointInfo> {
+        private final List<T> items;
+        private final Map<String, T> id2item;
+
+        Snapshot(List<T> source) {
+            final Map<String, T> id2item = new HashMap<>(source.size() * 4 / 3 + 1);
+            for (T item : source) {
+                id2item.put(item.getId(), item);
+            }
+            this.items = Collections.unmodifiableList(new ArrayList<>(source));
+            this.id2item = id2item;
+        }
+    }
+}
@@ -30,6 +30,7 @@ import java.util.zip.ZipOutputStream;
 import de.k3b.geo.GeoConfig;
 import de.k3b.geo.api.IGeoPointInfo;
 import de.k3b.geo.io.DownloadSymbolsBaseService.ITranslateSymbolUri;
+import de.k3b.geo.io.geob.GeobWriter;
 import de.k3b.geo.io.gpx.GpxFormatter;
 import de.k3b.geo.io.kml.KmlFormatter;
 import de.k3b.geo.io.poi.PoiFormatter;
@@ -39,6 +40,7 @@ import de.k3b.geo.io.poi.PoiFormatter;
 public class DownloadGpxKmlZipWithSymbolsService {
     protected final String userAgent;
     private final ITranslateSymbolUri translateSymbolUri;
+    private SymbolCache symbolCache = null;
 
     /**
      * @param userAgent a string identifying the calling app.
@@ -51,6 +53,12 @@ public class DownloadGpxKmlZipWithSymbolsService {
         this.translateSymbolUri = translateSymbolUri;
     }
 
+    /** If not null downloaded symbols are cached locally so repeated exports do not download them again */
+    public DownloadGpxKmlZipWithSymbolsService setSymbolCache(SymbolCache symbolCache) {
+        this.symbolCache = symbolCache;
+        return this;
+    }
+
     /**
      * Examples use of {@link #saveAs(List, File)}
      * * saveAs(pints, new File("/path/to/GrandCanaria.kml"))
@@ -60,12 +68,14 @@ public class DownloadGpxKmlZipWithSymbolsService {
      * *** doc.kml
      * *** some symbol file files/aeropuerto.jpg
      *
-     * @param outFile : supported formats: .kml, .kml.zip, .kmz, .gpx, .gpx.zip, .gpz, .poi, .poi.zip, .poz
+     * @param outFile : supported formats: .kml, .kml.zip, .kmz, .gpx, .gpx.zip, .gpz, .poi, .poi.zip, .poz,
+     *                .geob, .geob.zip
      * */
     public void saveAs(List<IGeoPointInfo> points, File outFile) throws IOException {
         String outFileNameLowerCase = outFile.getName().toLowerCase();
         boolean isKmlFormat = GeoConfig.isOneOf(outFileNameLowerCase, GeoConfig.EXT_ALL_KML);
         boolean isPoiFormat = GeoConfig.isOneOf(outFileNameLowerCase, GeoConfig.EXT_ALL_POI);
+        boolean isGeobFormat = GeoConfig.isOneOf(outFileNameLowerCase, GeoConfig.EXT_ALL_GEOB);
         if (GeoConfig.isOneOf(outFileNameLowerCase, GeoConfig.EXT_ALL_ZIP)) {
             // kmz = kml in zip file
             // see https://developers.google.com/kml/documentation/kmzarchives
@@ -74,7 +84,7 @@ public class DownloadGpxKmlZipWithSymbolsService {
             // analog olso for gpz (gpx in zip) and poz (poi in zip)
 
             DownloadSymbolsToZipService downloadService = new DownloadSymbolsToZipService(userAgent);
-            downloadService.translateSymbolUri(translateSymbolUri);
+            downloadService.translateSymbolUri(translateSymbolUri).setSymbolCache(symbolCache);
 
             outFile.getParentFile().mkdirs();
             ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(outFile));
@@ -85,23 +95,29 @@ public class DownloadGpxKmlZipWithSymbolsService {
                 KmlFormatter.export(points, new PrintWriter(downloadService.createOutputStream("doc.kml", null, 0)));
             } else if (isPoiFormat) {
                 PoiFormatter.export(points, new PrintWriter(downloadService.createOutputStream("doc.poi", null, 0)));
+            } else if (isGeobFormat) {
+                GeobWriter.export(points, downloadService.createOutputStream("doc.geob", null, 0));
             } else {
                 GpxFormatter.export(points, new PrintWriter(downloadService.createOutputStream("doc.gpx", null, 0)));
             }
             zip.close();
         } else {
             DownloadSymbolsToDirService downloadService = new DownloadSymbolsToDirService(userAgent);
-            downloadService.translateSymbolUri(translateSymbolUri);
+            downloadService.translateSymbolUri(translateSymbolUri).setSymbolCache(symbolCache);
 
             String baseName = FilenameUtils.getBaseName(outFile.getPath());
             File dir = new File(outFile.getParentFile(), baseName);
             dir.mkdirs();
 
             points = downloadService.dir(dir).convert(points);
+            if (isGeobFormat) {
+                GeobWriter.export(points, new FileOutputStream(outFile));
+                return;
+            }
             PrintWriter printWriter = new PrintWriter(new FileOutputStream(outFile));
             if (isKmlFormat) {
                 KmlFormatter.export(points, printWriter);
-            } if (isPoiFormat) {
+            } else if (isPoiFormat) {
                 PoiFormatter.export(points, printWriter);
             } else {
                 GpxFormatter.export(points, printWriter);
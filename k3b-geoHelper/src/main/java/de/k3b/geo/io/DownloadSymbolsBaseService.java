@@ -21,23 +21,50 @@ import org.apache.commons.io.FilenameUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
+import java.net.HttpURLConnection;
 import java.net.URL;
 import java.net.URLConnection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import de.k3b.geo.api.GeoPointDto;
 import de.k3b.geo.api.IGeoInfoConverter;
 import de.k3b.geo.api.IGeoPointInfo;
 
+/**
+ * Downloads the http(s) symbols of points and replaces them with the uri of the local copy.
+ *
+ * Every distinct symbol url is downloaded only once, even if it is used by many points.
+ * Up to {@link #setMaxConcurrentDownloads(int)} symbols are downloaded concurrently.
+ * The downloaded symbols are saved sequentially in the calling thread,
+ * so {@link #createOutputStream(String)} does not need to be thread safe.
+ */
 public abstract class DownloadSymbolsBaseService implements IGeoInfoConverter<IGeoPointInfo> {
     private static final Logger LOGGER = LoggerFactory.getLogger(DownloadSymbolsBaseService.class);
 
+    /** Default for {@link #setMaxConcurrentDownloads(int)} */
+    public static final int DEFAULT_MAX_CONCURRENT_DOWNLOADS = 4;
+    private static final int BUFFER_SIZE = 16 * 1024;
+
     protected final String userAgent;
+    /** The connection of the symbol that is currently saved */
     protected URLConnection lastConnection = null;
+    /** Last-Modified of the symbol that is currently saved or 0 if unknown */
+    protected long lastModified = 0;
     protected ITranslateSymbolUri translateSymbolUri = null;
+    private int maxConcurrentDownloads = DEFAULT_MAX_CONCURRENT_DOWNLOADS;
+    private SymbolCache symbolCache = null;
 
     /**
      * @param userAgent a string identifying the calling app.
@@ -56,6 +83,18 @@ public abstract class DownloadSymbolsBaseService implements IGeoInfoConverter<IG
         return this;
     }
 
+    /** Max number of symbols that are downloaded at the same time. 1: download sequentially */
+    public DownloadSymbolsBaseService setMaxConcurrentDownloads(int maxConcurrentDownloads) {
+        this.maxConcurrentDownloads = Math.max(1, maxConcurrentDownloads);
+        return this;
+    }
+
+    /** If not null symbols are cached locally and revalidated with conditional http GET */
+    public DownloadSymbolsBaseService setSymbolCache(SymbolCache symbolCache) {
+        this.symbolCache = symbolCache;
+        return this;
+    }
+
     @Override
     public List<IGeoPointInfo> convert(List<IGeoPointInfo> points) {
         if (points != null) {
@@ -70,32 +109,169 @@ public abstract class DownloadSymbolsBaseService implements IGeoInfoConverter<IG
     }
 
     protected void downloadSymbols(List<IGeoPointInfo> points) throws IOException {
+        // distinct symbol urls in the order of first use
+        final Map<String, Future<SymbolDownload>> url2download = new LinkedHashMap<>();
         for (IGeoPointInfo geo : points) {
             String icon = geo.getSymbol();
-            if (icon != null && icon.contains(".") && icon.toLowerCase().startsWith("http")) {
-                ((GeoPointDto) geo).setSymbol(saveIcon(icon));
+            if (isDownloadable(icon)) {
+                url2download.put(icon, null);
             }
         }
+        if (url2download.isEmpty()) return;
+
+        final Map<String, String> url2symbol = new LinkedHashMap<>();
+        final ExecutorService executor = Executors.newFixedThreadPool(
+                Math.min(maxConcurrentDownloads, url2download.size()));
+        try {
+            for (final String icon : url2download.keySet()) {
+                url2download.put(icon, executor.submit(new Callable<SymbolDownload>() {
+                    @Override
+                    public SymbolDownload call() throws IOException {
+                        return download(icon);
+                    }
+                }));
+            }
+
+            for (Map.Entry<String, Future<SymbolDownload>> entry : url2download.entrySet()) {
+                final String icon = entry.getKey();
+                String symbol = icon;
+                try {
+                    symbol = save(entry.getValue().get());
+                } catch (ExecutionException e) {
+                    LOGGER.warn("Cannot download symbol " + icon, e.getCause());
+                }
+                url2symbol.put(icon, symbol);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("downloadSymbols interrupted");
+        } finally {
+            executor.shutdownNow();
+            saveSymbolCache();
+        }
+
+        for (IGeoPointInfo geo : points) {
+            String symbol = url2symbol.get(geo.getSymbol());
+            if (symbol != null) {
+                ((GeoPointDto) geo).setSymbol(symbol);
+            }
+        }
+    }
+
+    private void saveSymbolCache() {
+        if (symbolCache != null) {
+            try {
+                symbolCache.save();
+            } catch (IOException e) {
+                LOGGER.warn("Cannot save symbol cache", e);
+            }
+        }
+    }
+
+    private static boolean isDownloadable(String icon) {
+        return icon != null && icon.contains(".") && icon.toLowerCase().startsWith("http");
     }
 
     protected String saveIcon(String icon) throws IOException {
-        String iconName = FilenameUtils.getName(icon);
+        try {
+            return save(download(icon));
+        } catch (Exception e) {
+            return icon;
+        }
+    }
+
+    /** Downloads the content of icon into memory. Thread safe */
+    private SymbolDownload download(String icon) throws IOException {
+        final SymbolCache symbolCache = this.symbolCache;
+        final SymbolCache.Entry cached = (symbolCache != null) ? symbolCache.get(icon) : null;
+        if (cached != null) {
+            try {
+                return download(icon, symbolCache, cached);
+            } catch (IOException e) {
+                // i.e. cached file evicted in the meantime
+                LOGGER.debug("download {} from cache failed. Downloading without cache.", icon, e);
+            }
+        }
+        return download(icon, symbolCache, null);
+    }
+
+    /** Downloads the content of icon. If cached is not null a conditional http GET is used. */
+    private SymbolDownload download(String icon, SymbolCache symbolCache, SymbolCache.Entry cached) throws IOException {
+        final URLConnection connection = openConnection(new URL(icon));
+        if (cached != null) {
+            if (cached.getEtag() != null) connection.setRequestProperty("If-None-Match", cached.getEtag());
+            if (cached.getLastModified() != 0) connection.setIfModifiedSince(cached.getLastModified());
+        }
         InputStream inputStream = null;
+        try {
+            inputStream = connection.getInputStream();
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            if ((cached != null) && (connection instanceof HttpURLConnection)
+                    && (((HttpURLConnection) connection).getResponseCode() == HttpURLConnection.HTTP_NOT_MODIFIED)) {
+                while (inputStream.read(buffer) > -1) {
+                    // discard
+                }
+                return new SymbolDownload(icon, connection, symbolCache.read(cached), cached.getLastModified());
+            }
+
+            final int length = connection.getContentLength();
+            final ByteArrayOutputStream content = new ByteArrayOutputStream((length > 0) ? length : BUFFER_SIZE);
+            for (int read = inputStream.read(buffer); read > -1; read = inputStream.read(buffer)) {
+                content.write(buffer, 0, read);
+            }
+            final long lastModified = connection.getLastModified();
+            if (symbolCache != null) {
+                symbolCache.put(icon, content.toByteArray(), connection.getHeaderField("ETag"), lastModified);
+            }
+            return new SymbolDownload(icon, connection, content, lastModified);
+        } catch (IOException e) {
+            discardErrorStream(connection);
+            throw e;
+        } finally {
+            // closing the completely read stream allows the http keep-alive connection to be reused
+            if (inputStream != null) inputStream.close();
+        }
+    }
+
+    /** Saves the downloaded symbol.
+     * @return the uri of the saved symbol or the original url if it cannot be saved */
+    private String save(SymbolDownload download) {
+        try {
+            lastConnection = download.connection;
+            lastModified = download.lastModified;
+            return saveSymbol(FilenameUtils.getName(download.url), download.content);
+        } catch (Exception e) {
+            return download.url;
+        }
+    }
+
+    /** Saves the content of symbol iconName via {@link #createOutputStream(String)}.
+     * @return the uri of the saved symbol */
+    protected String saveSymbol(String iconName, ByteArrayOutputStream content) throws IOException {
         OutputStream outputStream = null;
         try {
-            inputStream = getInputStream(icon);
             outputStream = createOutputStream(iconName);
-            byte[] buffer = new byte[1024];
-            for (int read = inputStream.read(buffer); read > -1; read = inputStream
-                    .read(buffer)) {
-                outputStream.write(buffer, 0, read);
-            }
+            content.writeTo(outputStream);
             return createSymbolUri(iconName);
-        } catch (Exception e) {
-            return icon;
         } finally {
             if (outputStream != null) closeSymbolOutputStream(outputStream);
-            if (inputStream != null) inputStream.close();
+        }
+    }
+
+    /** Reads the error response so that the keep-alive connection can be reused */
+    private static void discardErrorStream(URLConnection connection) {
+        if (connection instanceof HttpURLConnection) {
+            InputStream errorStream = ((HttpURLConnection) connection).getErrorStream();
+            if (errorStream != null) {
+                try {
+                    byte[] buffer = new byte[BUFFER_SIZE];
+                    while (errorStream.read(buffer) > -1) {
+                        // discard
+                    }
+                    errorStream.close();
+                } catch (IOException ignore) {
+                }
+            }
         }
     }
 
@@ -108,12 +284,16 @@ public abstract class DownloadSymbolsBaseService implements IGeoInfoConverter<IG
     }
 
     public InputStream getInputStream(URL url) throws IOException {
-        lastConnection = url.openConnection();
+        lastConnection = openConnection(url);
+        return lastConnection.getInputStream();
+    }
 
-        // see https://meta.wikimedia.org/wiki/Special:MyLanguage/User-Agent_policy
-        lastConnection.setRequestProperty("User-Agent",userAgent);
+    protected URLConnection openConnection(URL url) throws IOException {
+        URLConnection connection = url.openConnection();
 
-        return lastConnection.getInputStream();
+        // see https://meta.wikimedia.org/wiki/Special:MyLanguage/User-Agent_policy
+        connection.setRequestProperty("User-Agent",userAgent);
+        return connection;
     }
 
     protected String createSymbolUri(String iconName) {
@@ -128,4 +308,19 @@ public abstract class DownloadSymbolsBaseService implements IGeoInfoConverter<IG
     public interface ITranslateSymbolUri {
         String translate(String symbolUri);
     }
+
+    /** A symbol downloaded into memory */
+    private static class SymbolDownload {
+        private final String url;
+        private final URLConnection connection;
+        private final ByteArrayOutputStream content;
+        private final long lastModified;
+
+        SymbolDownload(String url, URLConnection connection, ByteArrayOutputStream content, long lastModified) {
+            this.url = url;
+            this.connection = connection;
+            this.content = content;
+            this.lastModified = lastModified;
+        }
+    }
 }
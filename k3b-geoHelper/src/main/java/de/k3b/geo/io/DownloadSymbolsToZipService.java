@@ -17,15 +17,38 @@
  */
 package de.k3b.geo.io;
 
+import org.apache.commons.io.FilenameUtils;
+
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
-/** Dowloads Symbols in List<IGeoPointInfo> points and saves them to local Zip/kmz file */
+import de.k3b.geo.GeoConfig;
+
+/** Dowloads Symbols in List<IGeoPointInfo> points and saves them to local Zip/kmz file.
+ *
+ * Symbols with the same content are stored only once. Symbols with the same name but different
+ * content are renamed (icon.png, icon-2.png, ...). Symbols that are already compressed
+ * (see {@link #storedExtensions(String...)}) are STORED without compression. */
 public class DownloadSymbolsToZipService extends DownloadSymbolsBaseService {
+    /** Default for {@link #storedExtensions(String...)}: image formats that do not compress */
+    public static final String[] DEFAULT_STORED_EXTENSIONS = {".png", ".jpg", ".jpeg", ".gif", ".webp"};
+
     private ZipOutputStream zipOutputStream = null;
     private String imageDirName = "";
+    private String[] storedExtensions = DEFAULT_STORED_EXTENSIONS;
+
+    /** content hash of saved symbols to symbol uri */
+    private final Map<String, String> hash2symbolUri = new HashMap<>();
+    /** lowercase names of all zip entries */
+    private final Set<String> entryNames = new HashSet<>();
 
     /**
      * @param userAgent a string identifying the calling app.
@@ -48,6 +71,48 @@ public class DownloadSymbolsToZipService extends DownloadSymbolsBaseService {
         return this;
     }
 
+    /** Symbols with these (lowercase) file extensions are STORED. All other entries are DEFLATED. */
+    public DownloadSymbolsToZipService storedExtensions(String... storedExtensions) {
+        this.storedExtensions = (storedExtensions != null) ? storedExtensions : new String[0];
+        return this;
+    }
+
+    @Override
+    protected String saveSymbol(String iconName, ByteArrayOutputStream content) throws IOException {
+        final byte[] bytes = content.toByteArray();
+        final String hash = SymbolCache.hash(bytes);
+        String symbolUri = hash2symbolUri.get(hash);
+        if (symbolUri == null) {
+            final String uniqueIconName = getUniqueIconName(iconName);
+            final ZipEntry zipEntry = createZipEntry(imageDirName + uniqueIconName, "from " + iconName, lastModified);
+            if (GeoConfig.isOneOf(uniqueIconName, storedExtensions)) {
+                final CRC32 crc = new CRC32();
+                crc.update(bytes);
+                zipEntry.setMethod(ZipEntry.STORED);
+                zipEntry.setSize(bytes.length);
+                zipEntry.setCompressedSize(bytes.length);
+                zipEntry.setCrc(crc.getValue());
+            }
+            zipOutputStream.putNextEntry(zipEntry);
+            zipOutputStream.write(bytes);
+            zipOutputStream.closeEntry();
+
+            symbolUri = createSymbolUri(uniqueIconName);
+            hash2symbolUri.put(hash, symbolUri);
+        }
+        return symbolUri;
+    }
+
+    /** @return iconName or iconName-2, iconName-3, ... if there is already an entry with this name */
+    private String getUniqueIconName(String iconName) {
+        String result = iconName;
+        for (int i = 2; entryNames.contains((imageDirName + result).toLowerCase()); i++) {
+            final String extension = FilenameUtils.getExtension(iconName);
+            result = FilenameUtils.getBaseName(iconName) + "-" + i + (extension.isEmpty() ? "" : "." + extension);
+        }
+        return result;
+    }
+
     @Override
     protected String createSymbolUri(String iconName) {
         return super.createSymbolUri(this.imageDirName + iconName);
@@ -57,20 +122,24 @@ public class DownloadSymbolsToZipService extends DownloadSymbolsBaseService {
     protected OutputStream createOutputStream(String iconName) throws IOException {
         String renamedFile = imageDirName + iconName;
         String comment = "from " + iconName;
-        long lastModified = (lastConnection != null) ? lastConnection.getLastModified() : 0;
 
         return createOutputStream(renamedFile, comment, lastModified);
     }
 
     public OutputStream createOutputStream(String renamedFile, String comment, long lastModified) throws IOException {
+        zipOutputStream.putNextEntry(createZipEntry(renamedFile, comment, lastModified));
+
+        return this.zipOutputStream;
+    }
+
+    private ZipEntry createZipEntry(String renamedFile, String comment, long lastModified) {
         ZipEntry zipEntry = new ZipEntry(renamedFile);
         if (comment != null) zipEntry.setComment(comment);
 
         if (lastModified != 0) zipEntry.setTime(lastModified);
 
-        zipOutputStream.putNextEntry(zipEntry);
-
-        return this.zipOutputStream;
+        entryNames.add(renamedFile.toLowerCase());
+        return zipEntry;
     }
 
     @Override
@@ -21,21 +21,41 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.xml.sax.InputSource;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.net.URL;
 import java.net.URLConnection;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.lang.String;
 
 import de.k3b.geo.GeoConfig;
+import de.k3b.geo.GeoLoadService;
+import de.k3b.geo.api.GeoPointDto;
 import de.k3b.geo.api.IGeoPointInfo;
+import de.k3b.geo.api.ILocation;
 import de.k3b.geo.io.DownloadSymbolsBaseService.ITranslateSymbolUri;
 import de.k3b.geo.io.gpx.GpxReader;
 
 /**
  * Translates geo / gps location to local kml/kmz file with nearby wikipedia articles.
+ *
+ * {@link #saveAllAs(List, File)} queries many locations (i.e. from {@link #createGrid(ILocation, ILocation, int, int)})
+ * with concurrent but rate limited requests and saves the articles found into one file.
  */
 public class Geo2WikipediaDownloadWithSymbolsService extends DownloadGpxKmlZipWithSymbolsService {
     private static final Logger LOGGER = LoggerFactory.getLogger(Geo2WikipediaDownloadWithSymbolsService.class);
@@ -45,6 +65,20 @@ public class Geo2WikipediaDownloadWithSymbolsService extends DownloadGpxKmlZipWi
     int radius = 10000;
     int maxcount = 5;
 
+    /** null: use https://serviceName/w/api.php */
+    private String apiUrl = null;
+
+    // batch queries: see https://www.mediawiki.org/wiki/API:Etiquette
+    private int maxConcurrentRequests = 2;
+    private long minRequestIntervalMillis = 100;
+    private final Object rateLimitLock = new Object();
+    /** time when the next request may start. Guarded by rateLimitLock */
+    private long nextRequestTime = 0;
+
+    private GeoSearchCache searchCache = null;
+    /** cache key to download that is currently running. Guarded by itself */
+    private final Map<String, FutureTask<byte[]>> key2download = new HashMap<>();
+
     /**
      * @param serviceName where the data comes from. i.e.  "en.wikipedia.org" or "de.wikivoyage.org"
      * @param userAgent a string identifying the calling app.
@@ -67,6 +101,51 @@ public class Geo2WikipediaDownloadWithSymbolsService extends DownloadGpxKmlZipWi
         return this;
     }
 
+    /** Url of the wikimedia api. Default is https://serviceName/w/api.php */
+    public Geo2WikipediaDownloadWithSymbolsService setApiUrl(String apiUrl) {
+        this.apiUrl = apiUrl;
+        return this;
+    }
+
+    /** Max number of concurrent requests of a batch query. Default 2 */
+    public Geo2WikipediaDownloadWithSymbolsService setMaxConcurrentRequests(int maxConcurrentRequests) {
+        this.maxConcurrentRequests = Math.max(1, maxConcurrentRequests);
+        return this;
+    }
+
+    /** Min time between the start of two requests of a batch query. Default 100 ms */
+    public Geo2WikipediaDownloadWithSymbolsService setMinRequestIntervalMillis(long minRequestIntervalMillis) {
+        this.minRequestIntervalMillis = Math.max(0, minRequestIntervalMillis);
+        return this;
+    }
+
+    /**
+     * If not null responses are cached. Queries for nearby locations are answered with the
+     * same response for the quantised location (see {@link GeoSearchCache#setPrecision(double)}).
+     */
+    public Geo2WikipediaDownloadWithSymbolsService setSearchCache(GeoSearchCache searchCache) {
+        this.searchCache = searchCache;
+        return this;
+    }
+
+    /**
+     * Creates rows * columns locations that cover the area between the two corners.
+     * Every location is the center of a grid cell.
+     */
+    public static List<ILocation> createGrid(ILocation corner1, ILocation corner2, int rows, int columns) {
+        final double minLat = Math.min(corner1.getLatitude(), corner2.getLatitude());
+        final double minLon = Math.min(corner1.getLongitude(), corner2.getLongitude());
+        final double latStep = Math.abs(corner1.getLatitude() - corner2.getLatitude()) / rows;
+        final double lonStep = Math.abs(corner1.getLongitude() - corner2.getLongitude()) / columns;
+        final List<ILocation> result = new ArrayList<>(rows * columns);
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                result.add(new GeoPointDto().setLatLon(minLat + (row + 0.5) * latStep, minLon + (column + 0.5) * lonStep));
+            }
+        }
+        return result;
+    }
+
     private InputStream getInputStream(String urlString) throws IOException {
         return getInputStream(new URL(urlString));
     }
@@ -81,13 +160,109 @@ public class Geo2WikipediaDownloadWithSymbolsService extends DownloadGpxKmlZipWi
     }
 
     private List<IGeoPointInfo> getGeoPointInfos(Object lat, Object lon) throws IOException {
+        final GeoSearchCache searchCache = this.searchCache;
+        if (searchCache != null) {
+            try {
+                return getGeoPointInfos(searchCache,
+                        GeoFormatter.parseLatOrLon(lat.toString()), GeoFormatter.parseLatOrLon(lon.toString()));
+            } catch (ParseException e) {
+                LOGGER.warn("Cannot cache query for " + lat + "," + lon, e);
+            }
+        }
+
         String urlString = this.getQueryGeoUrlString(lat, lon);
+        waitForRequestSlot();
         LOGGER.info("downloading from {}", urlString);
         InputStream inputStream = this.getInputStream(urlString);
+        try {
+            GpxReader<IGeoPointInfo> parser = new GpxReader<>();
+
+            List<IGeoPointInfo> points = parser.getTracks(new InputSource(inputStream));
+            return points;
+        } finally {
+            GeoLoadService.closeSilently(inputStream);
+        }
+    }
+
+    private List<IGeoPointInfo> getGeoPointInfos(GeoSearchCache searchCache, double lat, double lon) throws IOException {
+        final String quantisedLat = GeoFormatter.formatLatLon(searchCache.quantise(lat));
+        final String quantisedLon = GeoFormatter.formatLatLon(searchCache.quantise(lon));
+        final String key = serviceName + "_" + quantisedLat + "_" + quantisedLon + "_" + radius + "_" + maxcount;
+        byte[] content = searchCache.get(key);
+        if (content == null) {
+            content = download(searchCache, key, this.getQueryGeoUrlString(quantisedLat, quantisedLon));
+        } else {
+            LOGGER.debug("from cache {}", key);
+        }
         GpxReader<IGeoPointInfo> parser = new GpxReader<>();
+        return parser.getTracks(new InputSource(new ByteArrayInputStream(content)));
+    }
 
-        List<IGeoPointInfo> points = parser.getTracks(new InputSource(inputStream));
-        return points;
+    /**
+     * Downloads urlString into searchCache.
+     * If an other thread is already downloading key its result is used instead of downloading again.
+     */
+    private byte[] download(final GeoSearchCache searchCache, final String key, final String urlString) throws IOException {
+        FutureTask<byte[]> download;
+        boolean started = false;
+        synchronized (key2download) {
+            download = key2download.get(key);
+            if (download == null) {
+                download = new FutureTask<>(new Callable<byte[]>() {
+                    @Override
+                    public byte[] call() throws IOException {
+                        // an other download may have finished after our cache miss
+                        byte[] content = searchCache.get(key);
+                        if (content == null) {
+                            waitForRequestSlot();
+                            LOGGER.info("downloading from {}", urlString);
+                            content = download(urlString);
+                            searchCache.put(key, content);
+                        }
+                        return content;
+                    }
+                });
+                key2download.put(key, download);
+                started = true;
+            }
+        }
+
+        if (started) {
+            try {
+                download.run();
+            } finally {
+                synchronized (key2download) {
+                    key2download.remove(key);
+                }
+            }
+        } else {
+            LOGGER.debug("waiting for running download {}", key);
+        }
+
+        try {
+            return download.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("download interrupted");
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            throw new IOException(cause);
+        }
+    }
+
+    private byte[] download(String urlString) throws IOException {
+        InputStream inputStream = this.getInputStream(urlString);
+        try {
+            final ByteArrayOutputStream content = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            for (int read = inputStream.read(buffer); read > -1; read = inputStream.read(buffer)) {
+                content.write(buffer, 0, read);
+            }
+            return content.toByteArray();
+        } finally {
+            GeoLoadService.closeSilently(inputStream);
+        }
     }
 
     public List<IGeoPointInfo> saveAs(Object lat, Object lon, File out) throws IOException {
@@ -96,21 +271,100 @@ public class Geo2WikipediaDownloadWithSymbolsService extends DownloadGpxKmlZipWi
         return points;
     }
 
+    /**
+     * Queries the articles near every location and saves them into one file.
+     *
+     * @param out see {@link #saveAs(List, File)} for supported formats
+     * @return the articles found. Every article (pageid) is contained only once.
+     */
+    public List<IGeoPointInfo> saveAllAs(List<? extends ILocation> locations, File out) throws IOException {
+        List<IGeoPointInfo> points = getGeoPointInfos(locations);
+        saveAs(points, out);
+        return points;
+    }
+
+    /**
+     * Queries the articles near every location with up to {@link #setMaxConcurrentRequests(int)} concurrent
+     * requests that are started at most every {@link #setMinRequestIntervalMillis(long)}.
+     * With {@link #setSearchCache(GeoSearchCache)} locations in the same quantised cell are downloaded once.
+     *
+     * @return the articles found in the order of locations. Articles found for more than one
+     * location (same pageid) are contained only once.
+     */
+    public List<IGeoPointInfo> getGeoPointInfos(List<? extends ILocation> locations) throws IOException {
+        final List<Future<List<IGeoPointInfo>>> requests = new ArrayList<>(locations.size());
+        final ExecutorService executor = Executors.newFixedThreadPool(
+                Math.max(1, Math.min(maxConcurrentRequests, locations.size())));
+        try {
+            for (final ILocation location : locations) {
+                requests.add(executor.submit(new Callable<List<IGeoPointInfo>>() {
+                    @Override
+                    public List<IGeoPointInfo> call() throws Exception {
+                        return getGeoPointInfos(GeoFormatter.formatLatLon(location.getLatitude()),
+                                GeoFormatter.formatLatLon(location.getLongitude()));
+                    }
+                }));
+            }
+
+            // pageid to article
+            final Map<String, IGeoPointInfo> id2point = new LinkedHashMap<>();
+            final List<IGeoPointInfo> result = new ArrayList<>();
+            for (Future<List<IGeoPointInfo>> request : requests) {
+                for (IGeoPointInfo point : request.get()) {
+                    final String id = point.getId();
+                    if (id == null) {
+                        result.add(point);
+                    } else if (!id2point.containsKey(id)) {
+                        id2point.put(id, point);
+                        result.add(point);
+                    }
+                }
+            }
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("getGeoPointInfos interrupted");
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            throw new IOException(cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /** Blocks until the next request may start. Cache hits do not need a request slot. */
+    private void waitForRequestSlot() throws InterruptedIOException {
+        final long wait;
+        synchronized (rateLimitLock) {
+            final long now = System.currentTimeMillis();
+            final long start = Math.max(now, nextRequestTime);
+            nextRequestTime = start + minRequestIntervalMillis;
+            wait = start - now;
+        }
+        if (wait > 0) {
+            try {
+                Thread.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("waitForRequestSlot interrupted");
+            }
+        }
+    }
+
     /** api creates url that encodes what we want to get from wikipedia  */
     private String getQueryGeoUrlString(Object lat, Object lon) {
         // see https://www.mediawiki.org/wiki/Special:MyLanguage/API:Main_page
-        String urlString = "https://" +
-                serviceName +
-                "/w/api.php" +
+        String urlString = ((apiUrl != null) ? apiUrl : "https://" + serviceName + "/w/api.php") +
                 "?action=query" +
                 "&format=xml" +
-                "&prop=coordinates|info|pageimages|extracts" +
+                "&prop=coordinates%7Cinfo%7Cpageimages%7Cextracts" +
                 "&inprop=url" +
                 "&piprop=thumbnail" +
                 "&generator=geosearch" +
                 "&ggscoord=" +
                 lat +
-                "|" +
+                "%7C" + // "|" is not a valid url char
                 lon +
                 "&ggsradius=" +
                 radius +
@@ -22,19 +22,51 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
 import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.FileWriter;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
 import java.io.Reader;
 import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
+import de.k3b.geo.GeoLoadService;
 import de.k3b.geo.api.GeoPointDto;
+import de.k3b.geo.api.IGeoIdRepository;
+import de.k3b.geo.api.IGeoInfoHandler;
 import de.k3b.geo.api.IGeoPointInfo;
 import de.k3b.geo.api.IGeoRepository;
+import de.k3b.geo.api.IGeoStreamingRepository;
 
 /**
  * Repository to load/save List< {@link de.k3b.geo.api.GeoPointDto} > via a file.
@@ -53,9 +85,44 @@ import de.k3b.geo.api.IGeoRepository;
  * repository.save();
  * ```
  *
+ * For huge files {@link #forEach(IGeoInfoHandler)}, {@link #load(IGeoInfoHandler, int)} and
+ * {@link #iterator()} parse the file line by line without keeping all items in memory.
+ * {@link #loadParallel(ForkJoinPool)} parses a memory mapped file in chunks on all processors.
+ *
+ * **Journal**
+ *
+ * With {@link #setJournalEnabled(boolean)} {@link #add(IGeoPointInfo)}, {@link #put(IGeoPointInfo)}
+ * and {@link #delete(IGeoPointInfo)} only append one record to the journal file (file + {@link #JOURNAL_EXT})
+ * instead of rewriting the whole file. {@link #load()} replays the journal.
+ * Streaming reads the journal into a small overlay by id that is applied to the file line by line.
+ * If the journal has more than {@link #setCompactThreshold(int)} records the file is rewritten
+ * in the background and the journal is cleared.
+ * Since journal records refer to {@link IGeoPointInfo#getId()} ids must be unique.
+ * If a record cannot be appended the whole file is saved instead. {@link #isDirty()} tells
+ * if changes could not be written at all.
+ *
+ * **Id index**
+ *
+ * {@link #get(String)} and {@link #put(IGeoPointInfo)} take constant time
+ * using a hash index from {@link IGeoPointInfo#getId()} to the position in the list.
+ * {@link #delete(IGeoPointInfo)} and {@link #deleteById(String)} keep the order of the items and
+ * take linear time. With {@link #setUnorderedDelete(boolean)} they take constant time
+ * but move the last item into the gap.
+ * The index is rebuilt once if the list returned by {@link #load()} was modified directly.
+ *
+ * **Saving**
+ *
+ * The file is written to a temporary file in the same directory which is synced to disk and
+ * then renamed to the file, so a crash while saving does not destroy the old content.
+ * Where rename cannot replace a file the old file is kept as backup until the new one is in place.
+ * If this is interrupted the next {@link #load()} recovers the file. Streaming reads the recovered
+ * content without renaming files.
+ * With {@link #setSaveDelay(long, ScheduledExecutorService)} {@link #save()} only takes a snapshot and
+ * the file is written later in the background. All saves within the delay are written once.
+ *
  * Created by k3b on 17.03.2015.
  */
-public class GeoFileRepository<T extends IGeoPointInfo> implements IGeoRepository<T> {
+public class GeoFileRepository<T extends IGeoPointInfo> implements IGeoStreamingRepository<T>, IGeoIdRepository<T> {
     private static final Logger logger = LoggerFactory.getLogger(GeoFileRepository.class);
 
     /** Lines starting with char are comments. These lines are not interpreted */
@@ -64,6 +131,24 @@ public class GeoFileRepository<T extends IGeoPointInfo> implements IGeoRepositor
     /** Used to translate between {@link de.k3b.geo.api.IGeoPointInfo} and geo-uri string */
     private static final GeoUri converter = new GeoUri(GeoUri.OPT_DEFAULT);
 
+    /** Journal file name is repository file name plus this extension */
+    public static final String JOURNAL_EXT = ".journal";
+    /** Journal that is currently compacted into the repository file */
+    private static final String COMPACTING_EXT = ".compacting";
+    private static final char JOURNAL_PUT = '+';
+    private static final char JOURNAL_DELETE = '-';
+
+    /** Complete new content of the file while it is replaced */
+    private static final String NEW_EXT = ".new";
+    /** Old content of the file while it is replaced where rename cannot replace files */
+    private static final String BACKUP_EXT = ".bak";
+
+    /** Buffer for writing the repository file */
+    private static final int SAVE_BUFFER_SIZE = 64 * 1024;
+
+    /** Default for {@link #setCompactThreshold(int)} */
+    public static final int DEFAULT_COMPACT_THRESHOLD = 10000;
+
 
     /** Where data is loaded from/saved to */
     private final File mFile;
@@ -74,6 +159,28 @@ public class GeoFileRepository<T extends IGeoPointInfo> implements IGeoRepositor
     /** The {@link de.k3b.geo.api.IGeoPointInfo} points contained in this repository */
     protected List<T> mGeoPointList = null;
 
+    private boolean mJournalEnabled = false;
+    private boolean mUnorderedDelete = false;
+    private int mCompactThreshold = DEFAULT_COMPACT_THRESHOLD;
+    private Executor mCompactExecutor = null;
+    private long mSaveDelayMillis = 0;
+    private ScheduledExecutorService mSaveExecutor = null;
+
+    /** Serializes writing of mFile. Must be acquired before mFileLock. */
+    private final Object mWriteLock = new Object();
+    /** Guards the journal files and the fields below. Background writes run in an other thread. */
+    private final Object mFileLock = new Object();
+    /** Number of records in the journal files. Guarded by mFileLock */
+    private int mJournalCount = 0;
+    /** Incremented whenever the journal is moved to the compacting journal. Guarded by mFileLock */
+    private long mJournalGeneration = 0;
+    /** Items to be written in the background or null. Guarded by mFileLock */
+    private List<T> mPendingSnapshot = null;
+    /** true while a background write is scheduled. Guarded by mFileLock */
+    private boolean mWriteScheduled = false;
+    /** true if a change could not be saved to the journal. Guarded by mFileLock */
+    private boolean mDirty = false;
+
     /** Connect repository to a {@link File}. */
     public GeoFileRepository(File file) {
         this(file, new GeoPointDto());
@@ -86,19 +193,60 @@ public class GeoFileRepository<T extends IGeoPointInfo> implements IGeoRepositor
         this.mFactory = factory;
     }
 
+    /** true: {@link #add(IGeoPointInfo)}, {@link #put(IGeoPointInfo)} and {@link #delete(IGeoPointInfo)}
+     * append to the journal instead of saving the whole file. */
+    public GeoFileRepository<T> setJournalEnabled(boolean journalEnabled) {
+        this.mJournalEnabled = journalEnabled;
+        return this;
+    }
+
+    /**
+     * true: {@link #delete(IGeoPointInfo)} and {@link #deleteById(String)} move the last item into the gap.
+     * This takes constant time instead of linear time but changes the order of the items
+     * in memory and in the saved file. Default false.
+     */
+    public GeoFileRepository<T> setUnorderedDelete(boolean unorderedDelete) {
+        this.mUnorderedDelete = unorderedDelete;
+        return this;
+    }
+
+    /** If the journal has more records the file is rewritten in the background. Default {@link #DEFAULT_COMPACT_THRESHOLD} */
+    public GeoFileRepository<T> setCompactThreshold(int compactThreshold) {
+        this.mCompactThreshold = compactThreshold;
+        return this;
+    }
+
+    /** Where the journal is compacted. Default: a shared background thread. */
+    public GeoFileRepository<T> setCompactExecutor(Executor compactExecutor) {
+        this.mCompactExecutor = compactExecutor;
+        return this;
+    }
+
+    /**
+     * If delayMillis > 0 {@link #save()} takes a snapshot and executor writes it delayMillis later.
+     * Call {@link #flush()} before the app terminates.
+     */
+    public GeoFileRepository<T> setSaveDelay(long delayMillis, ScheduledExecutorService executor) {
+        this.mSaveDelayMillis = delayMillis;
+        this.mSaveExecutor = executor;
+        return this;
+    }
+
     /** Load from repository-file to memory.
      *
      * @return data loaded
      */
     public List<T> load() {
         if (mGeoPointList == null) {
-            mGeoPointList = new ArrayList<>();
-            if (this.mFile.exists()) {
-                try {
+            recoverFile();
+            mGeoPointList = new GeoPointList<>();
+            try {
+                if (this.mFile.exists()) {
                     load(mGeoPointList, new FileReader(this.mFile));
-                } catch (IOException e) {
-                    e.printStackTrace();
                 }
+                replayJournal(mGeoPointList);
+            } catch (IOException e) {
+                e.printStackTrace();
             }
             if (logger.isDebugEnabled()) {
                 logger.debug("load(): " + mGeoPointList.size() + " items from " + this.mFile);
@@ -109,6 +257,30 @@ public class GeoFileRepository<T extends IGeoPointInfo> implements IGeoRepositor
         return mGeoPointList;
     }
 
+    /** Same as {@link #load()} but the file is parsed in parallel by pool.
+     *
+     * @return data loaded
+     */
+    public List<T> loadParallel(ForkJoinPool pool) {
+        if (mGeoPointList == null) {
+            recoverFile();
+            List<T> result = new GeoPointList<>();
+            try {
+                if (this.mFile.exists()) {
+                    loadParallel(result, this.mFile, pool, 0);
+                }
+                replayJournal(result);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            mGeoPointList = result;
+            if (logger.isDebugEnabled()) {
+                logger.debug("loadParallel(): " + mGeoPointList.size() + " items from " + this.mFile);
+            }
+        }
+        return mGeoPointList;
+    }
+
     /**
      * Uncached, fresh load from repository-file to memory.
      *
@@ -127,6 +299,7 @@ public class GeoFileRepository<T extends IGeoPointInfo> implements IGeoRepositor
 
     /**
      * Removes item from repository-momory and file.
+     * The order of the remaining items is kept unless {@link #setUnorderedDelete(boolean)}.
      *
      * @param item that should be removed
      *
@@ -134,60 +307,834 @@ public class GeoFileRepository<T extends IGeoPointInfo> implements IGeoRepositor
      */
     @Override
     public IGeoRepository<T> delete(T item) {
-        if ((item != null) && load().remove(item)) {
-            save();
+        if (item != null) {
+            if (item.getId() != null) {
+                // same as equals() but without searching the list
+                return deleteById(item.getId());
+            }
+            // without id the item is not saved in the journal
+            if (load().remove(item) && !mJournalEnabled) save();
         }
 
         return this;
     }
 
+    /** Removes the item with {@link IGeoPointInfo#getId()} from repository-memory and file.
+     * The order of the remaining items is kept unless {@link #setUnorderedDelete(boolean)}. */
+    @Override
+    public GeoFileRepository<T> deleteById(String id) {
+        final T item = getList().removeById(id, !mUnorderedDelete);
+        if (item != null) {
+            if (mJournalEnabled) {
+                if (isValid(item)) appendJournal(JOURNAL_DELETE, id);
+            } else {
+                save();
+            }
+        }
+        return this;
+    }
+
+    /** @return the item with {@link IGeoPointInfo#getId()} or null if there is none. */
+    @Override
+    public T get(String id) {
+        return getList().getById(id);
+    }
+
+    /**
+     * Adds item to repository-memory and file.
+     * Without journal this is the same as load().add(item) followed by {@link #save()}.
+     */
+    public GeoFileRepository<T> add(T item) {
+        load().add(item);
+        saveItemChange(item);
+        return this;
+    }
+
+    /**
+     * Saves item that is already in the repository (i.e. after it was modified),
+     * replaces the item with the same {@link IGeoPointInfo#getId()} or adds item.
+     * Without journal this is followed by {@link #save()}.
+     */
+    @Override
+    public GeoFileRepository<T> put(T item) {
+        getList().put(item);
+        saveItemChange(item);
+        return this;
+    }
+
+    private GeoPointList<T> getList() {
+        final List<T> items = load();
+        if (!(items instanceof GeoPointList)) {
+            // mGeoPointList was replaced by a sub class
+            mGeoPointList = new GeoPointList<>(items);
+        }
+        return (GeoPointList<T>) mGeoPointList;
+    }
+
+    private void saveItemChange(T item) {
+        if (mJournalEnabled) {
+            if (isValid(item)) appendJournal(JOURNAL_PUT, converter.toUriString(item));
+        } else {
+            save();
+        }
+    }
+
     /** Save from meomory to repositoryfile.
      *
      * @return false: error.
      */
     public IGeoRepository<T> save() {
+        if (mGeoPointList == null) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("save(): no items for " + this.mFile);
+            }
+            return this;
+        }
+
+        if ((mSaveDelayMillis > 0) && (mSaveExecutor != null)) {
+            scheduleWrite(mSaveDelayMillis);
+            return this;
+        }
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("save(): " + mGeoPointList.size() + " items to " + this.mFile);
+        }
         try {
-            if ((mGeoPointList != null) && (mGeoPointList.size() > 0)) {
-                if (!this.mFile.exists()) {
-                    this.mFile.getParentFile().mkdirs();
+            synchronized (mWriteLock) {
+                final File temp = writeTemp(mGeoPointList);
+                synchronized (mFileLock) {
+                    replaceFile(temp);
+                    // the journal and an older snapshot are contained in the saved file
+                    getJournalFile(COMPACTING_EXT).delete();
+                    getJournalFile("").delete();
+                    mJournalCount = 0;
+                    mJournalGeneration++;
+                    mPendingSnapshot = null;
+                    mDirty = false;
                 }
-                if (logger.isDebugEnabled()) {
-                    logger.debug("save(): " + mGeoPointList.size() + " items to " + this.mFile);
-                }
-                save(mGeoPointList, new FileWriter(this.mFile, false));
+            }
+        } catch (IOException e) {
+            logger.error("save(): cannot write " + mFile, e);
+            synchronized (mFileLock) {
+                mDirty = true;
+            }
+        }
+        return this;
+    }
+
+    /** Writes the snapshot of a delayed {@link #save()} or compaction now. */
+    public GeoFileRepository<T> flush() {
+        writePendingSnapshot();
+        return this;
+    }
+
+    /**
+     * Streaming: Calls handler for every item. If the repository is not loaded yet
+     * the file is parsed line by line into one reused {@link GeoPointDto}.
+     *
+     * @return number of items where handler returned true
+     */
+    @Override
+    public int forEach(IGeoInfoHandler handler) {
+        return forEach(handler, null, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Streaming: Load at most maxCount items where filter returns true
+     * without keeping the other items in memory.
+     *
+     * @return data loaded.
+     */
+    @Override
+    public List<T> load(IGeoInfoHandler filter, int maxCount) {
+        List<T> result = new ArrayList<>();
+        forEach(filter, result, maxCount);
+        return result;
+    }
+
+    /**
+     * Streaming: Iterates over all items. If the repository is not loaded yet the
+     * file is parsed line by line and the item returned by {@link Iterator#next()}
+     * is reused for the next item.
+     *
+     * The file is closed after the last item. Call {@link GeoFileIterator#close()}
+     * if you stop iterating before.
+     */
+    @Override
+    public GeoFileIterator iterator() {
+        if (mGeoPointList != null) return new GeoFileIterator(mGeoPointList.iterator());
+
+        BufferedReader reader = null;
+        JournalOverlay journal = null;
+        try {
+            journal = readJournal();
+            final File file = getReadableFile();
+            if (file.exists()) {
+                reader = new BufferedReader(new FileReader(file));
             }
         } catch (IOException e) {
             e.printStackTrace();
         }
+        return new GeoFileIterator(reader, journal);
+    }
+
+    /** Implementation detail of forEach(): If result is not null accepted items are copied into result. */
+    private int forEach(IGeoInfoHandler handler, List<T> result, int maxCount) {
+        int count = 0;
+        if (mGeoPointList != null) {
+            for (int i = 0; (i < mGeoPointList.size()) && (count < maxCount); i++) {
+                T geo = mGeoPointList.get(i);
+                if (handler.onGeoInfo(geo)) {
+                    count++;
+                    if (result != null) result.add(geo);
+                }
+            }
+        } else {
+            final GeoFileIterator iterator = iterator();
+            try {
+                while ((count < maxCount) && iterator.hasNext()) {
+                    final T geo = iterator.next();
+                    if (handler.onGeoInfo(geo)) {
+                        count++;
+                        if (result != null) {
+                            // the iterator reuses its point. create() makes points of type T
+                            @SuppressWarnings("unchecked") final T copy = (T) ((GeoPointDto) geo).clone();
+                            result.add(copy);
+                        }
+                    }
+                }
+            } finally {
+                iterator.close();
+            }
+        }
         if (logger.isDebugEnabled()) {
-            logger.debug("save(): no items for " + this.mFile);
+            logger.debug("forEach(): " + count + " items from " + this.mFile);
         }
-        return this;
+        return count;
     }
 
     // Load(new InputStreamReader(inputStream, "UTF-8"))
     /** Load points from reader */
     public void load(List<T> result, Reader reader) throws IOException {
-        String line;
+        GeoPointDto geo;
         BufferedReader br = new BufferedReader(reader);
-        while ((line = br.readLine()) != null) {
-            line = line.trim();
-            if ((line.length() > 0) && (!line.startsWith(COMMENT))) {
-                GeoPointDto geo = loadItem(line);
-                final boolean valid = isValid(geo);
+        while ((geo = loadNext(br, null)) != null) {
+            result.add((T) geo);
+        }
+        br.close();
+    }
+
+    /** Parallel: Load points from file into result in file order.
+     *
+     * The file is memory mapped, split into chunks at line boundaries and every chunk is
+     * parsed by a task in pool. Lines are decoded with the platform charset like in {@link #load()}.
+     *
+     * @param chunkSize bytes per task. 0: calculate from file size and pool parallelism.
+     */
+    public void loadParallel(List<T> result, File file, ForkJoinPool pool, long chunkSize) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            final FileChannel channel = raf.getChannel();
+            final long size = channel.size();
+            if (chunkSize <= 0) {
+                chunkSize = Math.min(MAX_CHUNK_SIZE,
+                        Math.max(MIN_CHUNK_SIZE, size / (4L * pool.getParallelism())));
+            }
+            final long[] chunkStarts = getChunkStarts(channel, size, Math.min(chunkSize, MAX_CHUNK_SIZE));
+            final List<List<T>> chunkResults = new ArrayList<>(
+                    Collections.<List<T>>nCopies(chunkStarts.length - 1, null));
+
+            try {
+                pool.invoke(new LoadChunksTask(channel, chunkStarts, chunkResults, 0, chunkResults.size()));
+            } catch (LoadChunkException e) {
+                throw new IOException("loadParallel(" + file + ") failed", e.getCause());
+            }
+
+            for (List<T> chunkResult : chunkResults) {
+                result.addAll(chunkResult);
+            }
+        } finally {
+            raf.close();
+        }
+    }
+
+    /** Journal: true if there are journal records that are not in the file yet */
+    private boolean hasJournal() {
+        return getJournalFile("").exists() || getJournalFile(COMPACTING_EXT).exists();
+    }
+
+    private File getJournalFile(String suffix) {
+        return new File(mFile.getPath() + JOURNAL_EXT + suffix);
+    }
+
+    /** Journal: applies the records of the journal files to items that were loaded from the file. */
+    private void replayJournal(List<T> items) throws IOException {
+        final JournalOverlay journal = readJournal();
+        if (journal == null) return;
+
+        final List<T> fromFile = new ArrayList<>(items);
+        items.clear();
+        for (T item : fromFile) {
+            final T replayed = journal.apply(item);
+            if (replayed != null) items.add(replayed);
+        }
+        items.addAll(journal.getRemaining());
+        synchronized (mFileLock) {
+            mJournalCount = journal.mCount;
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("replayJournal(): " + journal.mCount + " records for " + this.mFile);
+        }
+    }
+
+    /** Journal: reads the records of the journal files. null if there is no journal. */
+    private JournalOverlay readJournal() throws IOException {
+        if (!hasJournal()) return null;
+
+        final JournalOverlay journal = new JournalOverlay();
+        journal.read(getJournalFile(COMPACTING_EXT));
+        journal.read(getJournalFile(""));
+        return journal;
+    }
+
+    /** Journal: the latest record for every id in the journal files. */
+    private class JournalRecord {
+        /** null if the id was deleted */
+        private T mItem = null;
+        /** true if the id was deleted and put again: the item belongs behind the items of the file */
+        private boolean mAppended = false;
+        /** true if the item was returned for an item of the file */
+        private boolean mApplied = false;
+    }
+
+    /**
+     * Journal: overlay of the journal records by id that is applied to the items of the file in file order.
+     * The result has the same order as replaying the records one by one:
+     * Changed items keep their position, new items are appended in journal order.
+     */
+    private class JournalOverlay {
+        private final Map<String, JournalRecord> mId2Record = new LinkedHashMap<>();
+        private int mCount = 0;
+
+        private void read(File journal) throws IOException {
+            BufferedReader reader;
+            try {
+                reader = new BufferedReader(new FileReader(journal));
+            } catch (FileNotFoundException ignore) {
+                return;
+            }
+            try {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.length() < 2) continue;
+                    final String value = line.substring(1);
+                    if (line.charAt(0) == JOURNAL_PUT) {
+                        final GeoPointDto geo = loadItem(value);
+                        if (isValid(geo)) {
+                            @SuppressWarnings("unchecked") final T item = (T) geo;
+                            put(item);
+                        }
+                    } else if (line.charAt(0) == JOURNAL_DELETE) {
+                        getRecord(value).mItem = null;
+                    }
+                    mCount++;
+                }
+            } finally {
+                reader.close();
+            }
+        }
+
+        private void put(T item) {
+            final String id = item.getId();
+            JournalRecord record = mId2Record.get(id);
+            if (record == null) {
+                record = getRecord(id);
+            } else if (record.mItem == null) {
+                // deleted before: appended like a new item
+                mId2Record.remove(id);
+                mId2Record.put(id, record);
+                record.mAppended = true;
+            }
+            record.mItem = item;
+        }
+
+        private JournalRecord getRecord(String id) {
+            JournalRecord record = mId2Record.get(id);
+            if (record == null) {
+                record = new JournalRecord();
+                mId2Record.put(id, record);
+            }
+            return record;
+        }
+
+        /** @return the item that replaces fromFile. null if fromFile was deleted or is appended later. */
+        private T apply(T fromFile) {
+            final JournalRecord record = mId2Record.get(fromFile.getId());
+            if (record == null) return fromFile;
+            if (record.mAppended || record.mApplied) return null;
+            record.mApplied = true;
+            return record.mItem;
+        }
+
+        /** @return the items that were not returned by {@link #apply(IGeoPointInfo)}. Call after the last item of the file. */
+        private List<T> getRemaining() {
+            final List<T> result = new ArrayList<>();
+            for (JournalRecord record : mId2Record.values()) {
+                if ((record.mItem != null) && !record.mApplied) result.add(record.mItem);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Journal: appends one record. Starts compaction if the journal is too big.
+     * If the record cannot be appended the whole file is saved instead.
+     */
+    private void appendJournal(char recordType, String value) {
+        boolean compact;
+        boolean failed = false;
+        synchronized (mFileLock) {
+            try {
+                if (!this.mFile.exists()) {
+                    this.mFile.getParentFile().mkdirs();
+                }
+                Writer writer = new FileWriter(getJournalFile(""), true);
+                try {
+                    writer.write(recordType);
+                    writer.write(value);
+                    writer.write("\n");
+                } finally {
+                    writer.close();
+                }
+                mJournalCount++;
+            } catch (IOException e) {
+                logger.error("appendJournal(): cannot append to journal of " + mFile + ". Saving the file instead.", e);
+                mDirty = true;
+                failed = true;
+            }
+            compact = !mWriteScheduled && (mJournalCount > mCompactThreshold);
+        }
+        if (failed) {
+            // the change is only in memory: the file must contain it
+            save();
+        } else if (compact) {
+            compact();
+        }
+    }
+
+    /**
+     * true if there are changes in memory that are neither in the file nor in the journal,
+     * i.e. because writing the journal or the file failed. They are written by the next
+     * successful {@link #save()} or {@link #compact()}.
+     */
+    public boolean isDirty() {
+        synchronized (mFileLock) {
+            return mDirty;
+        }
+    }
+
+    /**
+     * Journal: rewrites the file in the background and clears the journal.
+     *
+     * Records appended while the file is written go to a new journal.
+     */
+    public void compact() {
+        if (mGeoPointList != null) scheduleWrite(0);
+    }
+
+    /**
+     * Takes a snapshot of the items that is written in the background after delayMillis.
+     * The current journal is moved to the compacting journal that is deleted after the snapshot is written.
+     */
+    private void scheduleWrite(long delayMillis) {
+        synchronized (mFileLock) {
+            try {
+                final File journal = getJournalFile("");
+                final File compacting = getJournalFile(COMPACTING_EXT);
+                if (compacting.exists()) {
+                    // not written yet: keep the records in replay order
+                    appendFile(journal, compacting);
+                    journal.delete();
+                } else if (journal.exists() && !journal.renameTo(compacting)) {
+                    throw new IOException("Cannot create " + compacting);
+                }
+            } catch (IOException e) {
+                logger.error("scheduleWrite(): cannot move journal of " + mFile, e);
+                return;
+            }
+            mJournalGeneration++;
+            mJournalCount = 0;
+            mPendingSnapshot = new ArrayList<>(mGeoPointList);
+            if (mWriteScheduled) return;
+            mWriteScheduled = true;
+        }
+
+        final Runnable write = new Runnable() {
+            @Override
+            public void run() {
+                writePendingSnapshot();
+            }
+        };
+        if (delayMillis > 0) {
+            mSaveExecutor.schedule(write, delayMillis, TimeUnit.MILLISECONDS);
+        } else {
+            getCompactExecutor().execute(write);
+        }
+    }
+
+    private void writePendingSnapshot() {
+        synchronized (mWriteLock) {
+            final List<T> snapshot;
+            final long generation;
+            synchronized (mFileLock) {
+                snapshot = mPendingSnapshot;
+                generation = mJournalGeneration;
+                mPendingSnapshot = null;
+                mWriteScheduled = false;
+            }
+            if (snapshot == null) return;
+
+            try {
+                final File temp = writeTemp(snapshot);
+                synchronized (mFileLock) {
+                    replaceFile(temp);
+                    // else the compacting journal also contains records newer than snapshot
+                    if (generation == mJournalGeneration) {
+                        getJournalFile(COMPACTING_EXT).delete();
+                        mDirty = false;
+                    }
+                }
                 if (logger.isDebugEnabled()) {
-                    logger.debug("load(" + line + "): " + ((valid) ? "loaded" : "ignored"));
+                    logger.debug("writePendingSnapshot(): " + snapshot.size() + " items to " + mFile);
+                }
+            } catch (IOException e) {
+                // the compacting journal is kept so no journal record is lost
+                logger.error("writePendingSnapshot(): cannot write " + mFile, e);
+                synchronized (mFileLock) {
+                    mDirty = true;
+                }
+            }
+        }
+    }
+
+    /** Writes items to a new temporary file in the directory of mFile that is synced to disk. */
+    private File writeTemp(List<T> items) throws IOException {
+        final File dir = mFile.getAbsoluteFile().getParentFile();
+        dir.mkdirs();
+        // createTempFile() needs a prefix of at least 3 chars
+        final File temp = File.createTempFile(mFile.getName() + "-save", ".tmp", dir);
+        final FileOutputStream out = new FileOutputStream(temp);
+        try {
+            save(items, new BufferedWriter(new OutputStreamWriter(new SyncOnCloseOutputStream(out)), SAVE_BUFFER_SIZE));
+        } catch (IOException e) {
+            GeoLoadService.closeSilently(out);
+            temp.delete();
+            throw e;
+        }
+        return temp;
+    }
+
+    /**
+     * Replaces mFile with the complete temp file. Caller must hold mFileLock.
+     *
+     * temp is renamed to {@link #NEW_EXT} first, so {@link #recoverFile()} can find it
+     * if replacing is interrupted.
+     */
+    private void replaceFile(File temp) throws IOException {
+        final File next = getSiblingFile(NEW_EXT);
+        // older than temp
+        next.delete();
+        if (!temp.renameTo(next)) {
+            temp.delete();
+            throw new IOException("Cannot create " + next);
+        }
+        installNext(next);
+    }
+
+    /**
+     * Renames next to mFile. Atomic where rename can replace (i.e. linux, android).
+     * Else the old file is kept as {@link #BACKUP_EXT} until next is in place.
+     * If this fails next is kept for {@link #recoverFile()}.
+     */
+    private void installNext(File next) throws IOException {
+        if (next.renameTo(mFile)) return;
+
+        // rename cannot replace on all platforms
+        final File backup = getSiblingFile(BACKUP_EXT);
+        if (mFile.exists()) {
+            backup.delete();
+            if (!mFile.renameTo(backup)) throw new IOException("Cannot create " + backup);
+        }
+        if (!next.renameTo(mFile)) {
+            backup.renameTo(mFile);
+            throw new IOException("Cannot create " + mFile);
+        }
+        backup.delete();
+    }
+
+    /** Completes a {@link #replaceFile(File)} that was interrupted, i.e. by a crash */
+    private void recoverFile() {
+        synchronized (mFileLock) {
+            final File next = getSiblingFile(NEW_EXT);
+            final File backup = getSiblingFile(BACKUP_EXT);
+            try {
+                if (next.exists()) {
+                    // complete and newer than mFile
+                    logger.warn("recoverFile(): using " + next);
+                    installNext(next);
+                } else if (!mFile.exists() && backup.exists()) {
+                    logger.warn("recoverFile(): using " + backup);
+                    if (!backup.renameTo(mFile)) throw new IOException("Cannot restore " + backup);
                 }
+            } catch (IOException e) {
+                logger.error("recoverFile(): cannot recover " + mFile, e);
+            }
+        }
+    }
 
-                if (valid) result.add((T) geo);
+    /** The file with the latest complete content. Unlike {@link #recoverFile()} no file is renamed. */
+    private File getReadableFile() {
+        final File next = getSiblingFile(NEW_EXT);
+        if (next.exists()) return next;
+        final File backup = getSiblingFile(BACKUP_EXT);
+        if (!mFile.exists() && backup.exists()) return backup;
+        return mFile;
+    }
+
+    private File getSiblingFile(String extension) {
+        return new File(mFile.getPath() + extension);
+    }
+
+    /** Syncs the file to disk before it is closed */
+    private static class SyncOnCloseOutputStream extends FilterOutputStream {
+        private final FileOutputStream mOut;
+
+        SyncOnCloseOutputStream(FileOutputStream out) {
+            super(out);
+            this.mOut = out;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            mOut.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+                mOut.getChannel().force(true);
+            } finally {
+                mOut.close();
             }
         }
-        br.close();
+    }
+
+    private static void appendFile(File source, File destination) throws IOException {
+        if (!source.exists()) return;
+        final Reader reader = new FileReader(source);
+        try {
+            final Writer writer = new FileWriter(destination, true);
+            try {
+                final char[] buffer = new char[8192];
+                for (int read = reader.read(buffer); read > -1; read = reader.read(buffer)) {
+                    writer.write(buffer, 0, read);
+                }
+            } finally {
+                writer.close();
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    private Executor getCompactExecutor() {
+        return (mCompactExecutor != null) ? mCompactExecutor : CompactExecutorHolder.EXECUTOR;
+    }
+
+    /** Lazy creation of the default compaction thread */
+    private static class CompactExecutorHolder {
+        private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "GeoFileRepository-compact");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /** Max bytes that are memory mapped and decoded by one task of loadParallel() */
+    private static final long MAX_CHUNK_SIZE = 64 * 1024 * 1024;
+    private static final long MIN_CHUNK_SIZE = 64 * 1024;
+    /** Initial size of the buffer that one line is decoded into */
+    private static final int LINE_BUFFER_SIZE = 1024;
+
+    /** Parallel: Returns file positions where chunks start. The last value is the file size.
+     * Every chunk except the first starts behind a newline. */
+    private static long[] getChunkStarts(FileChannel channel, long size, long chunkSize) throws IOException {
+        List<Long> starts = new ArrayList<>();
+        starts.add(0L);
+        final ByteBuffer buffer = ByteBuffer.allocate(4096);
+        long pos = chunkSize;
+        while (pos < size) {
+            // find next newline at or after pos
+            long lineEnd = -1;
+            while ((lineEnd < 0) && (pos < size)) {
+                buffer.clear();
+                final int read = channel.read(buffer, pos);
+                if (read <= 0) break;
+                for (int i = 0; i < read; i++) {
+                    if (buffer.get(i) == '\n') {
+                        lineEnd = pos + i;
+                        break;
+                    }
+                }
+                if (lineEnd < 0) pos += read;
+            }
+            if ((lineEnd < 0) || (lineEnd + 1 >= size)) break;
+            starts.add(lineEnd + 1);
+            pos = lineEnd + 1 + chunkSize;
+        }
+        starts.add(size);
+
+        long[] result = new long[starts.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = starts.get(i);
+        }
+        return result;
+    }
+
+    /** Parallel: Fork-join task that loads chunks [from, to) into chunkResults. */
+    private class LoadChunksTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final FileChannel mChannel;
+        private final long[] mChunkStarts;
+        /** Every task sets its own element only */
+        private final List<List<T>> mChunkResults;
+        private final int mFrom;
+        private final int mTo;
+
+        LoadChunksTask(FileChannel channel, long[] chunkStarts, List<List<T>> chunkResults, int from, int to) {
+            this.mChannel = channel;
+            this.mChunkStarts = chunkStarts;
+            this.mChunkResults = chunkResults;
+            this.mFrom = from;
+            this.mTo = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (mTo - mFrom > 1) {
+                final int middle = (mFrom + mTo) >>> 1;
+                invokeAll(new LoadChunksTask(mChannel, mChunkStarts, mChunkResults, mFrom, middle),
+                        new LoadChunksTask(mChannel, mChunkStarts, mChunkResults, middle, mTo));
+            } else if (mTo > mFrom) {
+                try {
+                    mChunkResults.set(mFrom, loadChunk(mChannel, mChunkStarts[mFrom], mChunkStarts[mFrom + 1]));
+                } catch (IOException e) {
+                    throw new LoadChunkException(e);
+                }
+            }
+        }
+    }
+
+    /** Parallel: Transports IOException out of a {@link LoadChunksTask} */
+    private static class LoadChunkException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        LoadChunkException(IOException cause) {
+            super(cause);
+        }
+    }
+
+    /** Parallel: Load points between file position start and end.
+     *
+     * Lines are decoded one by one into a reused buffer, so the chunk is never decoded as a whole. */
+    private List<T> loadChunk(FileChannel channel, long start, long end) throws IOException {
+        final ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        final CharsetDecoder decoder = Charset.defaultCharset().newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        CharBuffer chars = CharBuffer.allocate(LINE_BUFFER_SIZE);
+        final List<T> result = new ArrayList<>();
+        final int size = mapped.limit();
+        int lineStart = 0;
+        for (int pos = 0; pos <= size; pos++) {
+            // same line ends as BufferedReader.readLine(): "\r\n" creates an empty line that is ignored
+            if ((pos < size) && (mapped.get(pos) != '\n') && (mapped.get(pos) != '\r')) continue;
+
+            if (pos > lineStart) {
+                final ByteBuffer line = mapped.duplicate();
+                line.limit(pos);
+                line.position(lineStart);
+                chars = decodeLine(decoder, line, chars);
+                final GeoPointDto geo = loadLine(chars.toString(), null);
+                if (geo != null) {
+                    @SuppressWarnings("unchecked") final T item = (T) geo;
+                    result.add(item);
+                }
+            }
+            lineStart = pos + 1;
+        }
+        return result;
+    }
+
+    /** Parallel: Decodes line into chars. Returns a bigger buffer if chars is too small. */
+    private static CharBuffer decodeLine(CharsetDecoder decoder, ByteBuffer line, CharBuffer chars) throws CharacterCodingException {
+        final int maxChars = (int) (line.remaining() * (double) decoder.maxCharsPerByte()) + 1;
+        if (chars.capacity() < maxChars) chars = CharBuffer.allocate(maxChars);
+        chars.clear();
+        decoder.reset();
+        CoderResult coderResult = decoder.decode(line, chars, true);
+        if (!coderResult.isUnderflow()) coderResult.throwException();
+        coderResult = decoder.flush(chars);
+        if (!coderResult.isUnderflow()) coderResult.throwException();
+        chars.flip();
+        return chars;
+    }
+
+    /** Implementation detail: Load next valid point from br.
+     *
+     * @param reuse if not null the point is loaded into reuse instead of a new point.
+     * @return null if there are no more points.
+     */
+    protected GeoPointDto loadNext(BufferedReader br, GeoPointDto reuse) throws IOException {
+        String line;
+        while ((line = br.readLine()) != null) {
+            GeoPointDto geo = loadLine(line, reuse);
+            if (geo != null) return geo;
+        }
+        return null;
+    }
+
+    /** Implementation detail: Load point from file line.
+     *
+     * @return null if line is empty, a comment or not a valid point.
+     */
+    private GeoPointDto loadLine(String line, GeoPointDto reuse) {
+        line = line.trim();
+        if ((line.length() > 0) && (!line.startsWith(COMMENT))) {
+            GeoPointDto geo = (reuse == null) ? loadItem(line) : loadItem(line, reuse.clear());
+            final boolean valid = isValid(geo);
+            if (logger.isDebugEnabled()) {
+                logger.debug("load(" + line + "): " + ((valid) ? "loaded" : "ignored"));
+            }
+
+            if (valid) return geo;
+        }
+        return null;
     }
 
     /** Implementation detail: Load point from file line. */
     protected GeoPointDto loadItem(String line) {
-        return converter.fromUri(line, create());
+        return loadItem(line, create());
+    }
+
+    /** Implementation detail: Load point from file line into parseResult. */
+    protected GeoPointDto loadItem(String line, GeoPointDto parseResult) {
+        return converter.fromUri(line, parseResult);
     }
 
     /** Factory method to generate a new empy point while reading a {@link IGeoPointInfo}.
@@ -231,4 +1178,82 @@ public class GeoFileRepository<T extends IGeoPointInfo> implements IGeoRepositor
     private boolean isValidId(String id) {
         return ((id != null) && (!id.startsWith("#")));
     }
+
+    /** Streaming {@link Iterator} over the items of the repository. */
+    public class GeoFileIterator implements Iterator<T>, Closeable {
+        /** not null if the items are already in memory */
+        private final Iterator<T> mCached;
+        private final GeoPointDto mReuse;
+        /** null if there is no journal */
+        private final JournalOverlay mJournal;
+        private BufferedReader mReader;
+        /** items of the journal behind the items of the file */
+        private Iterator<T> mRemaining = null;
+        private T mNext = null;
+
+        private GeoFileIterator(Iterator<T> cached) {
+            this.mCached = cached;
+            this.mReuse = null;
+            this.mJournal = null;
+            this.mReader = null;
+        }
+
+        private GeoFileIterator(BufferedReader reader, JournalOverlay journal) {
+            this.mCached = null;
+            this.mReuse = create();
+            this.mJournal = journal;
+            this.mReader = reader;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (mCached != null) return mCached.hasNext();
+            while ((mNext == null) && (mReader != null)) {
+                GeoPointDto geo = null;
+                try {
+                    geo = loadNext(mReader, mReuse);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+                if (geo == null) {
+                    closeReader();
+                } else {
+                    // create() makes points of type T
+                    @SuppressWarnings("unchecked") final T item = (T) geo;
+                    mNext = (mJournal == null) ? item : mJournal.apply(item);
+                }
+            }
+            if ((mNext == null) && (mJournal != null)) {
+                if (mRemaining == null) mRemaining = mJournal.getRemaining().iterator();
+                if (mRemaining.hasNext()) mNext = mRemaining.next();
+            }
+            return mNext != null;
+        }
+
+        @Override
+        public T next() {
+            if (mCached != null) return mCached.next();
+            if (!hasNext()) throw new NoSuchElementException();
+            final T result = mNext;
+            mNext = null;
+            return result;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("remove");
+        }
+
+        /** Closes the file if iteration was stopped before the last item. */
+        @Override
+        public void close() {
+            closeReader();
+            mRemaining = Collections.<T>emptyIterator();
+        }
+
+        private void closeReader() {
+            GeoLoadService.closeSilently(mReader);
+            mReader = null;
+        }
+    }
 }
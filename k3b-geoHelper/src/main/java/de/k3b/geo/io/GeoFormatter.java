@@ -18,6 +18,7 @@
 
 package de.k3b.geo.io;
 
+import java.io.IOException;
 import java.text.DateFormat;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
@@ -36,10 +37,34 @@ import de.k3b.geo.api.IGeoPointInfo;
  * Created by k3b on 25.03.2015.
  */
 public class GeoFormatter {
-    /* Converter for Datatypes */
-    private static final DecimalFormat FORMATTER_LAT_LON
-            = new DecimalFormat("#.#######", new DecimalFormatSymbols(Locale.ENGLISH));
+    /* Converter for Datatypes. One per thread because DecimalFormat is not thread safe. */
+    private static final ThreadLocal<DecimalFormat> FORMATTER_LAT_LON = new ThreadLocal<DecimalFormat>() {
+        @Override
+        protected DecimalFormat initialValue() {
+            return new DecimalFormat("#.#######", new DecimalFormatSymbols(Locale.ENGLISH));
+        }
+    };
     private static final String EXPRESSION_TIME_FORMAT = "yyyy-MM-dd'T'HH:mm:ss'Z'";
+
+    /* Fixed point lat/lon formatting */
+    private static final int LAT_LON_DECIMALS = 7;
+    private static final long LAT_LON_DIVISOR = 10000000L;
+    private static final double LAT_LON_SCALE = 1e7;
+    private static final double MAX_FAST_LAT_LON = 1000;
+    /** max error of LAT_LON_SCALE * value for values < MAX_FAST_LAT_LON is far below this */
+    private static final double ROUNDING_UNCERTAINTY = 1e-5;
+
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+    /** Before the gregorian cutover {@link SimpleDateFormat} uses the julian calendar */
+    private static final int FIRST_GREGORIAN_YEAR = 1583;
+
+    /** For {@link Appendable}-s that are not {@link StringBuilder} */
+    private static final ThreadLocal<StringBuilder> BUFFER = new ThreadLocal<StringBuilder>() {
+        @Override
+        protected StringBuilder initialValue() {
+            return new StringBuilder(24);
+        }
+    };
     public static final String PREFIX_LAT_LON_NEGATIV = "sSwW";
     public static final String PREFIX_LAT_LON = "nNeE" + PREFIX_LAT_LON_NEGATIV;
 
@@ -53,7 +78,7 @@ public class GeoFormatter {
         if (PREFIX_LAT_LON.indexOf(latLonPrefix) >= 0) {
             newVal = newVal.substring(1);
         }
-        double doubleValue = FORMATTER_LAT_LON.parse(newVal).doubleValue();
+        double doubleValue = FORMATTER_LAT_LON.get().parse(newVal).doubleValue();
         if (PREFIX_LAT_LON_NEGATIV.indexOf(latLonPrefix) >= 0) doubleValue *= -1;
         return doubleValue;
     }
@@ -61,23 +86,140 @@ public class GeoFormatter {
     /** Parsing helper: Converts  a {@link Double} lat or lon value to {@link String}. */
     public static String formatLatLon(double latitude) {
         if (latitude != IGeoPointInfo.NO_LAT_LON) {
-            return FORMATTER_LAT_LON.format(latitude);
+            return appendLatLon(new StringBuilder(12), latitude).toString();
         }
         return "";
     }
 
+    /** Formatting helper: Appends lat or lon value with up to 7 decimals to result.
+     *
+     * Same result as {@link DecimalFormat} "#.#######" but without allocations.
+     * {@link IGeoPointInfo#NO_LAT_LON} is appended as empty string. */
+    public static StringBuilder appendLatLon(StringBuilder result, double latitude) {
+        if (latitude == IGeoPointInfo.NO_LAT_LON) return result;
+
+        final double absolute = Math.abs(latitude);
+        if (!(absolute < MAX_FAST_LAT_LON)) {
+            // NaN, infinite or too big for fixed point
+            return result.append(FORMATTER_LAT_LON.get().format(latitude));
+        }
+
+        final double scaled = absolute * LAT_LON_SCALE;
+        final double floor = Math.floor(scaled);
+        final double fraction = scaled - floor;
+        if (Math.abs(fraction - 0.5) < ROUNDING_UNCERTAINTY) {
+            // scaled may be inexact: let DecimalFormat decide how the exact binary value is rounded
+            return result.append(FORMATTER_LAT_LON.get().format(latitude));
+        }
+
+        long fixedPoint = (long) floor;
+        if (fraction > 0.5) fixedPoint++;
+
+        // DecimalFormat keeps the sign of negative values that are rounded to 0 and of -0.0
+        if ((latitude < 0) || ((latitude == 0) && (1 / latitude < 0))) result.append('-');
+        result.append(fixedPoint / LAT_LON_DIVISOR);
+
+        int decimals = (int) (fixedPoint % LAT_LON_DIVISOR);
+        if (decimals != 0) {
+            int digits = LAT_LON_DECIMALS;
+            while ((decimals % 10) == 0) {
+                decimals /= 10;
+                digits--;
+            }
+            result.append('.');
+            appendDigits(result, decimals, digits);
+        }
+        return result;
+    }
+
+    /** Formatting helper: Appends lat or lon value with up to 7 decimals to result. */
+    public static <A extends Appendable> A appendLatLon(A result, double latitude) throws IOException {
+        if (result instanceof StringBuilder) {
+            appendLatLon((StringBuilder) result, latitude);
+        } else {
+            final StringBuilder buffer = BUFFER.get();
+            buffer.setLength(0);
+            result.append(appendLatLon(buffer, latitude));
+        }
+        return result;
+    }
+
     /** Parsing helper: Converts a {@link Date} value to {@link String}. */
     public static String formatDate(Date date) {
         if (date != null) {
-            DateFormat formatter
-                    = new SimpleDateFormat(EXPRESSION_TIME_FORMAT, Locale.US);
-            formatter.setTimeZone(TimeZone.getTimeZone("UTC"));
-
-            return formatter.format(date);
+            return appendDate(new StringBuilder(20), date).toString();
         }
         return "";
     }
 
+    /** Formatting helper: Appends date as utc in iso format "yyyy-MM-dd'T'HH:mm:ss'Z'" to result.
+     *
+     * Same result as {@link SimpleDateFormat} but without allocations. null is appended as empty string.*/
+    public static StringBuilder appendDate(StringBuilder result, Date date) {
+        if (date == null) return result;
+
+        final long millis = date.getTime();
+        long epochDay = millis / MILLIS_PER_DAY;
+        int secondOfDay = (int) ((millis % MILLIS_PER_DAY) / 1000);
+        if (millis % MILLIS_PER_DAY < 0) {
+            epochDay--;
+            secondOfDay = (int) (((millis % MILLIS_PER_DAY) + MILLIS_PER_DAY) / 1000);
+        }
+
+        // see http://howardhinnant.github.io/date_algorithms.html#civil_from_days
+        final long z = epochDay + 719468;
+        final long era = ((z >= 0) ? z : (z - 146096)) / 146097;
+        final long dayOfEra = z - era * 146097;
+        final long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        final long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        final long mp = (5 * dayOfYear + 2) / 153;
+        final int day = (int) (dayOfYear - (153 * mp + 2) / 5 + 1);
+        final int month = (int) ((mp < 10) ? (mp + 3) : (mp - 9));
+        final long year = yearOfEra + era * 400 + ((month <= 2) ? 1 : 0);
+
+        if ((year < FIRST_GREGORIAN_YEAR) || (year > 9999)) {
+            // julian calendar or more than 4 digits
+            return result.append(createDateFormat().format(date));
+        }
+
+        appendDigits(result, (int) year, 4).append('-');
+        appendDigits(result, month, 2).append('-');
+        appendDigits(result, day, 2).append('T');
+        appendDigits(result, secondOfDay / 3600, 2).append(':');
+        appendDigits(result, (secondOfDay / 60) % 60, 2).append(':');
+        appendDigits(result, secondOfDay % 60, 2).append('Z');
+        return result;
+    }
+
+    /** Formatting helper: Appends date as utc in iso format "yyyy-MM-dd'T'HH:mm:ss'Z'" to result. */
+    public static <A extends Appendable> A appendDate(A result, Date date) throws IOException {
+        if (result instanceof StringBuilder) {
+            appendDate((StringBuilder) result, date);
+        } else {
+            final StringBuilder buffer = BUFFER.get();
+            buffer.setLength(0);
+            result.append(appendDate(buffer, date));
+        }
+        return result;
+    }
+
+    private static DateFormat createDateFormat() {
+        DateFormat formatter = new SimpleDateFormat(EXPRESSION_TIME_FORMAT, Locale.US);
+        formatter.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return formatter;
+    }
+
+    /** Appends value with leading zeros so that at least digits digits are appended. */
+    private static StringBuilder appendDigits(StringBuilder result, int value, int digits) {
+        int limit = 1;
+        for (int i = 1; i < digits; i++) limit *= 10;
+        while ((limit > 1) && (value < limit)) {
+            result.append('0');
+            limit /= 10;
+        }
+        return result.append(value);
+    }
+
     /** Parsing helper: Converts a zoom {@link Integer} value to {@link String}. */
     public static String formatZoom(int val) {
         if (val != IGeoPointInfo.NO_ZOOM) {
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2026 by k3b.
+ *
+ * This file is part of k3b-geoHelper library.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.k3b.geo.io;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.k3b.geo.api.IGeoPointInfo;
+
+/**
+ * The items of a {@link GeoFileRepository} with a hash index from {@link IGeoPointInfo#getId()}
+ * to the position in the list.
+ *
+ * {@link #getById(String)} and {@link #put(IGeoPointInfo)} take constant time.
+ * {@link #removeById(String, boolean)} takes constant time if it may move the last item into the gap.
+ *
+ * The index is updated by the id methods and by {@link #add(IGeoPointInfo)} and
+ * {@link #set(int, IGeoPointInfo)}. Any other modification invalidates it and it is rebuilt on next use.
+ * If an id is used more than once the index contains its last position.
+ */
+class GeoPointList<T extends IGeoPointInfo> extends ArrayList<T> {
+    private static final long serialVersionUID = 1L;
+
+    /** id to position in this list */
+    private final Map<String, Integer> mId2Position = new HashMap<>();
+    /** modCount when mId2Position was in sync with the list */
+    private int mIndexedModCount = -1;
+    /** true if some id is used by more than one item */
+    private boolean mHasDuplicates = false;
+
+    GeoPointList() {
+    }
+
+    GeoPointList(List<T> items) {
+        super(items);
+    }
+
+    /** @return the item with id or null if there is none */
+    T getById(String id) {
+        final Integer position = getIndex().get(id);
+        return (position == null) ? null : get(position);
+    }
+
+    /** Replaces the item with the same id or adds it */
+    void put(T item) {
+        final Integer position = getIndex().get(item.getId());
+        if (position == null) {
+            add(item);
+        } else {
+            set(position, item);
+        }
+    }
+
+    /**
+     * Removes the item with id.
+     *
+     * @param keepOrder true: following items are shifted (linear time).
+     *                  false: the last item is moved to its position (constant time).
+     * @return the removed item or null if there is none
+     */
+    T removeById(String id, boolean keepOrder) {
+        final Integer position = getIndex().remove(id);
+        if (position == null) return null;
+
+        if (keepOrder) {
+            final T item = super.remove((int) position);
+            if (mHasDuplicates) {
+                mIndexedModCount = -1;
+            } else {
+                for (int i = position; i < size(); i++) {
+                    mId2Position.put(get(i).getId(), i);
+                }
+                mIndexedModCount = modCount;
+            }
+            return item;
+        }
+
+        final T item = get(position);
+        final int last = size() - 1;
+        final T moved = super.remove(last);
+        if (position < last) {
+            super.set(position, moved);
+            mId2Position.put(moved.getId(), position);
+        }
+        // else an other item with the same id may still be in the list
+        mIndexedModCount = mHasDuplicates ? -1 : modCount;
+        return item;
+    }
+
+    @Override
+    public boolean add(T item) {
+        final boolean indexed = isIndexed();
+        super.add(item);
+        if (indexed) {
+            if (mId2Position.put(item.getId(), size() - 1) != null) mHasDuplicates = true;
+            mIndexedModCount = modCount;
+        }
+        return true;
+    }
+
+    @Override
+    public T set(int index, T item) {
+        final T old = super.set(index, item);
+        if (isIndexed() && !equalIds(old, item)) {
+            if (mHasDuplicates || mId2Position.containsKey(item.getId())) {
+                mIndexedModCount = -1;
+            } else {
+                if (old != null) mId2Position.remove(old.getId());
+                mId2Position.put(item.getId(), index);
+            }
+        }
+        return old;
+    }
+
+    private static boolean equalIds(IGeoPointInfo first, IGeoPointInfo second) {
+        final String id = (first == null) ? null : first.getId();
+        return (id == null) ? (second.getId() == null) : id.equals(second.getId());
+    }
+
+    private boolean isIndexed() {
+        return mIndexedModCount == modCount;
+    }
+
+    private Map<String, Integer> getIndex() {
+        if (!isIndexed()) {
+            mId2Position.clear();
+            mHasDuplicates = false;
+            for (int i = 0; i < size(); i++) {
+                if (mId2Position.put(get(i).getId(), i) != null) mHasDuplicates = true;
+            }
+            mIndexedModCount = modCount;
+        }
+        return mId2Position;
+    }
+}
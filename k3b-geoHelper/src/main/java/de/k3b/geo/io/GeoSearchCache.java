@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2026 by k3b.
+ *
+ * This file is part of k3b-geoHelper library.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.k3b.geo.io;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import de.k3b.geo.GeoLoadService;
+
+/**
+ * Cache for the responses of geo search queries used by {@link Geo2WikipediaDownloadWithSymbolsService}.
+ *
+ * Coordinates are quantised (see {@link #setPrecision(double)}) so queries for nearby
+ * locations share the same response.
+ * Responses are kept in memory (least recently used are removed first) and optionally
+ * in a directory (see {@link #setDiskDir(File)}) so they survive app restarts.
+ * Responses older than ttlMillis are not used.
+ *
+ * This class is thread safe.
+ */
+public class GeoSearchCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(GeoSearchCache.class);
+
+    /** Default for {@link #setPrecision(double)}: 0.01 degrees is about 1 km */
+    public static final double DEFAULT_PRECISION = 0.01;
+    private static final String FILE_EXT = ".xml";
+
+    private final long ttlMillis;
+    private double precision = DEFAULT_PRECISION;
+    private File diskDir = null;
+
+    /** key to cached response in least recently used order */
+    private final LinkedHashMap<String, CachedResponse> key2response;
+
+    /**
+     * @param maxEntries max number of responses kept in memory.
+     * @param ttlMillis max age of a cached response in milliseconds.
+     */
+    public GeoSearchCache(final int maxEntries, long ttlMillis) {
+        this.ttlMillis = ttlMillis;
+        this.key2response = new LinkedHashMap<String, CachedResponse>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /** Size of a quantisation cell in degrees. Default {@link #DEFAULT_PRECISION} */
+    public GeoSearchCache setPrecision(double precision) {
+        this.precision = precision;
+        return this;
+    }
+
+    /** If not null responses are also cached in this directory. */
+    public GeoSearchCache setDiskDir(File diskDir) {
+        this.diskDir = diskDir;
+        return this;
+    }
+
+    /** @return latitude or longitude rounded to the center of its quantisation cell */
+    public double quantise(double latOrLon) {
+        return Math.round(latOrLon / precision) * precision;
+    }
+
+    /** @return the cached response for key or null if not cached or expired */
+    public synchronized byte[] get(String key) {
+        final long now = System.currentTimeMillis();
+        CachedResponse response = key2response.get(key);
+        if ((response == null) && (diskDir != null)) {
+            response = load(key);
+            if (response != null) key2response.put(key, response);
+        }
+        if (response == null) return null;
+
+        if (now - response.time > ttlMillis) {
+            key2response.remove(key);
+            if (diskDir != null) getFile(key).delete();
+            return null;
+        }
+        return response.content;
+    }
+
+    /** Adds or replaces the response of key */
+    public synchronized void put(String key, byte[] content) {
+        final CachedResponse response = new CachedResponse(content, System.currentTimeMillis());
+        key2response.put(key, response);
+        if (diskDir != null) {
+            try {
+                save(key, response);
+            } catch (IOException e) {
+                LOGGER.warn("Cannot save geo search response " + key, e);
+            }
+        }
+    }
+
+    /** Number of responses kept in memory */
+    public synchronized int getCount() {
+        return key2response.size();
+    }
+
+    /** Removes all responses from memory. Responses in diskDir are kept. */
+    public synchronized void clearMemory() {
+        key2response.clear();
+    }
+
+    private CachedResponse load(String key) {
+        final File file = getFile(key);
+        if (!file.exists()) return null;
+
+        InputStream inputStream = null;
+        try {
+            final ByteArrayOutputStream content = new ByteArrayOutputStream((int) file.length());
+            inputStream = new FileInputStream(file);
+            byte[] buffer = new byte[8192];
+            for (int read = inputStream.read(buffer); read > -1; read = inputStream.read(buffer)) {
+                content.write(buffer, 0, read);
+            }
+            return new CachedResponse(content.toByteArray(), file.lastModified());
+        } catch (IOException e) {
+            LOGGER.warn("Cannot load geo search response " + file, e);
+            return null;
+        } finally {
+            GeoLoadService.closeSilently(inputStream);
+        }
+    }
+
+    private void save(String key, CachedResponse response) throws IOException {
+        diskDir.mkdirs();
+        final File file = getFile(key);
+        final File temp = new File(diskDir, file.getName() + ".tmp");
+        OutputStream outputStream = new FileOutputStream(temp);
+        try {
+            outputStream.write(response.content);
+        } finally {
+            outputStream.close();
+        }
+        file.delete();
+        if (!temp.renameTo(file)) {
+            temp.delete();
+            throw new IOException("Cannot create " + file);
+        }
+        file.setLastModified(response.time);
+    }
+
+    private File getFile(String key) {
+        return new File(diskDir, key.replaceAll("[^a-zA-Z0-9._-]", "_") + FILE_EXT);
+    }
+
+    private static class CachedResponse {
+        private final byte[] content;
+        /** when content was downloaded */
+        private final long time;
+
+        CachedResponse(byte[] content, long time) {
+            this.content = content;
+            this.time = time;
+        }
+    }
+}
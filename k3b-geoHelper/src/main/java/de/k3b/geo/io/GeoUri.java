@@ -23,6 +23,7 @@ import static de.k3b.geo.api.IGeoPointInfo.NO_ZOOM;
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
 import java.net.URLEncoder;
+import java.nio.charset.Charset;
 import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -122,6 +123,7 @@ public class GeoUri {
      * Default for url-encoding.
      */
     private static final String DEFAULT_ENCODING = "UTF-8";
+    private static final Charset UTF8 = Charset.forName(DEFAULT_ENCODING);
     public static final String GEO_SCHEME = "geo:";
     public static final String AREA_SCHEME = "geoarea:";
     public static final java.lang.String HTTPS_SCHEME = "https:";
@@ -154,8 +156,6 @@ public class GeoUri {
     /** Formating/parsing options */
     private final int options;
 
-    /** For uri-formatter: Next delimiter for a parameter. can be "?" or "&"  */
-    private String delim;
 
     /** Create with options from OPT_xxx */
     public GeoUri(int options) {
@@ -207,7 +207,11 @@ public class GeoUri {
             return uriParamParse(uri, parseResult);
 
         }
-        if (uri.startsWith(HTTP_SCHEME) || uri.startsWith(HTTPS_SCHEME) || uri.startsWith(GEO_SCHEME)) {
+        if (uri.startsWith(GEO_SCHEME)) {
+            if (!isSet(GeoUri.OPT_PARSE_INFER_MISSING) && isCanonicalGeoUri(uri)) {
+                // fast path without regular expressions for uris generated by toUriString()
+                return parseCanonicalGeoUri(uri, parseResult);
+            }
             return uriParamParse(uri, parseResult);
         }
 
@@ -315,7 +319,11 @@ public class GeoUri {
         return uriParamParse(newUri, parseResult);
     }
 
-    private <TGeo extends GeoPointDto> TGeo uriParamParse(String uri, TGeo parseResult) {
+    /** Regex based parser for all supported uri formats.
+     *
+     * package private so that regression tests can compare it with the fast path
+     * {@link #parseCanonicalGeoUri(String, GeoPointDto)} */
+    <TGeo extends GeoPointDto> TGeo uriParamParse(String uri, TGeo parseResult) {
         int queryOffset = uri.indexOf("?");
 
         if (queryOffset >= 0) {
@@ -382,6 +390,337 @@ public class GeoUri {
         return currentValue;
     }
 
+    /** Returns currentValue or paramValue if currentValue is empty. */
+    private static String getParam(String paramValue, String currentValue) {
+        if ((currentValue == null) || (currentValue.length() == 0)) {
+            return paramValue;
+        }
+        return currentValue;
+    }
+
+    /* Fast path for canonical geo-uri-s as generated by toUriString(), i.e.
+     * "geo:52.1,9.2?q=(name)&z=5&d=description" or "geo:52.1,9.2?q=52.1,9.2(name)".
+     *
+     * The uri is scanned twice without regular expressions, HashMap or String.split():
+     * isCanonicalGeoUri() only checks the syntax and parseCanonicalGeoUri() copies the values.
+     * Everything that might be interpreted differently by the regex based uriParamParse()
+     * (i.e. "ll=", names containing "(", "," or a date, unusual number formats)
+     * is not canonical and therefore handled by uriParamParse(). */
+
+    private static final int PARAM_UNKNOWN = 0;
+    private static final int PARAM_UNSUPPORTED = -1;
+    private static final int PARAM_QUERY = 1;
+    private static final int PARAM_ZOOM = 1 << 1;
+    private static final int PARAM_ZOOM_MAX = 1 << 2;
+    private static final int PARAM_LINK = 1 << 3;
+    private static final int PARAM_SYMBOL = 1 << 4;
+    private static final int PARAM_DESCRIPTION = 1 << 5;
+    private static final int PARAM_ID = 1 << 6;
+    private static final int PARAM_TIME = 1 << 7;
+    private static final int PARAM_NAME = 1 << 8;
+
+    /** Powers of ten that can be represented exactly as double */
+    private static final double[] POWER_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7,
+            1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15};
+
+    /** Fast path: Returns true if uri (starting with {@link #GEO_SCHEME}) can be parsed by
+     * {@link #parseCanonicalGeoUri(String, GeoPointDto)} with the same result as
+     * {@link #uriParamParse(String, GeoPointDto)} . */
+    static boolean isCanonicalGeoUri(String uri) {
+        final int length = uri.length();
+        final int queryOffset = uri.indexOf('?');
+        final int pathEnd = (queryOffset >= 0) ? queryOffset : length;
+        final int pathStart = GEO_SCHEME.length();
+        if ((pathStart < pathEnd) && (scanLatLon(uri, pathStart, pathEnd) != pathEnd)) return false;
+        if (queryOffset < 0) return true;
+
+        int found = 0;
+        int queryStart = -1;
+        int queryEnd = -1;
+        int paramStart = queryOffset + 1;
+        do {
+            int paramEnd = uri.indexOf('&', paramStart);
+            if (paramEnd < 0) paramEnd = length;
+            final int valueStart = uri.indexOf('=', paramStart) + 1;
+
+            // no "=", empty name, empty value or more than one "="
+            if ((valueStart <= paramStart + 1) || (valueStart >= paramEnd)) return false;
+            final int nextEquals = uri.indexOf('=', valueStart);
+            if ((nextEquals >= 0) && (nextEquals < paramEnd)) return false;
+            if (!isValidUrlEncoded(uri, valueStart, paramEnd)) return false;
+
+            final int paramId = getParamId(uri, paramStart, valueStart - 1);
+            if (paramId == PARAM_UNSUPPORTED) return false;
+            if (paramId != PARAM_UNKNOWN) {
+                if ((found & paramId) != 0) return false; // duplicate
+                found |= paramId;
+                if (paramId == PARAM_QUERY) {
+                    queryStart = valueStart;
+                    queryEnd = paramEnd;
+                }
+            }
+            paramStart = paramEnd + 1;
+        } while (paramStart <= length);
+
+        return (queryStart < 0) || isCanonicalQuery(uri, queryStart, queryEnd, (found & PARAM_TIME) != 0);
+    }
+
+    /** Fast path: true if q-value is "lat,lon", "(name)" or "lat,lon(name)" */
+    private static boolean isCanonicalQuery(String uri, int start, int end, boolean hasTime) {
+        final int latLonEnd = scanLatLon(uri, start, end);
+        final boolean hasLatLon = latLonEnd > 0;
+        final int nameStart = hasLatLon ? latLonEnd : start;
+        if (nameStart == end) return hasLatLon;
+
+        if ((end - nameStart < 3) || (uri.charAt(nameStart) != '(') || (uri.charAt(end - 1) != ')')) return false;
+        for (int pos = nameStart + 1; pos < end - 1; pos++) {
+            char c = uri.charAt(pos);
+            if (c == '%') {
+                c = (char) ((Character.digit(uri.charAt(pos + 1), 16) << 4) + Character.digit(uri.charAt(pos + 2), 16));
+                pos += 2;
+            }
+            if ((c == '(') || (c == ')')) return false;
+            // name would be interpreted as lat,lon or as date
+            if ((c == ',') && !hasLatLon) return false;
+            if ((c == ':') && !hasTime) return false;
+        }
+        return true;
+    }
+
+    /** Fast path: Returns the PARAM_XXX of the parameter name between start and end */
+    private static int getParamId(String uri, int start, int end) {
+        switch (end - start) {
+            case 1:
+                switch (uri.charAt(start)) {
+                    case 'q': return PARAM_QUERY;
+                    case 'z': return PARAM_ZOOM;
+                    case 's': return PARAM_SYMBOL;
+                    case 'd': return PARAM_DESCRIPTION;
+                    case 't': return PARAM_TIME;
+                    case 'n': return PARAM_NAME;
+                    default: return PARAM_UNKNOWN;
+                }
+            case 2:
+                if (uri.startsWith(GeoUriDef.ZOOM_MAX, start)) return PARAM_ZOOM_MAX;
+                if (uri.startsWith(GeoUriDef.ID, start)) return PARAM_ID;
+                if (uri.startsWith(GeoUriDef.LAT_LON, start)) return PARAM_UNSUPPORTED;
+                return PARAM_UNKNOWN;
+            case 4:
+                if (uri.startsWith(GeoUriDef.LINK, start)) return PARAM_LINK;
+                return PARAM_UNKNOWN;
+            default:
+                return PARAM_UNKNOWN;
+        }
+    }
+
+    /** Fast path: Returns end of "lat,lon" starting at start or -1 if there is none. */
+    private static int scanLatLon(String uri, int start, int end) {
+        int pos = scanNumber(uri, start, end);
+        if ((pos < 0) || (pos >= end) || (uri.charAt(pos) != ',')) return -1;
+        return scanNumber(uri, pos + 1, end);
+    }
+
+    /** Fast path: Returns end of number "-123.456" starting at start or -1 if there is none. */
+    private static int scanNumber(String uri, int start, int end) {
+        int pos = start;
+        if ((pos < end) && (uri.charAt(pos) == '-')) pos++;
+        int digitsStart = pos;
+        while ((pos < end) && isDigit(uri.charAt(pos))) pos++;
+        if (pos == digitsStart) return -1;
+        if ((pos < end) && (uri.charAt(pos) == '.')) {
+            digitsStart = ++pos;
+            while ((pos < end) && isDigit(uri.charAt(pos))) pos++;
+            if (pos == digitsStart) return -1;
+        }
+        return pos;
+    }
+
+    private static boolean isDigit(char c) {
+        return (c >= '0') && (c <= '9');
+    }
+
+    /** Fast path: Converts number between start and end that was checked by {@link #scanNumber(String, int, int)} */
+    private static double parseNumber(String uri, int start, int end) {
+        final boolean negative = uri.charAt(start) == '-';
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = 0;
+        boolean fraction = false;
+        for (int pos = negative ? start + 1 : start; pos < end; pos++) {
+            char c = uri.charAt(pos);
+            if (c == '.') {
+                fraction = true;
+            } else {
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                if (fraction) fractionDigits++;
+            }
+        }
+        if (digits >= POWER_OF_TEN.length) {
+            // too many digits for exact mantissa
+            return Double.parseDouble(uri.substring(start, end));
+        }
+
+        // both values are exact so the division is correctly rounded as in Double.parseDouble()
+        double value = mantissa / POWER_OF_TEN[fractionDigits];
+        return negative ? -value : value;
+    }
+
+    /** Fast path: true if every "%" between start and end is followed by two hex digits */
+    private static boolean isValidUrlEncoded(String uri, int start, int end) {
+        for (int pos = uri.indexOf('%', start); (pos >= 0) && (pos < end); pos = uri.indexOf('%', pos + 3)) {
+            if ((pos + 2 >= end)
+                    || (Character.digit(uri.charAt(pos + 1), 16) < 0)
+                    || (Character.digit(uri.charAt(pos + 2), 16) < 0)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Fast path: Same result as {@link URLDecoder#decode(String, String)} for the checked value between start and end. */
+    private static String decode(String uri, int start, int end) {
+        int pos = start;
+        while ((pos < end) && (uri.charAt(pos) != '%') && (uri.charAt(pos) != '+')) pos++;
+        if (pos == end) return uri.substring(start, end);
+
+        final StringBuilder result = new StringBuilder(end - start).append(uri, start, pos);
+        byte[] bytes = null;
+        while (pos < end) {
+            char c = uri.charAt(pos);
+            if (c == '+') {
+                result.append(' ');
+                pos++;
+            } else if (c == '%') {
+                // consecutive escapes are utf-8 encoded bytes of one or more chars
+                if (bytes == null) bytes = new byte[(end - pos) / 3];
+                int count = 0;
+                while ((pos < end) && (uri.charAt(pos) == '%')) {
+                    bytes[count++] = (byte) ((Character.digit(uri.charAt(pos + 1), 16) << 4)
+                            + Character.digit(uri.charAt(pos + 2), 16));
+                    pos += 3;
+                }
+                result.append(new String(bytes, 0, count, UTF8));
+            } else {
+                result.append(c);
+                pos++;
+            }
+        }
+        return result.toString();
+    }
+
+    /** Fast path: Load {@link IGeoPointInfo} from uri that was checked by {@link #isCanonicalGeoUri(String)}.
+     *
+     * Same precedence rules as in {@link #uriParamParse(String, GeoPointDto)}. */
+    private static <TGeo extends GeoPointDto> TGeo parseCanonicalGeoUri(String uri, TGeo parseResult) {
+        final int length = uri.length();
+        final int queryOffset = uri.indexOf('?');
+        int latLonStart = GEO_SCHEME.length();
+        int latLonEnd = (queryOffset >= 0) ? queryOffset : length;
+
+        if (queryOffset >= 0) {
+            String query = null;
+            String zoom = null;
+            String zoomMax = null;
+            String link = null;
+            String symbol = null;
+            String description = null;
+            String id = null;
+            String time = null;
+            String name = null;
+            int queryStart = -1;
+            int queryEnd = -1;
+
+            int paramStart = queryOffset + 1;
+            do {
+                int paramEnd = uri.indexOf('&', paramStart);
+                if (paramEnd < 0) paramEnd = length;
+                final int valueStart = uri.indexOf('=', paramStart) + 1;
+                switch (getParamId(uri, paramStart, valueStart - 1)) {
+                    case PARAM_QUERY:
+                        query = decode(uri, valueStart, paramEnd);
+                        queryStart = valueStart;
+                        queryEnd = paramEnd;
+                        break;
+                    case PARAM_ZOOM: zoom = decode(uri, valueStart, paramEnd); break;
+                    case PARAM_ZOOM_MAX: zoomMax = decode(uri, valueStart, paramEnd); break;
+                    case PARAM_LINK: link = decode(uri, valueStart, paramEnd); break;
+                    case PARAM_SYMBOL: symbol = decode(uri, valueStart, paramEnd); break;
+                    case PARAM_DESCRIPTION: description = decode(uri, valueStart, paramEnd); break;
+                    case PARAM_ID: id = decode(uri, valueStart, paramEnd); break;
+                    case PARAM_TIME: time = decode(uri, valueStart, paramEnd); break;
+                    case PARAM_NAME: name = decode(uri, valueStart, paramEnd); break;
+                    default: break; // unknown parameters are ignored
+                }
+                paramStart = paramEnd + 1;
+            } while (paramStart <= length);
+
+            parseResult.setDescription(getParam(description, parseResult.getDescription()));
+            parseResult.setLink(getParam(link, parseResult.getLink()));
+            parseResult.setSymbol(getParam(symbol, parseResult.getSymbol()));
+            parseResult.setId(getParam(id, parseResult.getId()));
+
+            if ((parseResult.getZoomMin() == NO_ZOOM) && (zoom != null)) {
+                parseResult.setZoomMin(GeoFormatter.parseZoom(zoom));
+            }
+            if (parseResult.getZoomMax() == NO_ZOOM) {
+                parseResult.setZoomMax(GeoFormatter.parseZoom(zoomMax));
+            }
+
+            String nameInQuery = null;
+            if (query != null) {
+                // lat lon from q have precedence over url-path
+                final int latLonInQueryEnd = scanLatLon(uri, queryStart, queryEnd);
+                int nameStart = queryStart;
+                if (latLonInQueryEnd > 0) {
+                    latLonStart = queryStart;
+                    latLonEnd = latLonInQueryEnd;
+                    nameStart = latLonInQueryEnd;
+                }
+                if (nameStart < queryEnd) {
+                    // without "(" and ")"
+                    nameInQuery = decode(uri, nameStart + 1, queryEnd - 1);
+                }
+            }
+            parseResult.setName(getParam(nameInQuery, parseResult.getName()));
+
+            if (time != null) {
+                parseResult.setTimeOfMeasurement(IsoDateTimeParser.parse(time));
+            }
+
+            setLatLon(parseResult, uri, latLonStart, latLonEnd);
+
+            if (parseResult.getName() == null) {
+                parseResult.setName(name);
+            }
+            if (parseResult.getName() == null && GeoPointDto.isEmpty(parseResult) && query != null) {
+                parseResult.setName(query);
+            }
+        } else {
+            setLatLon(parseResult, uri, latLonStart, latLonEnd);
+        }
+        return parseResult;
+    }
+
+    /** Fast path: Same as {@link #setLatLonZoom(GeoPointDto, String, String, String)} for checked "lat,lon" between start and end. */
+    private static void setLatLon(GeoPointDto parseResult, String uri, int start, int end) {
+        if (start < end) {
+            final int comma = uri.indexOf(',', start);
+            Double lat = null;
+            Double lon = null;
+            if (GeoPointDto.isEmpty(parseResult.getLatitude())) {
+                lat = parseNumber(uri, start, comma);
+            }
+            if (GeoPointDto.isEmpty(parseResult.getLongitude())) {
+                lon = parseNumber(uri, comma + 1, end);
+            }
+            if (isValid(lon, -180.0, +180.0) && isValid(lat, -90.0, +90.0)) {
+                parseResult.setLongitude(lon);
+                parseResult.setLatitude(lat);
+            }
+        }
+    }
+
     /** Load {@link GeoPointDto}[2] from area-uri-{@link String} into parseResult. */
     public <TGeo extends GeoPointDto>  TGeo[] fromUri(String uri, TGeo[] parseResult) {
         if ((uri == null) || (parseResult == null) || (parseResult.length < 2)) return null;
@@ -534,16 +873,17 @@ public class GeoUri {
         result.append(GEO_SCHEME);
         formatLatLon(result, geoPoint);
 
-        delim = "?";
-        appendQueryParameter(result, GeoUriDef.QUERY, formatQuery(geoPoint), false);
-        appendQueryParameter(result, GeoUriDef.ZOOM, GeoFormatter.formatZoom(geoPoint.getZoomMin()), false);
-        appendQueryParameter(result, GeoUriDef.ZOOM_MAX, GeoFormatter.formatZoom(geoPoint.getZoomMax()), false);
-        appendQueryParameter(result, GeoUriDef.LINK, geoPoint.getLink(), true);
-        appendQueryParameter(result, GeoUriDef.SYMBOL, geoPoint.getSymbol(), true);
-        appendQueryParameter(result, GeoUriDef.DESCRIPTION, geoPoint.getDescription(), true);
-        appendQueryParameter(result, GeoUriDef.ID, geoPoint.getId(), true);
+        final int queryStart = result.length();
+        appendQueryParameter(result, queryStart, GeoUriDef.QUERY, formatQuery(geoPoint), false);
+        appendQueryParameter(result, queryStart, GeoUriDef.ZOOM, GeoFormatter.formatZoom(geoPoint.getZoomMin()), false);
+        appendQueryParameter(result, queryStart, GeoUriDef.ZOOM_MAX, GeoFormatter.formatZoom(geoPoint.getZoomMax()), false);
+        appendQueryParameter(result, queryStart, GeoUriDef.LINK, geoPoint.getLink(), true);
+        appendQueryParameter(result, queryStart, GeoUriDef.SYMBOL, geoPoint.getSymbol(), true);
+        appendQueryParameter(result, queryStart, GeoUriDef.DESCRIPTION, geoPoint.getDescription(), true);
+        appendQueryParameter(result, queryStart, GeoUriDef.ID, geoPoint.getId(), true);
         if (geoPoint.getTimeOfMeasurement() != null) {
-            appendQueryParameter(result, GeoUriDef.TIME, GeoFormatter.formatDate(geoPoint.getTimeOfMeasurement()), false);
+            appendQueryParameterName(result, queryStart, GeoUriDef.TIME);
+            GeoFormatter.appendDate(result, geoPoint.getTimeOfMeasurement());
         }
 
         return result.toString();
@@ -554,40 +894,42 @@ public class GeoUri {
     public String toUriString(IGeoPointInfo northEast, IGeoPointInfo southWest) {
         StringBuilder result = new StringBuilder();
         result.append(AREA_SCHEME);
-        result.append(GeoFormatter.formatLatLon(northEast.getLatitude())).append(",");
-        result.append(GeoFormatter.formatLatLon(northEast.getLongitude())).append(",");
-        result.append(GeoFormatter.formatLatLon(southWest.getLatitude())).append(",");
-        result.append(GeoFormatter.formatLatLon(southWest.getLongitude()));
+        GeoFormatter.appendLatLon(result, northEast.getLatitude()).append(",");
+        GeoFormatter.appendLatLon(result, northEast.getLongitude()).append(",");
+        GeoFormatter.appendLatLon(result, southWest.getLatitude()).append(",");
+        GeoFormatter.appendLatLon(result, southWest.getLongitude());
 
         return result.toString();
     }
 
     /** Formatting helper: Adds name value to result with optional encoding. */
-    private void appendQueryParameter(StringBuilder result, String paramName, String paramValue, boolean urlEncode) {
+    private void appendQueryParameter(StringBuilder result, int queryStart, String paramName, String paramValue, boolean urlEncode) {
         if ((paramValue != null) && (paramValue.length() > 0)) {
             try {
-                result.append(delim).append(paramName).append("=");
+                appendQueryParameterName(result, queryStart, paramName);
                 if (urlEncode) {
                     result.append(encode(paramValue));
                 } else {
                     result.append(paramValue);
                 }
-                delim = "&";
             } catch (UnsupportedEncodingException e) {
                 e.printStackTrace();
             }
         }
     }
 
+    /** Appends "?paramName=" for the first parameter behind queryStart or "&paramName=" for the following. */
+    private static StringBuilder appendQueryParameterName(StringBuilder result, int queryStart, String paramName) {
+        return result.append((result.length() == queryStart) ? '?' : '&').append(paramName).append('=');
+    }
+
     /** Formatting helper: Adds lat/lon to result. */
     private void formatLatLon(StringBuilder result, IGeoPointInfo geoPoint) {
         if (geoPoint != null) {
-            result.append(GeoFormatter.formatLatLon(geoPoint.getLatitude()));
+            GeoFormatter.appendLatLon(result, geoPoint.getLatitude());
 
             if (geoPoint.getLongitude() != IGeoPointInfo.NO_LAT_LON) {
-                result
-                        .append(",")
-                        .append(GeoFormatter.formatLatLon(geoPoint.getLongitude()));
+                GeoFormatter.appendLatLon(result.append(","), geoPoint.getLongitude());
             }
         }
     }
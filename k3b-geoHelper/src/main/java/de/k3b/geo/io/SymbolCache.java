@@ -0,0 +1,296 @@
+/*
+ * Copyright (c) 2026 by k3b.
+ *
+ * This file is part of k3b-geoHelper library.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.k3b.geo.io;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import de.k3b.geo.GeoLoadService;
+
+/**
+ * Persistent local cache for downloaded symbols used by {@link DownloadSymbolsBaseService}.
+ *
+ * The content is stored content-addressed (file name is the sha-1 of the content) so symbols
+ * with identical content from different urls are stored once. The file {@link #INDEX_FILE_NAME}
+ * maps urls to content, ETag and Last-Modified which are used for conditional http GET.
+ *
+ * If the total size exceeds maxSize the least recently used symbols are removed.
+ *
+ * This class is thread safe.
+ */
+public class SymbolCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SymbolCache.class);
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    public static final String INDEX_FILE_NAME = "index.txt";
+    private static final char DELIMITER = '\t';
+
+    private final File dir;
+    private final long maxSize;
+
+    /** url to entry in least recently used order */
+    private final LinkedHashMap<String, Entry> url2entry = new LinkedHashMap<>(16, 0.75f, true);
+    /** content hash to number of urls using it */
+    private final Map<String, Integer> hash2count = new HashMap<>();
+    private long size = 0;
+    private boolean modified = false;
+
+    /**
+     * @param dir where symbols and index are stored. Existing index is loaded.
+     * @param maxSize max total size of all cached symbols in bytes.
+     */
+    public SymbolCache(File dir, long maxSize) {
+        this.dir = dir;
+        this.maxSize = maxSize;
+        loadIndex();
+    }
+
+    /** @return cached entry for url or null if not cached */
+    public synchronized Entry get(String url) {
+        final Entry entry = url2entry.get(url);
+        if ((entry != null) && !getFile(entry).exists()) {
+            remove(url);
+            return null;
+        }
+        if (entry != null) modified = true; // lru order changed
+        return entry;
+    }
+
+    /** @return the cached content of entry */
+    public ByteArrayOutputStream read(Entry entry) throws IOException {
+        final ByteArrayOutputStream content = new ByteArrayOutputStream((int) entry.size);
+        InputStream inputStream = null;
+        try {
+            inputStream = new FileInputStream(getFile(entry));
+            byte[] buffer = new byte[8192];
+            for (int read = inputStream.read(buffer); read > -1; read = inputStream.read(buffer)) {
+                content.write(buffer, 0, read);
+            }
+        } finally {
+            GeoLoadService.closeSilently(inputStream);
+        }
+        return content;
+    }
+
+    /**
+     * Adds or replaces the content of url.
+     *
+     * @param etag value of the http response header ETag or null
+     * @param lastModified value of the http response header Last-Modified or 0
+     */
+    public synchronized Entry put(String url, byte[] content, String etag, long lastModified) throws IOException {
+        final Entry entry = new Entry(url, hash(content), content.length,
+                isValid(etag) ? etag : null, lastModified);
+        final File file = getFile(entry);
+        if (!file.exists()) {
+            dir.mkdirs();
+            final File temp = new File(dir, entry.hash + ".tmp");
+            OutputStream outputStream = new FileOutputStream(temp);
+            try {
+                outputStream.write(content);
+            } finally {
+                outputStream.close();
+            }
+            if (!temp.renameTo(file)) {
+                temp.delete();
+                throw new IOException("Cannot create " + file);
+            }
+        }
+
+        final Entry old = url2entry.remove(url);
+        add(entry);
+        // after add(): old content is kept if it is the same as the new content
+        if (old != null) release(old);
+        evict();
+        return entry;
+    }
+
+    /** Writes the index if it was modified. */
+    public synchronized void save() throws IOException {
+        if (!modified) return;
+
+        dir.mkdirs();
+        final File temp = new File(dir, INDEX_FILE_NAME + ".tmp");
+        PrintWriter writer = new PrintWriter(new OutputStreamWriter(new FileOutputStream(temp), UTF8));
+        try {
+            // least recently used first
+            for (Entry entry : url2entry.values()) {
+                writer.print(entry.url);
+                writer.print(DELIMITER);
+                writer.print(entry.hash);
+                writer.print(DELIMITER);
+                writer.print(entry.size);
+                writer.print(DELIMITER);
+                writer.print(entry.lastModified);
+                writer.print(DELIMITER);
+                writer.println((entry.etag != null) ? entry.etag : "");
+            }
+        } finally {
+            writer.close();
+        }
+        final File index = new File(dir, INDEX_FILE_NAME);
+        if (!temp.renameTo(index)) {
+            // rename cannot replace on all platforms
+            index.delete();
+            if (!temp.renameTo(index)) throw new IOException("Cannot create " + index);
+        }
+        modified = false;
+    }
+
+    /** Total size of the cached symbols in bytes */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    /** Number of cached urls */
+    public synchronized int getCount() {
+        return url2entry.size();
+    }
+
+    private void loadIndex() {
+        final File index = new File(dir, INDEX_FILE_NAME);
+        if (!index.exists()) return;
+
+        BufferedReader reader = null;
+        try {
+            reader = new BufferedReader(new InputStreamReader(new FileInputStream(index), UTF8));
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                final String[] parts = line.split(String.valueOf(DELIMITER), -1);
+                if (parts.length == 5) {
+                    add(new Entry(parts[0], parts[1], Long.parseLong(parts[2]),
+                            parts[4].isEmpty() ? null : parts[4], Long.parseLong(parts[3])));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            LOGGER.warn("Cannot load symbol cache index " + index, e);
+        } finally {
+            GeoLoadService.closeSilently(reader);
+        }
+        modified = false;
+    }
+
+    private void add(Entry entry) {
+        url2entry.put(entry.url, entry);
+        final Integer count = hash2count.get(entry.hash);
+        if (count == null) size += entry.size;
+        hash2count.put(entry.hash, (count == null) ? 1 : count + 1);
+        modified = true;
+    }
+
+    private void remove(String url) {
+        final Entry entry = url2entry.remove(url);
+        if (entry != null) {
+            release(entry);
+            modified = true;
+        }
+    }
+
+    /** Removes the content of entry if no other url uses it */
+    private void release(Entry entry) {
+        final int count = hash2count.get(entry.hash) - 1;
+        if (count > 0) {
+            hash2count.put(entry.hash, count);
+        } else {
+            hash2count.remove(entry.hash);
+            size -= entry.size;
+            getFile(entry).delete();
+        }
+    }
+
+    /** Removes least recently used entries until size is below maxSize */
+    private void evict() {
+        final Iterator<Entry> iterator = url2entry.values().iterator();
+        while ((size > maxSize) && iterator.hasNext()) {
+            final Entry entry = iterator.next();
+            iterator.remove();
+            release(entry);
+            LOGGER.debug("evict {}", entry.url);
+        }
+    }
+
+    private File getFile(Entry entry) {
+        return new File(dir, entry.hash);
+    }
+
+    /** ETag is stored in a tab separated line */
+    private static boolean isValid(String etag) {
+        return (etag != null) && (etag.indexOf(DELIMITER) < 0) && (etag.indexOf('\n') < 0) && (etag.indexOf('\r') < 0);
+    }
+
+    /** sha-1 of content as hex string */
+    static String hash(byte[] content) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-1").digest(content);
+            final StringBuilder result = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                result.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return result.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-1 is supported by every java platform
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Cache info for one url */
+    public static class Entry {
+        private final String url;
+        private final String hash;
+        private final long size;
+        private final String etag;
+        private final long lastModified;
+
+        Entry(String url, String hash, long size, String etag, long lastModified) {
+            this.url = url;
+            this.hash = hash;
+            this.size = size;
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+
+        /** Value of the http response header ETag or null */
+        public String getEtag() {
+            return etag;
+        }
+
+        /** Value of the http response header Last-Modified or 0 */
+        public long getLastModified() {
+            return lastModified;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2026 by k3b.
+ *
+ * This file is part of k3b-geoHelper library.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.k3b.geo.io.geob;
+
+/**
+ * Definitions of the compact binary geo format (*.geob) written by {@link GeobWriter}
+ * and read by {@link GeobReader}.
+ *
+ * Layout: {@link #MAGIC}, one byte {@link #VERSION}, then one record per point until end of stream.
+ *
+ * Record: varint FLAG_XXX bitmask followed by the fields whose flags are set, in flag order:
+ * * lat, lon: zigzag varint of the difference to the previous lat or lon in 1/{@link #LAT_LON_FACTOR} degrees
+ * * time: zigzag varint of the difference to the previous time in milliseconds
+ * * name, description, id: varint length followed by utf-8 bytes
+ * * link, symbol: varint reference into a string dictionary shared by link and symbol.
+ *   0 means "new string follows (varint length and utf-8 bytes)" which gets the next dictionary index.
+ *   n > 0 means dictionary entry n - 1.
+ * * zoomMin, zoomMax: varint
+ *
+ * Varints use 7 bits per byte, least significant group first (as in protobuf).
+ */
+public final class GeobDef {
+    /** first bytes of every geob stream */
+    public static final byte[] MAGIC = {'G', 'E', 'O', 'B'};
+    public static final int VERSION = 1;
+
+    /** lat/lon are stored as fixed point with 7 decimals */
+    public static final double LAT_LON_FACTOR = 1e7;
+
+    public static final int FLAG_LAT = 1;
+    public static final int FLAG_LON = 1 << 1;
+    public static final int FLAG_TIME = 1 << 2;
+    public static final int FLAG_NAME = 1 << 3;
+    public static final int FLAG_DESCRIPTION = 1 << 4;
+    public static final int FLAG_ID = 1 << 5;
+    public static final int FLAG_LINK = 1 << 6;
+    public static final int FLAG_SYMBOL = 1 << 7;
+    public static final int FLAG_ZOOM_MIN = 1 << 8;
+    public static final int FLAG_ZOOM_MAX = 1 << 9;
+
+    private GeobDef() {
+    }
+}
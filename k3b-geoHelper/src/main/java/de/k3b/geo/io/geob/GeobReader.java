@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2026 by k3b.
+ *
+ * This file is part of k3b-geoHelper library.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.k3b.geo.io.geob;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import de.k3b.geo.api.GeoPointDto;
+import de.k3b.geo.api.IGeoInfoHandler;
+
+/**
+ * Reads {@link GeoPointDto}s from the compact binary geo format described in {@link GeobDef}.
+ *
+ * Like {@link de.k3b.geo.io.gpx.GpxReaderBase} every point is given to an {@link IGeoInfoHandler}.
+ * The input stream is not closed.
+ */
+public class GeobReader {
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private final IGeoInfoHandler onGotNewWaypoint;
+    /** If not null this instance is cleared and then reused for every new point found */
+    private final GeoPointDto mReuse;
+
+    private InputStream in;
+    private byte[] buffer = new byte[256];
+
+    /**
+     * @param onGotNewWaypoint receives every point found
+     * @param reuse if not null this instance is cleared and then reused for every new point found.
+     */
+    public GeobReader(IGeoInfoHandler onGotNewWaypoint, GeoPointDto reuse) {
+        this.onGotNewWaypoint = onGotNewWaypoint;
+        this.mReuse = reuse;
+    }
+
+    /**
+     * @param in must support {@link InputStream#mark(int)}. Is positioned at the start again.
+     * @return true if in starts with {@link GeobDef#MAGIC}
+     */
+    public static boolean isGeob(InputStream in) throws IOException {
+        in.mark(GeobDef.MAGIC.length);
+        try {
+            for (byte magic : GeobDef.MAGIC) {
+                if (in.read() != magic) return false;
+            }
+            return true;
+        } finally {
+            in.reset();
+        }
+    }
+
+    /** @param in should be buffered because it is read byte by byte */
+    public void parse(InputStream in) throws IOException {
+        this.in = in;
+        for (byte magic : GeobDef.MAGIC) {
+            if (in.read() != magic) throw new IOException("not a geob stream");
+        }
+        final int version = in.read();
+        if (version != GeobDef.VERSION) throw new IOException("unsupported geob version " + version);
+
+        final List<String> dictionary = new ArrayList<>();
+        long lat = 0;
+        long lon = 0;
+        long time = 0;
+        for (int first = in.read(); first != -1; first = in.read()) {
+            final int flags = (int) readVarint(first);
+            final GeoPointDto point = newInstance();
+            if ((flags & GeobDef.FLAG_LAT) != 0) {
+                lat += readZigzag();
+                point.setLatitude(lat / GeobDef.LAT_LON_FACTOR);
+            }
+            if ((flags & GeobDef.FLAG_LON) != 0) {
+                lon += readZigzag();
+                point.setLongitude(lon / GeobDef.LAT_LON_FACTOR);
+            }
+            if ((flags & GeobDef.FLAG_TIME) != 0) {
+                time += readZigzag();
+                point.setTimeOfMeasurement(new Date(time));
+            }
+            if ((flags & GeobDef.FLAG_NAME) != 0) point.setName(readString());
+            if ((flags & GeobDef.FLAG_DESCRIPTION) != 0) point.setDescription(readString());
+            if ((flags & GeobDef.FLAG_ID) != 0) point.setId(readString());
+            if ((flags & GeobDef.FLAG_LINK) != 0) point.setLink(readDictionaryString(dictionary));
+            if ((flags & GeobDef.FLAG_SYMBOL) != 0) point.setSymbol(readDictionaryString(dictionary));
+            if ((flags & GeobDef.FLAG_ZOOM_MIN) != 0) point.setZoomMin((int) readVarint(read()));
+            if ((flags & GeobDef.FLAG_ZOOM_MAX) != 0) point.setZoomMax((int) readVarint(read()));
+
+            if (!onGotNewWaypoint.onGeoInfo(point)) break;
+        }
+        this.in = null;
+    }
+
+    /** Factory method: Returns an instance of an empty {@link GeoPointDto} */
+    protected GeoPointDto newInstance() {
+        if (mReuse != null) return mReuse.clear();
+        return new GeoPointDto();
+    }
+
+    private String readDictionaryString(List<String> dictionary) throws IOException {
+        final long index = readVarint(read());
+        if (index == 0) {
+            final String value = readString();
+            dictionary.add(value);
+            return value;
+        }
+        if (index > dictionary.size()) throw new IOException("corrupt geob stream: unknown string " + index);
+        return dictionary.get((int) index - 1);
+    }
+
+    private String readString() throws IOException {
+        final int length = (int) readVarint(read());
+        if (length < 0) throw new IOException("corrupt geob stream: string length " + length);
+        if (buffer.length < length) buffer = new byte[Math.max(length, buffer.length * 2)];
+        for (int offset = 0; offset < length; ) {
+            final int count = in.read(buffer, offset, length - offset);
+            if (count < 0) throw new EOFException("corrupt geob stream: incomplete string");
+            offset += count;
+        }
+        return new String(buffer, 0, length, UTF8);
+    }
+
+    private long readZigzag() throws IOException {
+        final long value = readVarint(read());
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /** @param first the first byte of the varint */
+    private long readVarint(int first) throws IOException {
+        long result = 0;
+        int shift = 0;
+        for (int b = first; ; b = read()) {
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return result;
+            shift += 7;
+            if (shift > 63) throw new IOException("corrupt geob stream: varint too long");
+        }
+    }
+
+    private int read() throws IOException {
+        final int b = in.read();
+        if (b < 0) throw new EOFException("corrupt geob stream: incomplete point");
+        return b;
+    }
+}
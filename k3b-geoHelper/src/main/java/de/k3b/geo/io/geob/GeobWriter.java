@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2026 by k3b.
+ *
+ * This file is part of k3b-geoHelper library.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.k3b.geo.io.geob;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.k3b.geo.api.IGeoPointInfo;
+
+/**
+ * Writes {@link IGeoPointInfo}s in the compact binary geo format described in {@link GeobDef}.
+ *
+ * ```java
+ *  GeobWriter writer = new GeobWriter(new FileOutputStream("/path/to/points.geob"));
+ *  try {
+ *      for (IGeoPointInfo point : points) writer.write(point);
+ *  } finally {
+ *      writer.close();
+ *  }
+ * ```
+ */
+public class GeobWriter implements Closeable {
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private final OutputStream out;
+
+    /** link and symbol to dictionary index */
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private long lastLat = 0;
+    private long lastLon = 0;
+    private long lastTime = 0;
+
+    /** Writes the geob header to out */
+    public GeobWriter(OutputStream out) throws IOException {
+        this.out = new BufferedOutputStream(out);
+        this.out.write(GeobDef.MAGIC);
+        this.out.write(GeobDef.VERSION);
+    }
+
+    /** Writes all geoInfos to outputStream and closes it */
+    public static void export(List<IGeoPointInfo> geoInfos, OutputStream outputStream) throws IOException {
+        if (outputStream != null) {
+            GeobWriter writer = null;
+            try {
+                writer = new GeobWriter(outputStream);
+                for (IGeoPointInfo geoInfo : geoInfos) {
+                    writer.write(geoInfo);
+                }
+            } finally {
+                if (writer != null) {
+                    writer.close();
+                } else {
+                    outputStream.close();
+                }
+            }
+        }
+    }
+
+    public GeobWriter write(IGeoPointInfo point) throws IOException {
+        final double latitude = point.getLatitude();
+        final double longitude = point.getLongitude();
+        final Date time = point.getTimeOfMeasurement();
+
+        int flags = 0;
+        if (latitude != IGeoPointInfo.NO_LAT_LON) flags |= GeobDef.FLAG_LAT;
+        if (longitude != IGeoPointInfo.NO_LAT_LON) flags |= GeobDef.FLAG_LON;
+        if (time != null) flags |= GeobDef.FLAG_TIME;
+        if (point.getName() != null) flags |= GeobDef.FLAG_NAME;
+        if (point.getDescription() != null) flags |= GeobDef.FLAG_DESCRIPTION;
+        if (point.getId() != null) flags |= GeobDef.FLAG_ID;
+        if (point.getLink() != null) flags |= GeobDef.FLAG_LINK;
+        if (point.getSymbol() != null) flags |= GeobDef.FLAG_SYMBOL;
+        if (point.getZoomMin() != IGeoPointInfo.NO_ZOOM) flags |= GeobDef.FLAG_ZOOM_MIN;
+        if (point.getZoomMax() != IGeoPointInfo.NO_ZOOM) flags |= GeobDef.FLAG_ZOOM_MAX;
+        writeVarint(flags);
+
+        if ((flags & GeobDef.FLAG_LAT) != 0) {
+            final long lat = Math.round(latitude * GeobDef.LAT_LON_FACTOR);
+            writeZigzag(lat - lastLat);
+            lastLat = lat;
+        }
+        if ((flags & GeobDef.FLAG_LON) != 0) {
+            final long lon = Math.round(longitude * GeobDef.LAT_LON_FACTOR);
+            writeZigzag(lon - lastLon);
+            lastLon = lon;
+        }
+        if (time != null) {
+            writeZigzag(time.getTime() - lastTime);
+            lastTime = time.getTime();
+        }
+        if (point.getName() != null) writeString(point.getName());
+        if (point.getDescription() != null) writeString(point.getDescription());
+        if (point.getId() != null) writeString(point.getId());
+        if (point.getLink() != null) writeDictionaryString(point.getLink());
+        if (point.getSymbol() != null) writeDictionaryString(point.getSymbol());
+        if (point.getZoomMin() != IGeoPointInfo.NO_ZOOM) writeVarint(point.getZoomMin());
+        if (point.getZoomMax() != IGeoPointInfo.NO_ZOOM) writeVarint(point.getZoomMax());
+        return this;
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void writeDictionaryString(String value) throws IOException {
+        final Integer index = dictionary.get(value);
+        if (index != null) {
+            writeVarint(index + 1L);
+        } else {
+            dictionary.put(value, dictionary.size());
+            writeVarint(0);
+            writeString(value);
+        }
+    }
+
+    private void writeString(String value) throws IOException {
+        final byte[] bytes = value.getBytes(UTF8);
+        writeVarint(bytes.length);
+        out.write(bytes);
+    }
+
+    private void writeZigzag(long value) throws IOException {
+        writeVarint((value << 1) ^ (value >> 63));
+    }
+
+    private void writeVarint(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+}
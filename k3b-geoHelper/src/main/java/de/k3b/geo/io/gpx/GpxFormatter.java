@@ -20,6 +20,7 @@
 
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.io.StringWriter;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.Date;
@@ -30,6 +31,7 @@ import java.util.TimeZone;
 import de.k3b.geo.api.GeoPointDto;
 import de.k3b.geo.api.IGeoPointInfo;
 import de.k3b.geo.api.ILocation;
+import de.k3b.geo.io.GeoFormatter;
 import de.k3b.geo.io.GeoUriDef;
 
 /**
@@ -54,19 +56,18 @@ import de.k3b.geo.io.GeoUriDef;
  */
 public class GpxFormatter {
 	private static final String TEMP_AMP = "##!!##!!";
+    /** @deprecated not thread safe. Use {@link GeoFormatter#formatDate(Date)} instead. */
+    @Deprecated
     public static final DateFormat TIME_FORMAT
             = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'", Locale.US);
 
-    private static final String HEADER = "<?xml version='1.0' encoding='UTF-8'?>\n" +
+    static final String HEADER = "<?xml version='1.0' encoding='UTF-8'?>\n" +
             "<gpx version='1.1' xmlns='http://www.topografix.com/GPX/1/1'\n" +
             "\txmlns:topografix='http://www.topografix.com/GPX/Private/TopoGrafix/0/1'\n" +
             "\txmlns:k3b='uri:https://github.com/k3b/k3b-geoHelper/'\n" +
             "\txmlns:xsi='http://www.w3.org/2001/XMLSchema-instance'\n" +
             "\txsi:schemaLocation='http://www.topografix.com/GPX/1/1 http://www.topografix.com/GPX/1/1/gpx.xsd http://www.topografix.com/GPX/Private/TopoGrafix/0/1 http://www.topografix.com/GPX/Private/TopoGrafix/0/1/topografix.xsd'>";
-    private static final String FOOTER = "</gpx>";
-
-    // if indent>0 do pretty format with new-line and indention
-    private static int indent = 0;
+    static final String FOOTER = "</gpx>";
 
     static {
         TIME_FORMAT.setTimeZone(TimeZone.getTimeZone("UTC"));
@@ -74,10 +75,16 @@ public class GpxFormatter {
 
     private GpxFormatter() {}
 
+    /** Streams geoInfos as gpx document to printWriter via {@link GpxWriter} and closes it. */
     public static void export(List<IGeoPointInfo> geoInfos, PrintWriter printWriter) throws IOException {
         if (printWriter != null) {
             try {
-                printWriter.println(toGpxXml(geoInfos));
+                GpxWriter gpxWriter = new GpxWriter(printWriter);
+                for (IGeoPointInfo geoInfo : geoInfos) {
+                    gpxWriter.write(geoInfo);
+                }
+                gpxWriter.finish();
+                printWriter.println();
             } finally {
                 printWriter.close();
             }
@@ -85,32 +92,30 @@ public class GpxFormatter {
     }
 
     public static String toGpxXml(List<IGeoPointInfo> geoInfos) {
-        StringBuilder buffer = new StringBuilder();
-
-        int oldIndent = indent;
+        StringWriter result = new StringWriter();
+        GpxWriter gpxWriter = new GpxWriter(result);
         try {
-            indent++;
             for (IGeoPointInfo geoInfo : geoInfos) {
-                if (!GeoPointDto.isEmpty(geoInfo)) {
-
-                    if (buffer.length() == 0) {
-                        buffer.append(HEADER);
-                    }
-                    toGpx(buffer, geoInfo);
-                }
+                gpxWriter.write(geoInfo);
             }
-        } finally {
-            if (buffer.length() > 0) {
-                buffer.append(FOOTER);
-            }
-            indent = oldIndent;
+            gpxWriter.finish();
+        } catch (IOException e) {
+            // cannot happen for StringWriter
+            throw new IllegalStateException(e);
         }
-        return buffer.toString();
+        return result.toString();
+    }
+
+    /** Add pretty formatted gpx-xml-fragment of a point inside the gpx document to result */
+    static StringBuilder toGpxDocumentItem(StringBuilder result, IGeoPointInfo geoInfo) {
+        return toGpx(result, 1, geoInfo.getLatitude(), geoInfo.getLongitude(),
+                geoInfo.getTimeOfMeasurement(), geoInfo.getName(), geoInfo.getDescription(),
+                geoInfo.getLink(), geoInfo.getSymbol(), geoInfo.getId(), geoInfo.getZoomMin(), geoInfo.getZoomMax());
     }
 
     /** Add gpx-xml-fragments to result */
     public static StringBuilder toGpx(StringBuilder result, IGeoPointInfo location) {
-        return toGpx(result, location.getLatitude(), location.getLongitude(),
+        return toGpx(result, 0, location.getLatitude(), location.getLongitude(),
                 location.getTimeOfMeasurement(), location.getName(),location.getDescription(),
                 location.getLink(), location.getSymbol(), location.getId(), location.getZoomMin(), location.getZoomMax());
     }
@@ -118,15 +123,17 @@ public class GpxFormatter {
     /** Add gpx-xml-fragments to result */
     public static StringBuilder toGpx(StringBuilder result, ILocation location,
                                      String description, String link) {
-        return toGpx(result, location.getLatitude(), location.getLongitude(),
+        return toGpx(result, 0, location.getLatitude(), location.getLongitude(),
                 location.getTimeOfMeasurement(), location.toString(),description, link, null, null, -1,-1);
     }
 
-    /** Add gpx-xml-fragments to result */
-    private static StringBuilder toGpx(StringBuilder result, double latitude, double longitude,
+    /** Add gpx-xml-fragments to result.
+     *
+     * @param indent if indent>0 do pretty format with new-line and indention */
+    private static StringBuilder toGpx(StringBuilder result, int indent, double latitude, double longitude,
                                        Date timeOfMeasurement, String name,
                                        String description, String link, String symbol, String id, int zoomMin, int zoomMax) {
-        indent(result).append("<" +
+        indent(result, indent).append("<" +
                 XmlDefinitions.GpxDef_11.TRKPT +
                 " " +
                 XmlDefinitions.GpxDef_11.ATTR_LAT +
@@ -139,13 +146,13 @@ public class GpxFormatter {
                 .append("'>");
         if (indent > 0) indent++;
         if (name != null) {
-            addElement(result, XmlDefinitions.GpxDef_11.NAME, name);
+            addElement(result, indent, XmlDefinitions.GpxDef_11.NAME, name);
         }
         if (description != null) {
-            addElement(result, XmlDefinitions.GpxDef_11.DESC, description);
+            addElement(result, indent, XmlDefinitions.GpxDef_11.DESC, description);
         }
         if (link != null) {
-            indent(result).append("<" +
+            indent(result, indent).append("<" +
                     XmlDefinitions.GpxDef_11.LINK +
                     " " +
                     XmlDefinitions.GpxDef_11.ATTR_LINK +
@@ -155,36 +162,36 @@ public class GpxFormatter {
         }
 
         if (timeOfMeasurement != null || symbol != null || zoomMax > 0 || zoomMin > 0 || id != null) {
-            indent(result).append("<extensions>");
+            indent(result, indent).append("<extensions>");
             if (indent > 0) indent++;
 
             if (timeOfMeasurement != null) {
-                addElement(result, "k3b:" + XmlDefinitions.GpxDef_11.TIME, TIME_FORMAT.format(timeOfMeasurement));
+                addElement(result, indent, "k3b:" + XmlDefinitions.GpxDef_11.TIME, GeoFormatter.formatDate(timeOfMeasurement));
             }
             if (symbol != null) {
-                addElement(result, "k3b:" + XmlDefinitions.GpxDef_11.IMAGE, symbol);
+                addElement(result, indent, "k3b:" + XmlDefinitions.GpxDef_11.IMAGE, symbol);
             }
             if (id != null) {
-                addElement(result, "k3b:" + GeoUriDef.ID, id);
+                addElement(result, indent, "k3b:" + GeoUriDef.ID, id);
             }
             if (zoomMin > 0) {
-                addElement(result, "k3b:" + GeoUriDef.ZOOM, "" + zoomMin);
+                addElement(result, indent, "k3b:" + GeoUriDef.ZOOM, "" + zoomMin);
             }
             if (zoomMax > 0) {
-                addElement(result, "k3b:" + GeoUriDef.ZOOM_MAX, "" + zoomMax);
+                addElement(result, indent, "k3b:" + GeoUriDef.ZOOM_MAX, "" + zoomMax);
             }
             if (indent > 0) indent--;
 
-            indent(result).append("</extensions>");
+            indent(result, indent).append("</extensions>");
         }
         if (indent > 0) indent--;
-        indent(result).append("</" +
+        indent(result, indent).append("</" +
                 XmlDefinitions.GpxDef_11.TRKPT +
                 ">\n");
         return result;
     }
 
-    private static StringBuilder indent(StringBuilder result) {
+    private static StringBuilder indent(StringBuilder result, int indent) {
         if (indent > 0) {
             result.append('\n');
             for (int i = 0; i < indent; i++) {
@@ -195,8 +202,8 @@ public class GpxFormatter {
     }
 
     /** add (name>value(/name> to result */
-    private static void addElement(StringBuilder result, String name, String value) {
-        indent(result).append("<").append(name).append(">").append(escapeElement(value)).append("</").append(name).append(">");
+    private static void addElement(StringBuilder result, int indent, String name, String value) {
+        indent(result, indent).append("<").append(name).append(">").append(escapeElement(value)).append("</").append(name).append(">");
     }
 
     /** replace chars that are illegal for xml elements */
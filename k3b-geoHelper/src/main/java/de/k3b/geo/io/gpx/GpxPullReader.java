@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2026 by k3b.
+ *
+ * This file is part of k3b-geoHelper library.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.k3b.geo.io.gpx;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * StAX pull parser (javax.xml.stream) for {@link GpxReaderBase} that skips the sax callback overhead.
+ *
+ * Note: StAX is not available on Android. Only this class depends on javax.xml.stream.
+ *
+ * ```java
+ * GpxReader<IGeoPointInfo> parser = new GpxReader<IGeoPointInfo>();
+ * parser.setXmlParser(new GpxPullReader());
+ * List<IGeoPointInfo> points = parser.getTracks(new InputSource(new FileReader("test.gpx")));
+ * ```
+ */
+public class GpxPullReader implements GpxReaderBase.IXmlParser {
+    private static final Logger LOGGER = LoggerFactory.getLogger(GpxPullReader.class);
+
+    /** Same as {@link GpxReaderBase#parse(InputSource)} but using the StAX pull parser */
+    @Override
+    public void parse(InputSource in, GpxReaderBase handler) throws IOException {
+        InputStream openedStream = null;
+        XMLStreamReader reader = null;
+        try {
+            XMLInputFactory factory = XMLInputFactory.newInstance();
+            // same as the sax parser: element names including namespace prefix
+            factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.FALSE);
+            factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+
+            if (in.getCharacterStream() != null) {
+                reader = factory.createXMLStreamReader(in.getCharacterStream());
+            } else if (in.getByteStream() != null) {
+                reader = (in.getEncoding() != null)
+                        ? factory.createXMLStreamReader(in.getByteStream(), in.getEncoding())
+                        : factory.createXMLStreamReader(in.getByteStream());
+            } else {
+                openedStream = new URL(in.getSystemId()).openStream();
+                reader = factory.createXMLStreamReader(in.getSystemId(), openedStream);
+            }
+
+            final Attributes attributes = new PullParserAttributes(reader);
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.START_ELEMENT:
+                        handler.onStartElement(handler.getElementName(reader.getLocalName(), null), attributes);
+                        break;
+                    case XMLStreamConstants.END_ELEMENT:
+                        handler.onEndElement(handler.getElementName(reader.getLocalName(), null));
+                        break;
+                    case XMLStreamConstants.CHARACTERS:
+                    case XMLStreamConstants.CDATA:
+                    case XMLStreamConstants.SPACE:
+                        handler.onCharacters(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                        break;
+                    default:
+                        break;
+                }
+            }
+        } catch (XMLStreamException | SAXException e) {
+            final String message = "Error parsing xml from " + in;
+            LOGGER.error(message, e);
+            throw new IOException(message,e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException ignore) {
+                }
+            }
+            if (openedStream != null) openedStream.close();
+        }
+    }
+
+    /** Makes the attributes of the current StAX START_ELEMENT available as sax {@link Attributes}
+     * so that {@link GpxReaderBase#newInstance(Attributes)} works for both parsers. */
+    private static class PullParserAttributes implements Attributes {
+        private final XMLStreamReader reader;
+
+        PullParserAttributes(XMLStreamReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public int getLength() {
+            return reader.getAttributeCount();
+        }
+
+        @Override
+        public String getURI(int index) {
+            final String uri = reader.getAttributeNamespace(index);
+            return (uri != null) ? uri : "";
+        }
+
+        @Override
+        public String getLocalName(int index) {
+            return reader.getAttributeLocalName(index);
+        }
+
+        @Override
+        public String getQName(int index) {
+            final String prefix = reader.getAttributePrefix(index);
+            final String localName = reader.getAttributeLocalName(index);
+            return ((prefix == null) || (prefix.length() == 0)) ? localName : prefix + ":" + localName;
+        }
+
+        @Override
+        public String getType(int index) {
+            return reader.getAttributeType(index);
+        }
+
+        @Override
+        public String getValue(int index) {
+            return reader.getAttributeValue(index);
+        }
+
+        @Override
+        public int getIndex(String uri, String localName) {
+            for (int i = reader.getAttributeCount() - 1; i >= 0; i--) {
+                if (localName.equals(reader.getAttributeLocalName(i)) && uri.equals(getURI(i))) return i;
+            }
+            return -1;
+        }
+
+        @Override
+        public int getIndex(String qName) {
+            for (int i = reader.getAttributeCount() - 1; i >= 0; i--) {
+                if (isQName(i, qName)) return i;
+            }
+            return -1;
+        }
+
+        @Override
+        public String getType(String uri, String localName) {
+            final int index = getIndex(uri, localName);
+            return (index >= 0) ? getType(index) : null;
+        }
+
+        @Override
+        public String getType(String qName) {
+            final int index = getIndex(qName);
+            return (index >= 0) ? getType(index) : null;
+        }
+
+        @Override
+        public String getValue(String uri, String localName) {
+            final int index = getIndex(uri, localName);
+            return (index >= 0) ? getValue(index) : null;
+        }
+
+        @Override
+        public String getValue(String qName) {
+            final int index = getIndex(qName);
+            return (index >= 0) ? getValue(index) : null;
+        }
+
+        /** true if attribute at index has the name qName. Does not allocate a qName string. */
+        private boolean isQName(int index, String qName) {
+            final String localName = reader.getAttributeLocalName(index);
+            final String prefix = reader.getAttributePrefix(index);
+            if ((prefix == null) || (prefix.length() == 0)) return qName.equals(localName);
+            return (qName.length() == prefix.length() + 1 + localName.length())
+                    && qName.startsWith(prefix) && (qName.charAt(prefix.length()) == ':')
+                    && qName.endsWith(localName);
+        }
+    }
+}
@@ -23,6 +23,7 @@ import java.util.ArrayList;
 import java.util.List;
 import org.xml.sax.InputSource;
 
+import de.k3b.geo.api.GeoPointColumns;
 import de.k3b.geo.api.GeoPointDto;
 import de.k3b.geo.api.IGeoInfoHandler;
 import de.k3b.geo.api.IGeoPointInfo;
@@ -95,7 +96,17 @@ public class GpxReader<T extends IGeoPointInfo> extends GpxReaderBase implements
      *
      */
     public List<T> getTracks(InputSource in) throws IOException {
-        track = new ArrayList<T>();
+        return getTracks(in, new ArrayList<T>());
+    }
+
+    /**
+     * Call the parser and add the points contained in the stream to result.
+     *
+     * @param result where the points are added to. If this is a {@link GeoPointColumns}
+     *               the values are copied without creating a new point for every item.
+     */
+    public List<T> getTracks(InputSource in, List<T> result) throws IOException {
+        track = result;
         parse(in);
         return track;
     }
@@ -103,7 +114,10 @@ public class GpxReader<T extends IGeoPointInfo> extends GpxReaderBase implements
     /** Is called for every completed gpx-trackpoint to collect the received tracks. */
     @Override
     public boolean onGeoInfo(IGeoPointInfo geoInfo) {
-        if (mReuse != null) {
+        if (track instanceof GeoPointColumns) {
+            // values are copied. no need to clone
+            ((GeoPointColumns) track).add(this.currentGeoPoint);
+        } else if (mReuse != null) {
             track.add((T) mReuse.clone());
         } else {
             track.add((T) this.currentGeoPoint);
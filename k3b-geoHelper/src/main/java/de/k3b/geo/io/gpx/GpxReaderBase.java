@@ -80,6 +80,107 @@ import de.k3b.util.IsoDateTimeParser;
 public class GpxReaderBase extends DefaultHandler {
     private static final Logger logger = LoggerFactory.getLogger(GpxReaderBase.class);
 
+    /** Alternative xml parser for {@link #setXmlParser(IXmlParser)} i.e. {@link GpxPullReader} */
+    public interface IXmlParser {
+        /** Parses in and calls the element callbacks of handler */
+        void parse(InputSource in, GpxReaderBase handler) throws IOException;
+    }
+
+    // fields that can be selected with {@link #setFields(int)}. Latitude/Longitude are always read.
+    public static final int FIELD_NAME = 1;
+    public static final int FIELD_DESCRIPTION = 2;
+    public static final int FIELD_LINK = 4;
+    public static final int FIELD_SYMBOL = 8;
+    public static final int FIELD_ID = 16;
+    public static final int FIELD_TIME = 32;
+    /** zoom and zoom-max */
+    public static final int FIELD_ZOOM = 64;
+    /** Default: read all fields */
+    public static final int FIELD_ALL = FIELD_NAME | FIELD_DESCRIPTION | FIELD_LINK | FIELD_SYMBOL
+            | FIELD_ID | FIELD_TIME | FIELD_ZOOM;
+
+    /** Elements that are always processed: lat/lon and structure (start/end of a point) */
+    private static final int FIELD_ALWAYS = 0x10000;
+
+    // ids for the xml-elements understood by the parser
+    private static final int ELEMENT_UNKNOWN = 0;
+    /** gpx trkpt or wpt */
+    private static final int ELEMENT_TRKPT = 1;
+    /** kml Placemark or poi */
+    private static final int ELEMENT_PLACEMARK = 2;
+    private static final int ELEMENT_WIKIMEDIA_PAGE = 3;
+    private static final int ELEMENT_WIKIMEDIA_COORDINATE = 4;
+    private static final int ELEMENT_WIKIMEDIA_IMAGE = 5;
+    private static final int ELEMENT_ICON_DEFINITION = 6;
+    private static final int ELEMENT_ICON_DEFINITION_URL = 7;
+    private static final int ELEMENT_ICON_REFERENCE_ID = 8;
+    private static final int ELEMENT_NAME = 9;
+    private static final int ELEMENT_DESCRIPTION = 10;
+    private static final int ELEMENT_POI_DESCRIPTION = 11;
+    private static final int ELEMENT_LINK = 12;
+    private static final int ELEMENT_SYMBOL = 13;
+    private static final int ELEMENT_ID = 14;
+    private static final int ELEMENT_TIME = 15;
+    private static final int ELEMENT_COORDINATES = 16;
+    private static final int ELEMENT_ZOOM = 17;
+    private static final int ELEMENT_ZOOM_MAX = 18;
+
+    /** element id to FIELD_XXX this element is needed for. */
+    private static final int[] ELEMENT_FIELDS = new int[ELEMENT_ZOOM_MAX + 1];
+    static {
+        ELEMENT_FIELDS[ELEMENT_UNKNOWN] = 0;
+        ELEMENT_FIELDS[ELEMENT_TRKPT] = FIELD_ALWAYS;
+        ELEMENT_FIELDS[ELEMENT_PLACEMARK] = FIELD_ALWAYS;
+        ELEMENT_FIELDS[ELEMENT_WIKIMEDIA_PAGE] = FIELD_ALWAYS;
+        ELEMENT_FIELDS[ELEMENT_WIKIMEDIA_COORDINATE] = FIELD_ALWAYS;
+        ELEMENT_FIELDS[ELEMENT_WIKIMEDIA_IMAGE] = FIELD_SYMBOL;
+        ELEMENT_FIELDS[ELEMENT_ICON_DEFINITION] = FIELD_ALWAYS;
+        ELEMENT_FIELDS[ELEMENT_ICON_DEFINITION_URL] = FIELD_SYMBOL;
+        ELEMENT_FIELDS[ELEMENT_ICON_REFERENCE_ID] = FIELD_SYMBOL;
+        ELEMENT_FIELDS[ELEMENT_NAME] = FIELD_NAME;
+        ELEMENT_FIELDS[ELEMENT_DESCRIPTION] = FIELD_DESCRIPTION;
+        ELEMENT_FIELDS[ELEMENT_POI_DESCRIPTION] = FIELD_DESCRIPTION;
+        ELEMENT_FIELDS[ELEMENT_LINK] = FIELD_LINK;
+        ELEMENT_FIELDS[ELEMENT_SYMBOL] = FIELD_SYMBOL;
+        ELEMENT_FIELDS[ELEMENT_ID] = FIELD_ID;
+        ELEMENT_FIELDS[ELEMENT_TIME] = FIELD_TIME;
+        ELEMENT_FIELDS[ELEMENT_COORDINATES] = FIELD_ALWAYS;
+        ELEMENT_FIELDS[ELEMENT_ZOOM] = FIELD_ZOOM;
+        ELEMENT_FIELDS[ELEMENT_ZOOM_MAX] = FIELD_ZOOM;
+    }
+
+    /** xml-element-name without namespace to element id. Names not contained are ELEMENT_UNKNOWN */
+    private static final Map<String, Integer> ELEMENT_IDS = new HashMap<>();
+    static {
+        ELEMENT_IDS.put(XmlDefinitions.GpxDef_11.TRKPT, ELEMENT_TRKPT);
+        ELEMENT_IDS.put(XmlDefinitions.GpxDef_10.WPT, ELEMENT_TRKPT);
+        ELEMENT_IDS.put(XmlDefinitions.KmlDef_22.PLACEMARK, ELEMENT_PLACEMARK);
+        ELEMENT_IDS.put(GeoUriDef.XML_ELEMENT_POI, ELEMENT_PLACEMARK);
+        ELEMENT_IDS.put(XmlDefinitions.WikimediaDef.PAGE, ELEMENT_WIKIMEDIA_PAGE);
+        ELEMENT_IDS.put(XmlDefinitions.WikimediaDef.COORDINATE, ELEMENT_WIKIMEDIA_COORDINATE);
+        ELEMENT_IDS.put(XmlDefinitions.WikimediaDef.IMAGE, ELEMENT_WIKIMEDIA_IMAGE);
+        ELEMENT_IDS.put(XmlDefinitions.KmlDef_22.ICON_DEFINITION, ELEMENT_ICON_DEFINITION);
+        ELEMENT_IDS.put(XmlDefinitions.KmlDef_22.ICON_DEFINITION_URL, ELEMENT_ICON_DEFINITION_URL);
+        ELEMENT_IDS.put(XmlDefinitions.KmlDef_22.ICON_REFERENCE_ID, ELEMENT_ICON_REFERENCE_ID);
+        ELEMENT_IDS.put(XmlDefinitions.GpxDef_11.NAME, ELEMENT_NAME);
+        ELEMENT_IDS.put(XmlDefinitions.WikimediaDef.NAME, ELEMENT_NAME);
+        ELEMENT_IDS.put(XmlDefinitions.GpxDef_11.DESC, ELEMENT_DESCRIPTION);
+        ELEMENT_IDS.put(XmlDefinitions.KmlDef_22.DESCRIPTION, ELEMENT_DESCRIPTION);
+        ELEMENT_IDS.put(XmlDefinitions.WikimediaDef.DESCRIPTION, ELEMENT_DESCRIPTION);
+        ELEMENT_IDS.put(GeoUriDef.DESCRIPTION, ELEMENT_POI_DESCRIPTION);
+        ELEMENT_IDS.put(XmlDefinitions.GpxDef_11.LINK, ELEMENT_LINK);
+        ELEMENT_IDS.put(XmlDefinitions.GpxDef_10.URL, ELEMENT_LINK);
+        ELEMENT_IDS.put(XmlDefinitions.GpxDef_11.IMAGE, ELEMENT_SYMBOL);
+        ELEMENT_IDS.put(GeoUriDef.ID, ELEMENT_ID);
+        ELEMENT_IDS.put(XmlDefinitions.GpxDef_11.TIME, ELEMENT_TIME);
+        ELEMENT_IDS.put(XmlDefinitions.KmlDef_22.TIMESTAMP_WHEN, ELEMENT_TIME);
+        ELEMENT_IDS.put(XmlDefinitions.KmlDef_22.TIMESPAN_BEGIN, ELEMENT_TIME);
+        ELEMENT_IDS.put(XmlDefinitions.KmlDef_22.COORDINATES, ELEMENT_COORDINATES);
+        ELEMENT_IDS.put(XmlDefinitions.KmlDef_22.COORDINATES2, ELEMENT_COORDINATES);
+        ELEMENT_IDS.put(GeoUriDef.ZOOM, ELEMENT_ZOOM);
+        ELEMENT_IDS.put(GeoUriDef.ZOOM_MAX, ELEMENT_ZOOM_MAX);
+    }
+
     /** Callback to process every point received */
     protected IGeoInfoHandler onGotNewWaypoint;
 
@@ -92,6 +193,21 @@ public class GpxReaderBase extends DefaultHandler {
     /** This member will receive value of current xml-element while parsing */
     private StringBuilder currentXmlElementBufer = new StringBuilder();
 
+    /** Name of the current xml-element without namespace. Used for error messages */
+    private String currentElementName = null;
+
+    /** If not null {@link #parse(InputSource)} uses this parser instead of the sax parser */
+    private IXmlParser xmlParser = null;
+
+    /** FIELD_XXX that are read. Always contains FIELD_ALWAYS */
+    private int fields = FIELD_ALL | FIELD_ALWAYS;
+
+    /** true: all fields are read. Element content is collected as before field selection existed */
+    private boolean allFields = true;
+
+    /** false: the content of the current xml-element is not needed and therefore not collected */
+    private boolean collectText = true;
+
     /** Used if xml contains geoUri attribute <poi geoUri='geo:...' /> to parse contained geo-uris..
      * it is Created on demand. */
     private GeoUri geoUriParser = null;
@@ -146,6 +262,10 @@ public class GpxReaderBase extends DefaultHandler {
      *
      */
     public void parse(InputSource in) throws IOException {
+        if (xmlParser != null) {
+            xmlParser.parse(in, this);
+            return;
+        }
         try {
             SAXParserFactory factory = SAXParserFactory.newInstance();
             // factory.setValidating(true);
@@ -158,6 +278,39 @@ public class GpxReaderBase extends DefaultHandler {
         }
     }
 
+    /**
+     * Selects the xml parser used by {@link #parse(InputSource)}.
+     *
+     * @param xmlParser i.e. {@link GpxPullReader} that skips the sax callback overhead.
+     *                  null (default): use the sax parser.
+     */
+    public GpxReaderBase setXmlParser(IXmlParser xmlParser) {
+        this.xmlParser = xmlParser;
+        return this;
+    }
+
+    /**
+     * Selects the fields that are read. Content of xml-elements for other fields is neither
+     * collected nor converted to String. This reduces allocations if only the geometry
+     * of huge tracks is needed.
+     *
+     * Note: values from the geoUri attribute (&lt;poi geoUri='geo:...' /&gt;) are not filtered.
+     *
+     * @param fields combination of FIELD_XXX. Latitude/Longitude are always read.
+     *               Default is {@link #FIELD_ALL}.
+     */
+    public GpxReaderBase setFields(int fields) {
+        this.fields = fields | FIELD_ALWAYS;
+        this.allFields = (fields & FIELD_ALL) == FIELD_ALL;
+        this.collectText = true;
+        return this;
+    }
+
+    /** true if field (FIELD_XXX) should be read */
+    protected boolean isField(int field) {
+        return (fields & field) != 0;
+    }
+
     /** Factory method: Returns an instance of an empty {@link de.k3b.geo.api.GeoPointDto} */
     protected GeoPointDto newInstance() {
         if (mReuse != null) return mReuse.clear();
@@ -192,28 +345,28 @@ public class GpxReaderBase extends DefaultHandler {
         String value = attributes.getValue(GeoUriDef.LAT_LON);
         if (value != null) GeoUri.parseLatOrLon(result, value);
 
-        value = attributes.getValue(GeoUriDef.NAME);
+        value = isField(FIELD_NAME) ? attributes.getValue(GeoUriDef.NAME) : null;
         if (value != null) result.setName(value);
 
-        value = attributes.getValue(GeoUriDef.DESCRIPTION);
+        value = isField(FIELD_DESCRIPTION) ? attributes.getValue(GeoUriDef.DESCRIPTION) : null;
         if (value != null) result.setDescription(value);
 
-        value = attributes.getValue(GeoUriDef.ID);
+        value = isField(FIELD_ID) ? attributes.getValue(GeoUriDef.ID) : null;
         if (value != null) result.setId(value);
 
-        value = attributes.getValue(GeoUriDef.LINK);
+        value = isField(FIELD_LINK) ? attributes.getValue(GeoUriDef.LINK) : null;
         if (value != null) result.setLink(value);
 
-        value = attributes.getValue(GeoUriDef.SYMBOL);
+        value = isField(FIELD_SYMBOL) ? attributes.getValue(GeoUriDef.SYMBOL) : null;
         if (value != null) result.setSymbol(value);
 
-        value = attributes.getValue(GeoUriDef.ZOOM);
+        value = isField(FIELD_ZOOM) ? attributes.getValue(GeoUriDef.ZOOM) : null;
         if (value != null) result.setZoomMin(GeoFormatter.parseZoom(value));
 
-        value = attributes.getValue(GeoUriDef.ZOOM_MAX);
+        value = isField(FIELD_ZOOM) ? attributes.getValue(GeoUriDef.ZOOM_MAX) : null;
         if (value != null) result.setZoomMax(GeoFormatter.parseZoom(value));
 
-        value = attributes.getValue(GeoUriDef.TIME);
+        value = isField(FIELD_TIME) ? attributes.getValue(GeoUriDef.TIME) : null;
         if (value != null) result.setTimeOfMeasurement(IsoDateTimeParser.parse(value));
 
         return result;
@@ -227,82 +380,149 @@ public class GpxReaderBase extends DefaultHandler {
     @Override
     public void startElement(String uri, String localName, String qName,
             Attributes attributes) throws SAXException {
-        String name = getElementName(localName, qName);
-        
         logger.debug("startElement {}-{}", localName, qName);
-        if (name.equals(XmlDefinitions.GpxDef_11.TRKPT) || name.equals(XmlDefinitions.GpxDef_10.WPT)) {
-            this.currentGeoPoint = this.newInstance(attributes);
-            final Double lat = getLatOrLong(attributes.getValue(XmlDefinitions.GpxDef_11.ATTR_LAT));
-            final Double lon = getLatOrLong(attributes.getValue(XmlDefinitions.GpxDef_11.ATTR_LON));
-            if (lat != null && lon != null) this.currentGeoPoint.setLatLon(lat, lon);
-        } else if (name.equals(XmlDefinitions.WikimediaDef.COORDINATE)) {
-            final Double lat = getLatOrLong(attributes.getValue(XmlDefinitions.GpxDef_11.ATTR_LAT));
-            final Double lon = getLatOrLong(attributes.getValue(XmlDefinitions.GpxDef_11.ATTR_LON));
-            if (lat != null && lon != null) this.currentGeoPoint.setLatLon(lat, lon);
-        } else if (name.equals(XmlDefinitions.WikimediaDef.IMAGE)) {
-            final String symbol = attributes.getValue(XmlDefinitions.WikimediaDef.ATTR_IMAGE);
-            if (symbol != null) this.currentGeoPoint.setSymbol(symbol);
-        } else if (name.equals(XmlDefinitions.KmlDef_22.ICON_DEFINITION)) {
-            currentIconDefinitionId = attributes.getValue(XmlDefinitions.KmlDef_22.ATTR_DEFINITION_ID);
-        } else if ((name.equals(XmlDefinitions.KmlDef_22.PLACEMARK)) || (name.equals(GeoUriDef.XML_ELEMENT_POI))) {
-            // start a new kml geo-item
-            this.currentGeoPoint = this.newInstance(attributes);
-        } else if (name.equals(XmlDefinitions.WikimediaDef.PAGE)) {
-            // start a new wikipedia geo-item
-            this.currentGeoPoint = this.newInstance(attributes);
-            this.currentGeoPoint.setId(attributes.getValue(XmlDefinitions.WikimediaDef.ATTR_ID));
-            this.currentGeoPoint.setName(attributes.getValue(XmlDefinitions.WikimediaDef.ATTR_TITLE));
-            this.currentGeoPoint.setLink(attributes.getValue(XmlDefinitions.WikimediaDef.ATTR_LINK));
-            final Date dateTime = IsoDateTimeParser.parse(attributes.getValue(XmlDefinitions.WikimediaDef.ATTR_TIME));
-            if (dateTime != null) {
-                this.currentGeoPoint.setTimeOfMeasurement(dateTime);
+        onStartElement(getElementName(localName, qName), attributes);
+    }
+
+    /** Start of the xml-element elementName without namespace prefix. Called by the sax parser and {@link IXmlParser} */
+    protected void onStartElement(String elementName, Attributes attributes) throws SAXException {
+        currentElementName = elementName;
+        onStartElement(getElementId(elementName), attributes);
+    }
+
+    /** Element name inspection/processig for sax and pull parser */
+    private void onStartElement(int element, Attributes attributes) {
+        switch (element) {
+            case ELEMENT_TRKPT: {
+                this.currentGeoPoint = this.newInstance(attributes);
+                final Double lat = getLatOrLong(attributes.getValue(XmlDefinitions.GpxDef_11.ATTR_LAT));
+                final Double lon = getLatOrLong(attributes.getValue(XmlDefinitions.GpxDef_11.ATTR_LON));
+                if (lat != null && lon != null) this.currentGeoPoint.setLatLon(lat, lon);
+                break;
+            }
+            case ELEMENT_WIKIMEDIA_COORDINATE: {
+                final Double lat = getLatOrLong(attributes.getValue(XmlDefinitions.GpxDef_11.ATTR_LAT));
+                final Double lon = getLatOrLong(attributes.getValue(XmlDefinitions.GpxDef_11.ATTR_LON));
+                if (lat != null && lon != null) this.currentGeoPoint.setLatLon(lat, lon);
+                break;
+            }
+            case ELEMENT_WIKIMEDIA_IMAGE: {
+                final String symbol = isField(FIELD_SYMBOL) ? attributes.getValue(XmlDefinitions.WikimediaDef.ATTR_IMAGE) : null;
+                if (symbol != null) this.currentGeoPoint.setSymbol(symbol);
+                break;
             }
-        } else if ((this.currentGeoPoint != null) && (name.equals(XmlDefinitions.GpxDef_11.LINK) || name.equals(XmlDefinitions.GpxDef_10.URL))) {
-            this.currentGeoPoint.setLink(attributes.getValue(XmlDefinitions.GpxDef_11.ATTR_LINK));
+            case ELEMENT_ICON_DEFINITION:
+                currentIconDefinitionId = attributes.getValue(XmlDefinitions.KmlDef_22.ATTR_DEFINITION_ID);
+                break;
+            case ELEMENT_PLACEMARK:
+                // start a new kml geo-item
+                this.currentGeoPoint = this.newInstance(attributes);
+                break;
+            case ELEMENT_WIKIMEDIA_PAGE: {
+                // start a new wikipedia geo-item
+                this.currentGeoPoint = this.newInstance(attributes);
+                if (isField(FIELD_ID)) this.currentGeoPoint.setId(attributes.getValue(XmlDefinitions.WikimediaDef.ATTR_ID));
+                if (isField(FIELD_NAME)) this.currentGeoPoint.setName(attributes.getValue(XmlDefinitions.WikimediaDef.ATTR_TITLE));
+                if (isField(FIELD_LINK)) this.currentGeoPoint.setLink(attributes.getValue(XmlDefinitions.WikimediaDef.ATTR_LINK));
+                final Date dateTime = isField(FIELD_TIME)
+                        ? IsoDateTimeParser.parse(attributes.getValue(XmlDefinitions.WikimediaDef.ATTR_TIME))
+                        : null;
+                if (dateTime != null) {
+                    this.currentGeoPoint.setTimeOfMeasurement(dateTime);
+                }
+                break;
+            }
+            case ELEMENT_LINK:
+                if ((this.currentGeoPoint != null) && isField(FIELD_LINK)) {
+                    this.currentGeoPoint.setLink(attributes.getValue(XmlDefinitions.GpxDef_11.ATTR_LINK));
+                }
+                break;
+            default:
+                break;
+        }
+        if (this.currentGeoPoint != null) {
+            currentXmlElementBufer.setLength(0);
+        }
+        if (!allFields) {
+            collectText = isField(ELEMENT_FIELDS[element]);
         }
-		if (this.currentGeoPoint != null) {
-			currentXmlElementBufer.setLength(0);
-		}
     }
 
     /** Java sax api implementation: Element value and attribut inspection/processig */
     @Override
     public void endElement(String uri, String localName, String qName)
             throws SAXException {
-        String name = getElementName(localName, qName);
-        String currentXmlElementContent = currentXmlElementBufer.toString();
-
-        logger.debug("endElement {} {} {}", localName, qName, currentXmlElementContent);
-
-        if (name.equals(XmlDefinitions.GpxDef_11.TRKPT)
-                || name.equals(XmlDefinitions.GpxDef_10.WPT)
-                || name.equals(XmlDefinitions.KmlDef_22.PLACEMARK)
-                || name.equals(GeoUriDef.XML_ELEMENT_POI)
-                || name.equals(XmlDefinitions.WikimediaDef.PAGE)) {
-            // end of new geo point
-            GeoUri.inferMissing(this.currentGeoPoint, this.currentGeoPoint.getDescription());
-            this.onGotNewWaypoint.onGeoInfo(this.currentGeoPoint);
-            this.currentGeoPoint = null;
-        } else if (name.equals(XmlDefinitions.KmlDef_22.ICON_DEFINITION)) {
-            // now outside of kml icon definition
-            currentIconDefinitionId = null;
-        } else if (currentIconDefinitionId != null && (name.equals(XmlDefinitions.KmlDef_22.ICON_DEFINITION_URL))) {
-                // // icon url inside kml icon definition
-            id2Symbol.put("#" + currentIconDefinitionId, currentXmlElementContent.trim() );
-        } else if (this.currentGeoPoint != null) {
-            if (name.equals(XmlDefinitions.GpxDef_11.NAME) || name.equals(XmlDefinitions.WikimediaDef.NAME)) {
-                this.currentGeoPoint.setName(currentXmlElementContent.trim());
-            } else if (name.equals(XmlDefinitions.GpxDef_11.DESC) || name.equals(XmlDefinitions.KmlDef_22.DESCRIPTION) || name.equals(XmlDefinitions.WikimediaDef.DESCRIPTION)) {
-                this.currentGeoPoint.setDescription(currentXmlElementContent.trim());
-            } else if (this.currentGeoPoint.getDescription() == null && name.equals(GeoUriDef.DESCRIPTION)) {
-                // <poi><d>theDescr with lowest priority</d></poi>
-                this.currentGeoPoint.setDescription(currentXmlElementContent.trim());
-            } else if ((null == this.currentGeoPoint.getLink()) && (name.equals(XmlDefinitions.GpxDef_11.LINK) || name.equals(XmlDefinitions.GpxDef_10.URL))) {
-                this.currentGeoPoint.setLink(currentXmlElementContent);
-            } else if (name.equals(XmlDefinitions.GpxDef_11.IMAGE)) {
-                this.currentGeoPoint.setSymbol(currentXmlElementContent);
-            } else if (name.equals(XmlDefinitions.KmlDef_22.ICON_REFERENCE_ID)) {
+        // currentXmlElementBufer.toString() is only called if debug is enabled
+        logger.debug("endElement {} {} {}", localName, qName, currentXmlElementBufer);
+        onEndElement(getElementName(localName, qName));
+    }
+
+    /** End of the xml-element elementName without namespace prefix. Called by the sax parser and {@link IXmlParser} */
+    protected void onEndElement(String elementName) throws SAXException {
+        currentElementName = elementName;
+        onEndElement(getElementId(elementName));
+    }
+
+    /** Element value inspection/processig for sax and pull parser.
+     * The element content is only converted to String for elements that are mapped. */
+    private void onEndElement(int element) throws SAXException {
+        if (!isField(ELEMENT_FIELDS[element])) return;
+
+        switch (element) {
+            case ELEMENT_UNKNOWN:
+                break;
+            case ELEMENT_TRKPT:
+            case ELEMENT_PLACEMARK:
+            case ELEMENT_WIKIMEDIA_PAGE:
+                // end of new geo point
+                GeoUri.inferMissing(this.currentGeoPoint, this.currentGeoPoint.getDescription());
+                this.onGotNewWaypoint.onGeoInfo(this.currentGeoPoint);
+                this.currentGeoPoint = null;
+                break;
+            case ELEMENT_ICON_DEFINITION:
+                // now outside of kml icon definition
+                currentIconDefinitionId = null;
+                break;
+            case ELEMENT_ICON_DEFINITION_URL:
+                if (currentIconDefinitionId != null) {
+                    // icon url inside kml icon definition
+                    id2Symbol.put("#" + currentIconDefinitionId, currentXmlElementBufer.toString().trim());
+                }
+                break;
+            default:
+                if (this.currentGeoPoint != null) {
+                    onEndGeoPointProperty(element);
+                }
+                break;
+        }
+    }
+
+    /** Processes the value of an element inside a geo point */
+    private void onEndGeoPointProperty(int element) throws SAXException {
+        switch (element) {
+            case ELEMENT_NAME:
+                this.currentGeoPoint.setName(currentXmlElementBufer.toString().trim());
+                break;
+            case ELEMENT_DESCRIPTION:
+                this.currentGeoPoint.setDescription(currentXmlElementBufer.toString().trim());
+                break;
+            case ELEMENT_POI_DESCRIPTION:
+                if (this.currentGeoPoint.getDescription() == null) {
+                    // <poi><d>theDescr with lowest priority</d></poi>
+                    this.currentGeoPoint.setDescription(currentXmlElementBufer.toString().trim());
+                }
+                break;
+            case ELEMENT_LINK:
+                if (null == this.currentGeoPoint.getLink()) {
+                    this.currentGeoPoint.setLink(currentXmlElementBufer.toString());
+                }
+                break;
+            case ELEMENT_SYMBOL:
+                this.currentGeoPoint.setSymbol(currentXmlElementBufer.toString());
+                break;
+            case ELEMENT_ICON_REFERENCE_ID: {
                 // kml icon reference
+                final String currentXmlElementContent = currentXmlElementBufer.toString();
                 String symbol = id2Symbol.get(currentXmlElementContent);
                 if (symbol == null && !currentXmlElementContent.startsWith("#")) {
                     // no predefined symbol found: assume the referencce is the symbol
@@ -311,39 +531,54 @@ public class GpxReaderBase extends DefaultHandler {
                 if (symbol != null) {
                     this.currentGeoPoint.setSymbol(symbol);
                 }
-            } else if (name.equals(GeoUriDef.ID)) {
-                this.currentGeoPoint.setId(currentXmlElementContent);
-            } else if (name.equals(XmlDefinitions.GpxDef_11.TIME) || name.equals(XmlDefinitions.KmlDef_22.TIMESTAMP_WHEN) || name.equals(XmlDefinitions.KmlDef_22.TIMESPAN_BEGIN)) {
+                break;
+            }
+            case ELEMENT_ID:
+                this.currentGeoPoint.setId(currentXmlElementBufer.toString());
+                break;
+            case ELEMENT_TIME: {
+                final String currentXmlElementContent = currentXmlElementBufer.toString();
                 final Date dateTime = IsoDateTimeParser.parse(currentXmlElementContent);
                 if (dateTime != null) {
                     this.currentGeoPoint.setTimeOfMeasurement(dateTime);
                 } else {
                     saxError("/gpx//time or /kml//when or /kml//begin: invalid time "
-                            + name +"=" + currentXmlElementContent);
+                            + currentElementName + "=" + currentXmlElementContent);
                 }
-
-            } else if ((name.equals(XmlDefinitions.KmlDef_22.COORDINATES) || name.equals(XmlDefinitions.KmlDef_22.COORDINATES2)) && currentXmlElementContent.length() > 0) {
-                // <coordinates>lon,lat,height blank lon,lat,height ...</coordinates>
-                try {
-                    String[] parts = currentXmlElementContent.split("[,\\s]");
-                    if ((parts != null) && (parts.length >= 2)) {
-                        // note KmlDef_22.COORDINATES use lon,lat reverse order
-                        Double lat = getLatOrLong(parts[1]);
-                        Double lon= getLatOrLong(parts[0]);
-                        if (!GeoPointDto.isEmpty(lat) && !GeoPointDto.isEmpty(lon)) {
-                            this.currentGeoPoint.setLatLon(lat, lon);
+                break;
+            }
+            case ELEMENT_COORDINATES:
+                if (currentXmlElementBufer.length() > 0) {
+                    // <coordinates>lon,lat,height blank lon,lat,height ...</coordinates>
+                    final String currentXmlElementContent = currentXmlElementBufer.toString();
+                    try {
+                        String[] parts = currentXmlElementContent.split("[,\\s]");
+                        if ((parts != null) && (parts.length >= 2)) {
+                            // note KmlDef_22.COORDINATES use lon,lat reverse order
+                            Double lat = getLatOrLong(parts[1]);
+                            Double lon= getLatOrLong(parts[0]);
+                            if (!GeoPointDto.isEmpty(lat) && !GeoPointDto.isEmpty(lon)) {
+                                this.currentGeoPoint.setLatLon(lat, lon);
+                            }
                         }
+                    } catch (NumberFormatException e) {
+                        saxError("/kml//Placemark/Point/coordinates>Expected: 'lon,lat,...' but got "
+                                + currentElementName + "=" + currentXmlElementContent);
                     }
-                } catch (NumberFormatException e) {
-                    saxError("/kml//Placemark/Point/coordinates>Expected: 'lon,lat,...' but got "
-                            + name +"=" + currentXmlElementContent);
                 }
-            } else if (name.equals(GeoUriDef.ZOOM) && currentGeoPoint.getZoomMin() <= 0  && currentXmlElementContent.length() > 0) {
-                currentGeoPoint.setZoomMin(Integer.parseInt(currentXmlElementContent));
-            } else if (name.equals(GeoUriDef.ZOOM_MAX) && currentGeoPoint.getZoomMax() <= 0  && currentXmlElementContent.length() > 0) {
-                currentGeoPoint.setZoomMax(Integer.parseInt(currentXmlElementContent));
-            }
-
+                break;
+            case ELEMENT_ZOOM:
+                if (currentGeoPoint.getZoomMin() <= 0 && currentXmlElementBufer.length() > 0) {
+                    currentGeoPoint.setZoomMin(Integer.parseInt(currentXmlElementBufer.toString()));
+                }
+                break;
+            case ELEMENT_ZOOM_MAX:
+                if (currentGeoPoint.getZoomMax() <= 0 && currentXmlElementBufer.length() > 0) {
+                    currentGeoPoint.setZoomMax(Integer.parseInt(currentXmlElementBufer.toString()));
+                }
+                break;
+            default:
+                break;
         }
     }
 
@@ -361,9 +596,10 @@ public class GpxReaderBase extends DefaultHandler {
     }
 
     /** Get element-name removing possible namespace prefix */
-    private String getElementName(String localName, String qName) {
-        if ((localName != null) && (localName.length() > 0))
+    protected String getElementName(String localName, String qName) {
+        if ((localName != null) && (localName.length() > 0) && (localName.indexOf(':') < 0))
             return localName;
+        if (qName == null) qName = localName;
         if (qName == null) return "";
 
         int delim = qName.indexOf(":");
@@ -372,11 +608,22 @@ public class GpxReaderBase extends DefaultHandler {
         return qName.substring(delim+1);
     }
 
+    /** Translates element-name without namespace to ELEMENT_XXX */
+    private static int getElementId(String name) {
+        final Integer id = ELEMENT_IDS.get(name);
+        return (id != null) ? id : ELEMENT_UNKNOWN;
+    }
+
     /** Java sax api implementation: Collect value while between start-element and end-element */
     @Override
     public void characters(char[] chars, int start, int length)
             throws SAXException {
-		if (this.currentGeoPoint != null || currentIconDefinitionId != null) {
+        onCharacters(chars, start, length);
+    }
+
+    /** Value of the current xml-element. Called by the sax parser and {@link IXmlParser} */
+    protected void onCharacters(char[] chars, int start, int length) {
+		if (collectText && (this.currentGeoPoint != null || currentIconDefinitionId != null)) {
 			currentXmlElementBufer.append(chars, start, length);
 		}
     }
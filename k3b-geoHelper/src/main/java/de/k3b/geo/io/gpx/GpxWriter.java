@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2026 by k3b.
+ *
+ * This file is part of k3b-geoHelper library.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.k3b.geo.io.gpx;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+
+import de.k3b.geo.api.GeoPointDto;
+import de.k3b.geo.api.IGeoPointInfo;
+
+/**
+ * Streaming gpx export: Writes header, points and footer incrementally so that
+ * the memory needed does not depend on the number of points.
+ *
+ * ```java
+ * GpxWriter gpxWriter = new GpxWriter(new FileOutputStream("track.gpx"));
+ * try {
+ *     for (IGeoPointInfo geo : points) {
+ *         gpxWriter.write(geo);
+ *     }
+ * } finally {
+ *     gpxWriter.close();
+ * }
+ * ```
+ *
+ * Same output as {@link GpxFormatter#toGpxXml(java.util.List)}:
+ * Points without lat/lon are skipped. If there are no points nothing is written.
+ */
+public class GpxWriter implements Closeable {
+    /** Size of the fixed write buffer in chars */
+    public static final int BUFFER_SIZE = 8192;
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private final Writer out;
+
+    /** reused for every point */
+    private final StringBuilder pointXml = new StringBuilder(512);
+    private char[] chars = new char[512];
+
+    private boolean headerWritten = false;
+    private boolean finished = false;
+
+    /** Writes utf-8 encoded gpx to out */
+    public GpxWriter(OutputStream out) {
+        this(new OutputStreamWriter(out, UTF8));
+    }
+
+    /** Writes gpx to out. out is buffered unless it is a {@link BufferedWriter} or {@link PrintWriter}. */
+    public GpxWriter(Writer out) {
+        this.out = ((out instanceof BufferedWriter) || (out instanceof PrintWriter))
+                ? out
+                : new BufferedWriter(out, BUFFER_SIZE);
+    }
+
+    /** Appends geoInfo to the output. Writes the gpx header before the first point. */
+    public GpxWriter write(IGeoPointInfo geoInfo) throws IOException {
+        if (finished) throw new IllegalStateException("GpxWriter.write() after finish()");
+        if (!GeoPointDto.isEmpty(geoInfo)) {
+            pointXml.setLength(0);
+            if (!headerWritten) {
+                pointXml.append(GpxFormatter.HEADER);
+                headerWritten = true;
+            }
+            GpxFormatter.toGpxDocumentItem(pointXml, geoInfo);
+            writePointXml();
+        }
+        return this;
+    }
+
+    /** Writes the gpx footer (if there were points) and flushes without closing the underlying writer. */
+    public void finish() throws IOException {
+        if (!finished) {
+            finished = true;
+            if (headerWritten) {
+                out.write(GpxFormatter.FOOTER);
+            }
+            out.flush();
+        }
+    }
+
+    /** Writes the gpx footer (if there were points) and closes the underlying writer. */
+    @Override
+    public void close() throws IOException {
+        try {
+            finish();
+        } finally {
+            out.close();
+        }
+    }
+
+    private void writePointXml() throws IOException {
+        final int length = pointXml.length();
+        if (chars.length < length) {
+            chars = new char[Math.max(length, chars.length * 2)];
+        }
+        pointXml.getChars(0, length, chars, 0);
+        out.write(chars, 0, length);
+    }
+}
@@ -55,6 +55,8 @@ import de.k3b.util.XmlUtil;
  */
 
 public class PoiFormatter {
+    /** @deprecated not thread safe. Use {@link GeoFormatter#formatDate(Date)} instead. */
+    @Deprecated
     public static final DateFormat TIME_FORMAT
             = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'", Locale.US);
 
@@ -21,7 +21,6 @@ package de.k3b.util;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.TimeZone;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
@@ -39,59 +38,127 @@ public class IsoDateTimeParser {
             = Pattern.compile("((\\d{4})-(\\d{2})-(\\d{2})T(\\d{2}):(\\d{2}):(\\d{2})(?:[\\.,](\\d{1,3}))?(Z|[\\+-]\\d{2}(?::?\\d{2})?Z?)?)");
     //                            year     month     day T  hour    minute    sec             millisec   Z or +/-  hours  :   minutes
 
-    private static final int YEAR = 0;
-    private static final int MONTH = 1;
-    private static final int DAY = 2;
-    private static final int HOUR = 3;
-    private static final int MINUTE = 4;
-    private static final int SECOND = 5;
-    private static final int FRACTIONAL_SECONDS = 6;
-    private static final int TIMEZONE = 7;
+    private static final long MILLIS_PER_MINUTE = 60 * 1000L;
+
+    /** Before the gregorian cutover {@link Calendar} uses the julian calendar */
+    private static final int FIRST_GREGORIAN_YEAR = 1583;
 
     /**
      * Similar to
      * SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSZ").parse()
      * where SSS (millisecs) and Z(timezone in hours i.e. "-01:00") are optional.
      *
+     * Same syntax as {@link #ISO8601_FRACTIONAL_PATTERN} but scanned char by char
+     * without regex, {@link Calendar} and {@link TimeZone} lookup.
+     * Milliseconds are checked but ignored.
+     *
      * returns null if not a valid date */
     public static Date parse(String dateString) {
-        if (dateString != null) {
-            final Matcher matcher = ISO8601_FRACTIONAL_PATTERN.matcher(dateString);
-            if (matcher.matches()) {
-                try {
-                    // +2: matcher.group(0) returns the whole expression, matcher.group(1) is overall "()"
-                    // matchingGroup starts with 2
-                    return toDate(matcher.group(YEAR + 2),
-                            matcher.group(MONTH + 2),
-                            matcher.group(DAY + 2),
-                            matcher.group(HOUR + 2),
-                            matcher.group(MINUTE + 2),
-                            matcher.group(SECOND + 2),
-                            matcher.group(FRACTIONAL_SECONDS + 2),
-                            matcher.group(TIMEZONE + 2));
-                } catch (NumberFormatException nfe) {
-                }
+        if ((dateString == null) || (dateString.length() < 19)) return null;
+
+        final int year = digits(dateString, 0, 4);
+        final int month = digits(dateString, 5, 2);
+        final int day = digits(dateString, 8, 2);
+        final int hour = digits(dateString, 11, 2);
+        final int minute = digits(dateString, 14, 2);
+        final int second = digits(dateString, 17, 2);
+        if ((year < 0) || (month < 0) || (day < 0) || (hour < 0) || (minute < 0) || (second < 0)
+                || (dateString.charAt(4) != '-') || (dateString.charAt(7) != '-')
+                || (dateString.charAt(10) != 'T')
+                || (dateString.charAt(13) != ':') || (dateString.charAt(16) != ':')) {
+            return null;
+        }
+
+        final int length = dateString.length();
+        int pos = 19;
+
+        // optional fraction of seconds with 1 to 3 digits
+        if ((pos < length) && ((dateString.charAt(pos) == '.') || (dateString.charAt(pos) == ','))) {
+            final int fractionStart = ++pos;
+            while ((pos < length) && isDigit(dateString.charAt(pos))) pos++;
+            final int fractionLength = pos - fractionStart;
+            if ((fractionLength < 1) || (fractionLength > 3)) return null;
+        }
+
+        if (pos == length) {
+            // No timezone : use local
+            return toDate(year, month, day, hour, minute, second, 0, TimeZone.getDefault());
+        }
+
+        final long offsetMillis;
+        final char zone = dateString.charAt(pos);
+        if (zone == 'Z') {
+            if (pos + 1 != length) return null;
+            offsetMillis = 0;
+        } else if ((zone == '+') || (zone == '-')) {
+            final int offsetHours = digits(dateString, pos + 1, 2);
+            if (offsetHours < 0) return null;
+            pos += 3;
+            int offsetMinutes = 0;
+            if ((pos < length) && (dateString.charAt(pos) != 'Z')) {
+                if (dateString.charAt(pos) == ':') pos++;
+                offsetMinutes = digits(dateString, pos, 2);
+                if (offsetMinutes < 0) return null;
+                pos += 2;
+            }
+            boolean zulu = false;
+            if ((pos < length) && (dateString.charAt(pos) == 'Z')) {
+                zulu = true;
+                pos++;
             }
+            if (pos != length) return null;
+
+            // same as TimeZone.getTimeZone("GMT" + zone) that falls back to GMT for
+            // illegal ids like "GMT+01:00Z" or "GMT+24:00"
+            if (zulu || (offsetHours > 23) || (offsetMinutes > 59)) {
+                offsetMillis = 0;
+            } else {
+                final long offset = (offsetHours * 60L + offsetMinutes) * MILLIS_PER_MINUTE;
+                offsetMillis = (zone == '-') ? -offset : offset;
+            }
+        } else {
+            return null;
         }
-        return null;
+
+        if (year < FIRST_GREGORIAN_YEAR) {
+            return new Date(toDate(year, month, day, hour, minute, second, 0, TimeZone.getTimeZone("GMT")).getTime()
+                    - offsetMillis);
+        }
+
+        // out of range values (i.e. month 13 or hour 24) overflow into the next unit like in lenient Calendar
+        final long minutes = (toEpochDay(year, month, day) * 24 + hour) * 60 + minute;
+        return new Date((minutes * 60 + second) * 1000 - offsetMillis);
     }
 
-    /**
-     * Convert the given timestamp parameters into a number of milliseconds
-     * @param dateFragments year month day hour minute seconds fractionsOfASecond timezone
-     * @return number of milliseconds
-     */
-    private static Date toDate(String... dateFragments)
-    {
-        return toDate(get(dateFragments, YEAR, -1),
-                get(dateFragments, MONTH, -1),
-                get(dateFragments, DAY, -1),
-                get(dateFragments, HOUR, -1),
-                get(dateFragments, MINUTE, -1),
-                get(dateFragments, SECOND, -1),
-                getFraction(dateFragments),
-                getTimeZone(dateFragments));
+    /** Days since 1970-01-01 in the proleptic gregorian calendar. month 1..12 (or more), day 1..31 (or more) */
+    static long toEpochDay(int year, int month, int day) {
+        // month 0 is december of the previous year, month 13 january of the next year
+        long y = year + ((month > 0) ? ((month - 1) / 12) : ((month - 12) / 12));
+        final int m = ((month - 1) % 12 + 12) % 12 + 1;
 
+        // see http://howardhinnant.github.io/date_algorithms.html#days_from_civil
+        if (m <= 2) y--;
+        final long era = ((y >= 0) ? y : (y - 399)) / 400;
+        final long yearOfEra = y - era * 400;
+        final long dayOfYear = (153 * ((m > 2) ? (m - 3) : (m + 9)) + 2) / 5;
+        final long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468 + (day - 1);
+    }
+
+    /** Returns the value of count digits starting at start or -1 if there are no digits */
+    private static int digits(String value, int start, int count) {
+        if (start + count > value.length()) return -1;
+        int result = 0;
+        for (int i = start; i < start + count; i++) {
+            final char c = value.charAt(i);
+            if (!isDigit(c)) return -1;
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    private static boolean isDigit(char c) {
+        return (c >= '0') && (c <= '9');
     }
 
     /** Convert params year, month, ... to a {@link Date} */
@@ -109,50 +176,4 @@ public class IsoDateTimeParser {
         cal.setTimeZone(timeZone);
         return new Date(cal.getTimeInMillis());
     }
-
-    /** Get (optional) milliseconds from dateFragments */
-    private static int getFraction(String[] dateFragments) {
-        String inFraction = get(dateFragments, FRACTIONAL_SECONDS, null);
-        int millis = 0;
-        if (inFraction != null)
-        {
-            try {
-                millis = Integer.parseInt((inFraction+"000").substring(3));
-            }
-            catch (NumberFormatException nfe) {} // ignore errors, millis stay at 0
-        }
-        return millis;
-    }
-
-    /** Returns values[paramNo] or notFoundValue if result is empty or if values is too short */
-    private static String get(String[] values, int paramNo, String notFoundValue) {
-        if (paramNo >= values.length) return notFoundValue;
-        String strValue = values[paramNo];
-        return ((strValue != null) && (strValue.length() > 0)) ? strValue : null;
-    }
-
-    /** Returns int of values[paramNo] or notFoundValue if result is empty or if values is too short */
-    private static int get(String[] values, int paramNo, int notFoundValue) throws NumberFormatException {
-        String strValue = get(values, paramNo, null);
-        if (strValue != null) {
-            return Integer.parseInt(strValue);
-        }
-        return notFoundValue;
-    }
-
-    /** Get non mandatory {@link TimeZone} from dateFragments */
-    private static TimeZone getTimeZone(String[] values) {
-        String inTimezone = get(values, TIMEZONE, null);
-        if (inTimezone == null) {
-            // No timezone : use local
-            return TimeZone.getDefault();
-        } else if ("Z".equals(inTimezone)) {
-            // timezone "Z" : use zulu
-            return TimeZone.getTimeZone("GMT");
-        } else {
-            // Timezone specified, pass to calendar
-            return TimeZone.getTimeZone("GMT" + inTimezone);
-        }
-
-    }
 }
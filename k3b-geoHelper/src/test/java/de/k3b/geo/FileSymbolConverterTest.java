@@ -0,0 +1,97 @@
+package de.k3b.geo;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import de.k3b.geo.api.GeoPointDto;
+import de.k3b.util.Unzip;
+
+import static org.junit.Assert.*;
+
+public class FileSymbolConverterTest {
+    private static final File OUTDIR = new File("./build/testresults/FileSymbolConverterTest");
+
+    @BeforeClass
+    public static void createFiles() throws IOException {
+        Unzip.deleteRecursive(OUTDIR);
+        new File(OUTDIR, "images/small").mkdirs();
+        new FileOutputStream(new File(OUTDIR, "root.png")).close();
+        new FileOutputStream(new File(OUTDIR, "images/Icon.png")).close();
+        new FileOutputStream(new File(OUTDIR, "images/small/icon.png")).close();
+    }
+
+    @Test
+    public void shouldListEveryDirectoryOnce() throws Exception {
+        CountingFileSymbolConverter converter = new CountingFileSymbolConverter(null);
+        assertEquals("lazy", 0, converter.listCount.size());
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(uri("images/small/icon.png"), convert(converter, "images/small/icon.png"));
+            assertEquals(uri("images/Icon.png"), convert(converter, "IMAGES/icon.png"));
+            assertEquals(uri("root.png"), convert(converter, "root.png"));
+            assertEquals("missing", "images/missing.png", convert(converter, "images/missing.png"));
+            assertEquals("missing dir", "nodir/missing.png", convert(converter, "nodir/missing.png"));
+        }
+
+        for (Map.Entry<File, Integer> listCount : converter.listCount.entrySet()) {
+            assertEquals(listCount.getKey().toString(), 1, listCount.getValue().intValue());
+        }
+        assertEquals(3, converter.listCount.size());
+    }
+
+    @Test
+    public void shouldReuseSerializedIndex() throws Exception {
+        CountingFileSymbolConverter first = new CountingFileSymbolConverter(null);
+        convert(first, "images/small/icon.png");
+        convert(first, "images/missing.png");
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(first.getIndex());
+        out.close();
+        SymbolConverterBase.Index index = (SymbolConverterBase.Index) new ObjectInputStream(
+                new ByteArrayInputStream(bytes.toByteArray())).readObject();
+
+        CountingFileSymbolConverter second = new CountingFileSymbolConverter(index);
+        assertEquals(uri("images/small/icon.png"), convert(second, "images/small/icon.png"));
+        assertEquals(uri("images/Icon.png"), convert(second, "images/icon.png"));
+        assertEquals("images/missing.png", convert(second, "images/missing.png"));
+        assertEquals("root listed by first", uri("root.png"), convert(second, "root.png"));
+        assertEquals("no directory listed", 0, second.listCount.size());
+    }
+
+    private static String convert(SymbolConverterBase<File> converter, String symbol) {
+        GeoPointDto point = new GeoPointDto().setSymbol(symbol);
+        converter.onGeoInfo(point);
+        return point.getSymbol();
+    }
+
+    private static String uri(String path) {
+        return "file://" + new File(OUTDIR, path).getAbsolutePath();
+    }
+
+    private static class CountingFileSymbolConverter extends FileSymbolConverter {
+        private final Map<File, Integer> listCount = new HashMap<>();
+
+        CountingFileSymbolConverter(SymbolConverterBase.Index index) {
+            super(OUTDIR, null, index, null);
+        }
+
+        @Override
+        protected File[] listFiles(File dir) {
+            Integer count = listCount.get(dir);
+            listCount.put(dir, (count == null) ? 1 : count + 1);
+            return super.listFiles(dir);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package de.k3b.geo;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import de.k3b.geo.api.GeoPointDto;
+import de.k3b.geo.api.IGeoInfoHandler;
+import de.k3b.geo.api.IGeoPointInfo;
+import de.k3b.util.Unzip;
+
+import static org.junit.Assert.*;
+
+public class GeoLoadServiceTest {
+    private static final File OUTDIR = new File("./build/testresults/GeoLoadServiceTest");
+    private static final File KMZ = new File(OUTDIR, "test.kmz");
+    private static final String KML = "<kml><Document>"
+            + "<Placemark><name>p1</name><styleUrl>images/icon.png</styleUrl>"
+            + "<Point><coordinates>8.7,53.1,0</coordinates></Point></Placemark>"
+            + "<Placemark><name>p2</name><styleUrl>images/ICON.png</styleUrl>"
+            + "<Point><coordinates>8.8,53.2,0</coordinates></Point></Placemark>"
+            + "</Document></kml>";
+
+    @BeforeClass
+    public static void createFiles() throws IOException {
+        Unzip.deleteRecursive(OUTDIR);
+        OUTDIR.mkdirs();
+
+        ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(KMZ));
+        zip.putNextEntry(new ZipEntry("readme.txt"));
+        zip.write("not a geo file".getBytes("UTF-8"));
+        zip.putNextEntry(new ZipEntry("kmz/doc.kml"));
+        zip.write(KML.getBytes("UTF-8"));
+        zip.putNextEntry(new ZipEntry("kmz/images/icon.png"));
+        zip.write(new byte[]{1, 2, 3});
+        zip.putNextEntry(new ZipEntry("kmz/images/unused.png"));
+        zip.write(new byte[]{4, 5});
+        zip.close();
+    }
+
+    @Test
+    public void shouldLoadZipWithoutUnzipping() throws IOException {
+        File symbolDir = new File(OUTDIR, "symbols");
+        List<IGeoPointInfo> points = new ArrayList<>();
+        GeoLoadService.loadGeoPointDtos(KMZ, symbolDir, collect(points));
+
+        assertEquals(2, points.size());
+        File icon = new File(symbolDir, "kmz/images/icon.png");
+        assertEquals("file://" + icon.getAbsolutePath(), points.get(0).getSymbol());
+        assertEquals(points.get(0).getSymbol(), points.get(1).getSymbol());
+        assertEquals(3, icon.length());
+        assertFalse("unused symbol not extracted", new File(symbolDir, "kmz/images/unused.png").exists());
+        assertFalse("readme not extracted", new File(symbolDir, "readme.txt").exists());
+    }
+
+    @Test
+    public void shouldNotReuseSymbolOfOtherZipWithSamePath() throws IOException {
+        File symbolDir = new File(OUTDIR, "sharedSymbols");
+        File otherKmz = new File(OUTDIR, "other.kmz");
+        ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(otherKmz));
+        zip.putNextEntry(new ZipEntry("kmz/doc.kml"));
+        zip.write(KML.getBytes("UTF-8"));
+        zip.putNextEntry(new ZipEntry("kmz/images/icon.png"));
+        // same size as icon.png in KMZ
+        zip.write(new byte[]{7, 8, 9});
+        zip.close();
+
+        File icon = new File(symbolDir, "kmz/images/icon.png");
+        GeoLoadService.loadGeoPointDtos(KMZ, symbolDir, collect(new ArrayList<IGeoPointInfo>()));
+        assertEquals(1, readAll(icon)[0]);
+
+        GeoLoadService.loadGeoPointDtos(otherKmz, symbolDir, collect(new ArrayList<IGeoPointInfo>()));
+        assertEquals(7, readAll(icon)[0]);
+    }
+
+    @Test
+    public void shouldStreamFirstGeoEntry() throws IOException {
+        ByteArrayOutputStream zipContent = new ByteArrayOutputStream();
+        ZipOutputStream zip = new ZipOutputStream(zipContent);
+        zip.putNextEntry(new ZipEntry("readme.txt"));
+        zip.write("not a geo file".getBytes("UTF-8"));
+        zip.putNextEntry(new ZipEntry("doc.kml"));
+        zip.write(KML.getBytes("UTF-8"));
+        zip.close();
+
+        InputStream in = GeoLoadService.openGeoInputStream(new ByteArrayInputStream(zipContent.toByteArray()), null);
+        List<IGeoPointInfo> points = new ArrayList<>();
+        GeoLoadService.loadGeoPointDtos(in, collect(points));
+        assertEquals(2, points.size());
+        assertEquals("images/icon.png", points.get(0).getSymbol());
+
+        in = GeoLoadService.openGeoInputStream(new ByteArrayInputStream(KML.getBytes("UTF-8")), null);
+        points.clear();
+        GeoLoadService.loadGeoPointDtos(in, collect(points));
+        assertEquals("not zipped", 2, points.size());
+    }
+
+    private static byte[] readAll(File file) throws IOException {
+        InputStream in = new FileInputStream(file);
+        try {
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            for (int read = in.read(buffer); read > -1; read = in.read(buffer)) {
+                content.write(buffer, 0, read);
+            }
+            return content.toByteArray();
+        } finally {
+            in.close();
+        }
+    }
+
+    private static IGeoInfoHandler collect(final List<IGeoPointInfo> points) {
+        return new IGeoInfoHandler() {
+            @Override
+            public boolean onGeoInfo(IGeoPointInfo geoInfo) {
+                points.add(((GeoPointDto) geoInfo).clone());
+                return true;
+            }
+        };
+    }
+}
@@ -0,0 +1,120 @@
+package de.k3b.geo;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import de.k3b.geo.api.GeoPointDto;
+import de.k3b.geo.api.IGeoInfoHandler;
+import de.k3b.geo.api.IGeoPointInfo;
+import de.k3b.geo.io.gpx.GpxFormatter;
+import de.k3b.util.Unzip;
+
+import static org.junit.Assert.*;
+
+public class ParallelGeoLoadServiceTest {
+    private static final File OUTDIR = new File("./build/testresults/ParallelGeoLoadServiceTest");
+    private static final int FILE_COUNT = 12;
+    private static final int POINT_COUNT = 50;
+
+    @BeforeClass
+    public static void createFiles() throws IOException {
+        Unzip.deleteRecursive(OUTDIR);
+        OUTDIR.mkdirs();
+        for (int file = 0; file < FILE_COUNT; file++) {
+            write(new FileOutputStream(new File(OUTDIR, "f" + file + GeoConfig.EXT_GPX)), createGpx("f" + file));
+        }
+
+        ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(new File(OUTDIR, "zipped" + GeoConfig.EXT_GPZ)));
+        zip.putNextEntry(new ZipEntry("z1.gpx"));
+        zip.write(createGpx("z1").getBytes("UTF-8"));
+        zip.putNextEntry(new ZipEntry("readme.txt"));
+        zip.write("not a geo file".getBytes("UTF-8"));
+        zip.putNextEntry(new ZipEntry("z2.gpx"));
+        zip.write(createGpx("z2").getBytes("UTF-8"));
+        zip.close();
+
+        write(new FileOutputStream(new File(OUTDIR, "broken" + GeoConfig.EXT_KML)), "<kml><Placemark>");
+        write(new FileOutputStream(new File(OUTDIR, "ignored.txt")), "not a geo file");
+    }
+
+    @Test
+    public void shouldLoadAllFilesInFileOrder() throws Exception {
+        final Map<String, List<String>> file2names = new HashMap<>();
+        IGeoInfoHandler sink = new IGeoInfoHandler() {
+            @Override
+            public boolean onGeoInfo(IGeoPointInfo geoInfo) {
+                String name = geoInfo.getName();
+                String file = name.substring(0, name.indexOf('-'));
+                synchronized (file2names) {
+                    List<String> names = file2names.get(file);
+                    if (names == null) {
+                        names = new ArrayList<>();
+                        file2names.put(file, names);
+                    }
+                    names.add(name);
+                }
+                return true;
+            }
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<ParallelGeoLoadService.FileStatistics> statistics;
+        try {
+            statistics = new ParallelGeoLoadService(executor).load(OUTDIR, sink);
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals("files", FILE_COUNT + 2, statistics.size());
+        int errors = 0;
+        for (ParallelGeoLoadService.FileStatistics file : statistics) {
+            if (file.getError() != null) {
+                assertEquals("broken.kml", file.getFile().getName());
+                errors++;
+            } else if (file.getFile().getName().equals("zipped.gpz")) {
+                assertEquals(2 * POINT_COUNT, file.getPointCount());
+            } else {
+                assertEquals(POINT_COUNT, file.getPointCount());
+            }
+        }
+        assertEquals("errors", 1, errors);
+
+        assertEquals(FILE_COUNT + 2, file2names.size());
+        for (Map.Entry<String, List<String>> file : file2names.entrySet()) {
+            List<String> names = file.getValue();
+            assertEquals(file.getKey(), POINT_COUNT, names.size());
+            for (int i = 0; i < POINT_COUNT; i++) {
+                assertEquals(file.getKey() + "-" + i, names.get(i));
+            }
+        }
+    }
+
+    private static String createGpx(String file) {
+        List<IGeoPointInfo> points = new ArrayList<>();
+        for (int i = 0; i < POINT_COUNT; i++) {
+            points.add(new GeoPointDto().setLatLon(50 + i * 0.01, 10).setName(file + "-" + i));
+        }
+        return GpxFormatter.toGpxXml(points);
+    }
+
+    private static void write(OutputStream out, String content) throws IOException {
+        try {
+            out.write(content.getBytes("UTF-8"));
+        } finally {
+            out.close();
+        }
+    }
+}
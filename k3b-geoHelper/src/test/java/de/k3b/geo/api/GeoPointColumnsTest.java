@@ -0,0 +1,82 @@
+package de.k3b.geo.api;
+
+import org.junit.Test;
+import org.xml.sax.InputSource;
+
+import java.io.StringReader;
+import java.util.Date;
+import java.util.List;
+
+import de.k3b.geo.io.gpx.GpxReader;
+
+import static org.junit.Assert.*;
+
+public class GeoPointColumnsTest {
+
+    @Test
+    public void shouldReturnAddedValues() {
+        GeoPointColumns sut = new GeoPointColumns(1);
+        GeoPointDto reuse = new GeoPointDto();
+        sut.add(reuse.setLatLon(52.51, 13.38).setName("Berlin").setId("0815").setZoomMin(5).setZoomMax(17)
+                .setTimeOfMeasurement(new Date(123456789L)));
+        sut.add(reuse.clear().setLatLon(-1.5, -2.5));
+
+        assertEquals(2, sut.size());
+        IGeoPointInfo first = sut.get(0);
+        assertEquals(52.51, first.getLatitude(), 0.0);
+        assertEquals(13.38, first.getLongitude(), 0.0);
+        assertEquals("Berlin", first.getName());
+        assertEquals("0815", first.getId());
+        assertEquals(5, first.getZoomMin());
+        assertEquals(17, first.getZoomMax());
+        assertEquals(new Date(123456789L), first.getTimeOfMeasurement());
+
+        IGeoPointInfo second = sut.get(1);
+        assertEquals(-1.5, second.getLatitude(), 0.0);
+        assertNull(second.getName());
+        assertNull(second.getTimeOfMeasurement());
+        assertEquals(IGeoPointInfo.NO_ZOOM, second.getZoomMin());
+        assertEquals(IGeoPointInfo.NO_ZOOM, second.getZoomMax());
+    }
+
+    @Test
+    public void shouldFindItems() {
+        GeoPointColumns sut = new GeoPointColumns();
+        sut.add(new GeoPointDto().setLatLon(1, 2).setId("a"));
+        sut.add(new GeoPointDto().setLatLon(3, 4));
+        sut.add(new GeoPointDto().setLatLon(5, 6).setId("c"));
+
+        assertTrue(sut.get(0).equals(sut.get(0)));
+        assertEquals(sut.get(0).hashCode(), sut.get(0).hashCode());
+        assertFalse(sut.get(0).equals(sut.get(2)));
+        assertEquals(0, sut.indexOf(sut.get(0)));
+        assertEquals(1, sut.indexOf(sut.get(1)));
+        assertEquals(2, sut.indexOf(new GeoPointDto().setId("c")));
+        assertTrue(sut.contains(new GeoPointDto().setLatLon(3, 4)));
+        assertEquals(sut.get(2), new GeoPointDto(sut.get(2)));
+    }
+
+    @Test
+    public void shouldStoreEqualStringsOnce() {
+        GeoPointColumns sut = new GeoPointColumns();
+        for (int i = 0; i < 100; i++) {
+            sut.add(new GeoPointDto().setLatLon(i, i).setSymbol("symbol.png").setName("name" + (i % 10)));
+        }
+        assertEquals(11, sut.getStringCount());
+        assertEquals("name7", sut.get(57).getName());
+    }
+
+    @Test
+    public void shouldFillFromGpxReader() throws Exception {
+        String gpx = "<gpx><trk><trkseg>"
+                + "<trkpt lat='53.1' lon='8.7'><time>2015-02-10T08:04:45Z</time></trkpt>"
+                + "<trkpt lat='53.2' lon='8.8'><name>second</name></trkpt>"
+                + "</trkseg></trk></gpx>";
+        GpxReader<IGeoPointInfo> reader = new GpxReader<IGeoPointInfo>();
+        List<IGeoPointInfo> points = reader.getTracks(new InputSource(new StringReader(gpx)), new GeoPointColumns());
+
+        assertEquals(2, points.size());
+        assertNotNull(points.get(0).getTimeOfMeasurement());
+        assertEquals("second(53.2,8.8)", GeoPointDto.toString(points.get(1)));
+    }
+}
@@ -0,0 +1,84 @@
+package de.k3b.geo.api;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import de.k3b.geo.io.GeoUri;
+
+import static org.junit.Assert.*;
+
+public class GeoSpatialIndexTest {
+    private static List<GeoPointDto> createPoints(int count) {
+        Random random = new Random(4711);
+        List<GeoPointDto> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(new GeoPointDto().setLatLon(53 + random.nextDouble(), 9 + random.nextDouble()).setId("" + i));
+        }
+        return result;
+    }
+
+    @Test
+    public void queryShouldFindSameAsLinearScan() {
+        List<GeoPointDto> points = createPoints(10000);
+        points.add(new GeoPointDto().setId("no lat lon"));
+        GeoSpatialIndex<GeoPointDto> sut = new GeoSpatialIndex<>(points);
+        assertEquals(10000, sut.size());
+
+        GeoPointDto[] area = new GeoUri(GeoUri.OPT_DEFAULT).fromUri("geoarea:53.6,9.2,53.4,9.5",
+                new GeoPointDto[]{new GeoPointDto(), new GeoPointDto()});
+
+        HashSet<GeoPointDto> expected = new HashSet<>();
+        for (GeoPointDto point : points) {
+            if ((point.getLatitude() >= 53.4) && (point.getLatitude() <= 53.6)
+                    && (point.getLongitude() >= 9.2) && (point.getLongitude() <= 9.5)) {
+                expected.add(point);
+            }
+        }
+        List<GeoPointDto> result = sut.query(area[0], area[1]);
+        assertEquals(expected.size(), result.size());
+        assertEquals(expected, new HashSet<>(result));
+    }
+
+    @Test
+    public void nearestShouldFindClosestFirst() {
+        List<GeoPointDto> points = createPoints(10000);
+        GeoSpatialIndex<GeoPointDto> sut = new GeoSpatialIndex<>(points);
+
+        final double lat = 53.5;
+        final double lon = 9.5;
+        final double lonScale = Math.cos(Math.toRadians(lat));
+        List<GeoPointDto> result = sut.nearest(lat, lon, 5);
+        assertEquals(5, result.size());
+
+        // no point that is not in the result may be closer than the last result
+        double maxResultDistance = distance(result.get(4), lat, lon, lonScale);
+        double previous = 0;
+        for (GeoPointDto point : result) {
+            double distance = distance(point, lat, lon, lonScale);
+            assertTrue(distance >= previous);
+            previous = distance;
+        }
+        for (GeoPointDto point : points) {
+            if (!result.contains(point)) {
+                assertTrue(distance(point, lat, lon, lonScale) >= maxResultDistance);
+            }
+        }
+    }
+
+    @Test
+    public void shouldHandleEmptyIndex() {
+        GeoSpatialIndex<GeoPointDto> sut = new GeoSpatialIndex<>(new ArrayList<GeoPointDto>());
+        assertEquals(0, sut.query(0, 0, 90, 180).size());
+        assertEquals(0, sut.nearest(0, 0, 3).size());
+    }
+
+    private static double distance(IGeoPointInfo point, double lat, double lon, double lonScale) {
+        double dLat = point.getLatitude() - lat;
+        double dLon = (point.getLongitude() - lon) * lonScale;
+        return dLat * dLat + dLon * dLon;
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * Copyright (c) 2026 by k3b.
+ *
+ * This file is part of k3b-geoHelper library.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.k3b.geo.io;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import de.k3b.geo.api.GeoPointDto;
+
+/**
+ * Stress test: readers running concurrently with writers must always see
+ * consistent snapshots and the file must contain the final state.
+ */
+public class ConcurrentGeoRepositoryTest {
+    private static final File OUTDIR = new File("./build/testresults/ConcurrentGeoRepositoryTest");
+    private static final int WRITERS = 4;
+    private static final int READERS = 8;
+    /** Items owned by every writer */
+    private static final int ITEMS = 20;
+    /** Changes made by every writer */
+    private static final int CHANGES = 1000;
+
+    @BeforeClass
+    public static void initDirectories() {
+        OUTDIR.mkdirs();
+    }
+
+    private static File createRepositoryFile(String name) {
+        File file = new File(OUTDIR, name + "-repo.txt");
+        file.delete();
+        new File(file.getPath() + GeoFileRepository.JOURNAL_EXT).delete();
+        new File(file.getPath() + GeoFileRepository.JOURNAL_EXT + ".compacting").delete();
+        return file;
+    }
+
+    /** The version of the item is stored in its name */
+    private static GeoPointDto createItem(String id, int version) {
+        return new GeoPointDto().setLatLon(50 + version * 0.0001, 10).setId(id).setName("" + version);
+    }
+
+    @Test
+    public void shouldServeImmutableSnapshots() {
+        ConcurrentGeoRepository<GeoPointDto> sut = new ConcurrentGeoRepository<>(
+                new GeoFileRepository<GeoPointDto>(createRepositoryFile("shouldServeImmutableSnapshots")));
+        sut.put(createItem("a", 1)).put(createItem("b", 1));
+        List<GeoPointDto> snapshot = sut.load();
+
+        sut.put(createItem("a", 2)).deleteById("b");
+
+        Assert.assertEquals("old snapshot unchanged", 2, snapshot.size());
+        Assert.assertEquals("1", snapshot.get(0).getName());
+        Assert.assertEquals(1, sut.load().size());
+        Assert.assertEquals("2", sut.get("a").getName());
+        Assert.assertNull(sut.get("b"));
+        try {
+            sut.load().add(createItem("c", 1));
+            Assert.fail("snapshot must be immutable");
+        } catch (UnsupportedOperationException expected) {
+        }
+    }
+
+    /** Every write copies the snapshot in O(n). More work per write would need minutes for this */
+    @Test(timeout = 10000)
+    public void shouldWriteInLinearTime() {
+        final int count = 10000;
+        final int changes = 2000;
+        File file = createRepositoryFile("shouldWriteInLinearTime");
+        GeoFileRepository<GeoPointDto> initial = new GeoFileRepository<>(file);
+        for (int i = 0; i < count; i++) {
+            initial.load().add(createItem("id" + i, 1));
+        }
+        initial.save();
+
+        ConcurrentGeoRepository<GeoPointDto> sut = new ConcurrentGeoRepository<>(
+                new GeoFileRepository<GeoPointDto>(file)
+                        .setJournalEnabled(true)
+                        .setCompactThreshold(Integer.MAX_VALUE));
+        for (int i = 0; i < changes; i++) {
+            sut.put(createItem("id" + (count - 1 - i), 2));
+        }
+        for (int i = 0; i < changes; i++) {
+            sut.deleteById("id" + i);
+        }
+
+        Assert.assertEquals(count - changes, sut.load().size());
+        Assert.assertEquals("2", sut.get("id" + (count - 1)).getName());
+        Assert.assertEquals("1", sut.load().get(0).getName());
+    }
+
+    @Test
+    public void shouldNotBlockReadersWhileSaving() throws Exception {
+        final CountDownLatch saving = new CountDownLatch(1);
+        final CountDownLatch readDone = new CountDownLatch(1);
+        final ConcurrentGeoRepository<GeoPointDto> sut = new ConcurrentGeoRepository<>(
+                new GeoFileRepository<GeoPointDto>(createRepositoryFile("shouldNotBlockReadersWhileSaving")) {
+                    @Override
+                    protected void save(List<GeoPointDto> source, Writer writer) throws IOException {
+                        saving.countDown();
+                        try {
+                            // save waits until the reader is finished
+                            readDone.await(10, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        super.save(source, writer);
+                    }
+                });
+        sut.load();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> writer = executor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    sut.put(createItem("a", 1));
+                }
+            });
+            Assert.assertTrue(saving.await(10, TimeUnit.SECONDS));
+
+            // the reader is not blocked and sees the snapshot before the change
+            Assert.assertTrue(sut.load().isEmpty());
+            Assert.assertNull(sut.get("a"));
+            readDone.countDown();
+            writer.get();
+            Assert.assertEquals("a", sut.get("a").getId());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldStayConsistentUnderConcurrentAccess() throws Exception {
+        final File file = createRepositoryFile("shouldStayConsistentUnderConcurrentAccess");
+        final ConcurrentGeoRepository<GeoPointDto> sut = new ConcurrentGeoRepository<>(
+                new GeoFileRepository<GeoPointDto>(file)
+                        .setJournalEnabled(true)
+                        // compaction runs concurrently with the writers
+                        .setCompactThreshold(500));
+
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicBoolean writing = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS + READERS);
+        try {
+            List<Future<String>> writers = new ArrayList<>();
+            for (int w = 0; w < WRITERS; w++) {
+                final String prefix = "w" + w + "-";
+                writers.add(executor.submit(new Callable<String>() {
+                    @Override
+                    public String call() throws Exception {
+                        start.await();
+                        // every change increments the version of one item. Every 7th change deletes it.
+                        final int[] versions = new int[ITEMS];
+                        for (int change = 0; change < CHANGES; change++) {
+                            final int item = change % ITEMS;
+                            final String id = prefix + item;
+                            if (change % 7 == 6) {
+                                sut.deleteById(id);
+                                if (sut.get(id) != null) return "not deleted " + id;
+                            } else {
+                                sut.put(createItem(id, ++versions[item]));
+                                if (!("" + versions[item]).equals(sut.get(id).getName())) return "lost " + id;
+                            }
+                        }
+                        return null;
+                    }
+                }));
+            }
+
+            List<Future<String>> readers = new ArrayList<>();
+            for (int r = 0; r < READERS; r++) {
+                readers.add(executor.submit(new Callable<String>() {
+                    @Override
+                    public String call() throws Exception {
+                        start.await();
+                        // a later snapshot never contains an older version of an item
+                        final Map<String, Integer> id2version = new HashMap<>();
+                        int snapshots = 0;
+                        do {
+                            final Set<String> ids = new HashSet<>();
+                            for (GeoPointDto item : sut.load()) {
+                                if (!ids.add(item.getId())) return "duplicate " + item.getId();
+                                final int version = Integer.parseInt(item.getName());
+                                final Integer last = id2version.put(item.getId(), version);
+                                if ((last != null) && (last > version)) {
+                                    return item.getId() + " version " + version + " after " + last;
+                                }
+                            }
+                            snapshots++;
+                        } while (writing.get());
+                        return (snapshots > 0) ? null : "no snapshot read";
+                    }
+                }));
+            }
+
+            start.countDown();
+            for (Future<String> writer : writers) {
+                Assert.assertNull(writer.get());
+            }
+            writing.set(false);
+            for (Future<String> reader : readers) {
+                Assert.assertNull(reader.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        sut.flush();
+
+        // final state: items where the last change was a put
+        int expectedCount = 0;
+        for (int item = 0; item < ITEMS; item++) {
+            if ((CHANGES - ITEMS + item) % 7 != 6) expectedCount += WRITERS;
+        }
+        final List<GeoPointDto> expected = sut.load();
+        Assert.assertEquals(expectedCount, expected.size());
+
+        final List<GeoPointDto> saved = new GeoFileRepository<GeoPointDto>(file).load();
+        Assert.assertEquals(expected.size(), saved.size());
+        for (GeoPointDto item : saved) {
+            Assert.assertEquals(item.getId(), sut.get(item.getId()).getName(), item.getName());
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package de.k3b.geo.io;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import de.k3b.geo.api.GeoPointDto;
+import de.k3b.geo.api.IGeoPointInfo;
+import de.k3b.util.Unzip;
+
+import static org.junit.Assert.*;
+
+/** Downloads symbols from a local http server */
+public class DownloadSymbolsServiceTest {
+    private static final File OUTDIR = new File("./build/testresults/DownloadSymbolsServiceTest");
+
+    private HttpServer server;
+    private String baseUrl;
+    private final Map<String, AtomicInteger> requestCount = new ConcurrentHashMap<>();
+    private final AtomicInteger notModifiedCount = new AtomicInteger();
+
+    @Before
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                final String path = exchange.getRequestURI().getPath();
+                requestCount.putIfAbsent(path, new AtomicInteger());
+                requestCount.get(path).incrementAndGet();
+                final String etag = "\"" + path.hashCode() + "\"";
+                if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                    notModifiedCount.incrementAndGet();
+                    exchange.sendResponseHeaders(304, -1);
+                    exchange.close();
+                    return;
+                }
+                // "/copy/..." has the same content as "/icons/..."
+                byte[] content = ("content of " + path.replace("/copy/", "/icons/")).getBytes("UTF-8");
+                int status = path.contains("missing") ? 404 : 200;
+                exchange.getResponseHeaders().add("ETag", etag);
+                exchange.sendResponseHeaders(status, content.length);
+                OutputStream body = exchange.getResponseBody();
+                body.write(content);
+                body.close();
+            }
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/icons/";
+    }
+
+    @After
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void shouldDownloadEverySymbolOnce() {
+        Unzip.deleteRecursive(OUTDIR);
+        File dir = new File(OUTDIR, "symbols");
+        dir.mkdirs();
+
+        List<IGeoPointInfo> points = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            points.add(new GeoPointDto().setLatLon(50, 10).setSymbol(baseUrl + "icon" + (i % 3) + ".png"));
+        }
+        points.add(new GeoPointDto().setLatLon(50, 10).setSymbol(baseUrl + "missing.png"));
+        points.add(new GeoPointDto().setLatLon(50, 10).setSymbol("local.png"));
+
+        new DownloadSymbolsToDirService("test").dir(dir).setMaxConcurrentDownloads(2).convert(points);
+
+        assertEquals(4, requestCount.size());
+        for (Map.Entry<String, AtomicInteger> count : requestCount.entrySet()) {
+            assertEquals(count.getKey(), 1, count.getValue().get());
+        }
+        for (int i = 0; i < 3; i++) {
+            assertEquals("DownloadSymbolsServiceTest/icon" + i + ".png", points.get(i).getSymbol());
+            assertEquals(("content of /icons/icon" + i + ".png").length(), new File(dir, "icon" + i + ".png").length());
+        }
+        assertEquals("DownloadSymbolsServiceTest/icon1.png", points.get(499).getSymbol());
+        assertEquals("not found: unchanged", baseUrl + "missing.png", points.get(500).getSymbol());
+        assertEquals("local.png", points.get(501).getSymbol());
+    }
+
+    @Test
+    public void shouldRevalidateCachedSymbols() {
+        Unzip.deleteRecursive(OUTDIR);
+        File cacheDir = new File(OUTDIR, "cache");
+        File dir = new File(OUTDIR, "symbols");
+        dir.mkdirs();
+
+        for (int run = 0; run < 2; run++) {
+            List<IGeoPointInfo> points = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                points.add(new GeoPointDto().setLatLon(50, 10).setSymbol(baseUrl + "icon" + i + ".png"));
+            }
+            new File(dir, "icon0.png").delete();
+
+            // new cache instance loads the index saved by the previous run
+            new DownloadSymbolsToDirService("test").dir(dir)
+                    .setSymbolCache(new SymbolCache(cacheDir, 1024 * 1024)).convert(points);
+
+            assertEquals("DownloadSymbolsServiceTest/icon0.png", points.get(0).getSymbol());
+            assertEquals(("content of /icons/icon0.png").length(), new File(dir, "icon0.png").length());
+        }
+        assertEquals("second run only revalidated", 3, notModifiedCount.get());
+        assertEquals(3, new SymbolCache(cacheDir, 1024 * 1024).getCount());
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsed() throws IOException {
+        Unzip.deleteRecursive(OUTDIR);
+        File cacheDir = new File(OUTDIR, "cache");
+        SymbolCache sut = new SymbolCache(cacheDir, 25);
+        sut.put("http://a", "0123456789".getBytes("UTF-8"), null, 0);
+        sut.put("http://b", "abcdefghij".getBytes("UTF-8"), null, 0);
+        sut.put("http://same-content-as-b", "abcdefghij".getBytes("UTF-8"), "\"x\"", 0);
+        assertEquals("same content is stored once", 20, sut.getSize());
+        assertNotNull(sut.get("http://a"));
+
+        sut.put("http://c", "ABCDEFGHIJ".getBytes("UTF-8"), null, 0);
+        assertNotNull(sut.get("http://a"));
+        assertNull("least recently used evicted", sut.get("http://b"));
+        assertNull(sut.get("http://same-content-as-b"));
+        assertEquals(20, sut.getSize());
+        sut.save();
+
+        SymbolCache reloaded = new SymbolCache(cacheDir, 25);
+        assertEquals(2, reloaded.getCount());
+        assertEquals("0123456789", reloaded.read(reloaded.get("http://a")).toString("UTF-8"));
+    }
+
+    @Test
+    public void shouldStoreSymbolsInZipOnce() throws IOException {
+        Unzip.deleteRecursive(OUTDIR);
+        OUTDIR.mkdirs();
+        File zipFile = new File(OUTDIR, "symbols.kmz");
+
+        List<IGeoPointInfo> points = new ArrayList<>();
+        for (String path : new String[]{"icons/icon0.png", "copy/icon0.png", "other/icon0.png", "icons/text.txt"}) {
+            points.add(new GeoPointDto().setLatLon(50, 10).setSymbol(baseUrl.replace("icons/", path)));
+        }
+
+        ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(zipFile));
+        DownloadSymbolsToZipService sut = new DownloadSymbolsToZipService("test");
+        sut.zipOutputStream(zip, "files").convert(points);
+        zip.close();
+
+        assertEquals("files/icon0.png", points.get(0).getSymbol());
+        assertEquals("same content", "files/icon0.png", points.get(1).getSymbol());
+        assertEquals("same name, other content", "files/icon0-2.png", points.get(2).getSymbol());
+        assertEquals("files/text.txt", points.get(3).getSymbol());
+
+        ZipFile result = new ZipFile(zipFile);
+        try {
+            assertEquals(3, result.size());
+            assertEquals(ZipEntry.STORED, result.getEntry("files/icon0.png").getMethod());
+            assertEquals(ZipEntry.STORED, result.getEntry("files/icon0-2.png").getMethod());
+            assertEquals(ZipEntry.DEFLATED, result.getEntry("files/text.txt").getMethod());
+
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            byte[] buffer = new byte[100];
+            InputStream in = result.getInputStream(result.getEntry("files/icon0-2.png"));
+            for (int read = in.read(buffer); read > -1; read = in.read(buffer)) content.write(buffer, 0, read);
+            in.close();
+            assertEquals("content of /other/icon0.png", content.toString("UTF-8"));
+        } finally {
+            result.close();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2026 by k3b.
+ *
+ * This file is part of k3b-geoHelper library.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.k3b.geo.io;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import de.k3b.geo.api.GeoPointDto;
+import de.k3b.geo.api.IGeoPointInfo;
+import de.k3b.geo.io.gpx.GpxFormatter;
+import de.k3b.geo.io.kml.KmlFormatter;
+import de.k3b.geo.io.poi.PoiFormatter;
+
+/**
+ * Stress test: Formatters used by many threads simultaneously must create
+ * the same output as when used by one thread.
+ */
+public class FormatterConcurrencyTest {
+    private static final int THREADS = 64;
+    private static final int REPEAT = 20;
+
+    private final List<IGeoPointInfo> geoInfos = createPoints(200);
+
+    private static List<IGeoPointInfo> createPoints(int count) {
+        List<IGeoPointInfo> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(new GeoPointDto()
+                    .setLatLon(53.5 + i * 0.001, 9.9 + i * 0.002)
+                    .setName("name" + i)
+                    .setDescription("description " + i)
+                    .setId("id" + i)
+                    .setSymbol("symbol" + (i % 7) + ".png")
+                    .setZoomMin(i % 10)
+                    .setZoomMax(10 + (i % 10))
+                    // different dates so that corrupted timestamps are detected
+                    .setTimeOfMeasurement(new Date(1423555485000L + i * 3600123L)));
+        }
+        return result;
+    }
+
+    @Test
+    public void gpxShouldBeThreadSafe() throws Exception {
+        assertSameOutputInAllThreads(new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                StringWriter result = new StringWriter();
+                GpxFormatter.export(geoInfos, new PrintWriter(result));
+                return result.toString();
+            }
+        });
+    }
+
+    @Test
+    public void poiShouldBeThreadSafe() throws Exception {
+        assertSameOutputInAllThreads(new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                return PoiFormatter.toPoiXml(geoInfos);
+            }
+        });
+    }
+
+    @Test
+    public void kmlShouldBeThreadSafe() throws Exception {
+        assertSameOutputInAllThreads(new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                StringWriter result = new StringWriter();
+                KmlFormatter.export(geoInfos, new PrintWriter(result));
+                return result.toString();
+            }
+        });
+    }
+
+    @Test
+    public void geoUriShouldBeThreadSafe() throws Exception {
+        final GeoUri geoUri = new GeoUri(GeoUri.OPT_FORMAT_REDUNDANT_LAT_LON);
+        assertSameOutputInAllThreads(new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                StringBuilder result = new StringBuilder();
+                for (IGeoPointInfo geoInfo : geoInfos) {
+                    result.append(geoUri.toUriString(geoInfo)).append('\n');
+                }
+                return result.toString();
+            }
+        });
+    }
+
+    private void assertSameOutputInAllThreads(final Callable<String> formatter) throws Exception {
+        final String expected = formatter.call();
+        final CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                results.add(executor.submit(new Callable<String>() {
+                    @Override
+                    public String call() throws Exception {
+                        start.await();
+                        for (int i = 0; i < REPEAT; i++) {
+                            String result = formatter.call();
+                            if (!expected.equals(result)) return result;
+                        }
+                        return expected;
+                    }
+                }));
+            }
+            start.countDown();
+            for (Future<String> result : results) {
+                Assert.assertEquals(expected, result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
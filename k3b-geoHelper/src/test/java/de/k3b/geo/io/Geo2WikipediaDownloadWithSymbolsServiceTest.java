@@ -0,0 +1,190 @@
+package de.k3b.geo.io;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import de.k3b.geo.api.GeoPointDto;
+import de.k3b.geo.api.IGeoPointInfo;
+import de.k3b.geo.api.ILocation;
+import de.k3b.util.Unzip;
+
+import static org.junit.Assert.*;
+
+/** Batch geosearch against a local stub of the wikimedia api */
+public class Geo2WikipediaDownloadWithSymbolsServiceTest {
+    private static final File OUTDIR = new File("./build/testresults/Geo2WikipediaDownloadWithSymbolsServiceTest");
+    private static final String USER_AGENT = "Geo2WikipediaDownloadWithSymbolsServiceTest/1.0";
+
+    private HttpServer server;
+    private String apiUrl;
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private final AtomicInteger concurrentRequests = new AtomicInteger();
+    private final AtomicInteger maxConcurrentRequests = new AtomicInteger();
+    private volatile String lastUserAgent = null;
+
+    @Before
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newFixedThreadPool(8));
+        server.createContext("/w/api.php", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                requestCount.incrementAndGet();
+                final int concurrent = concurrentRequests.incrementAndGet();
+                synchronized (maxConcurrentRequests) {
+                    if (concurrent > maxConcurrentRequests.get()) maxConcurrentRequests.set(concurrent);
+                }
+                try {
+                    lastUserAgent = exchange.getRequestHeaders().getFirst("User-Agent");
+                    Thread.sleep(20);
+                    final byte[] content = createResponse(getParameter(exchange, "ggscoord")).getBytes("UTF-8");
+                    exchange.sendResponseHeaders(200, content.length);
+                    OutputStream body = exchange.getResponseBody();
+                    body.write(content);
+                    body.close();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    concurrentRequests.decrementAndGet();
+                }
+            }
+        });
+        server.start();
+        apiUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/w/api.php";
+    }
+
+    @After
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void shouldQueryGridAndRemoveDuplicatePages() throws IOException {
+        Unzip.deleteRecursive(OUTDIR);
+        // latitudes 50.5, 51.5, 52.5; longitudes 10.5, 11.5
+        List<ILocation> grid = Geo2WikipediaDownloadWithSymbolsService.createGrid(
+                new GeoPointDto().setLatLon(53, 12), new GeoPointDto().setLatLon(50, 10), 3, 2);
+        assertEquals(6, grid.size());
+        assertEquals(50.5, grid.get(0).getLatitude(), 0.0001);
+        assertEquals(11.5, grid.get(5).getLongitude(), 0.0001);
+
+        File out = new File(OUTDIR, "grid.kml");
+        List<IGeoPointInfo> points = createService()
+                .setMaxConcurrentRequests(3)
+                .setMinRequestIntervalMillis(10)
+                .saveAllAs(grid, out);
+
+        assertEquals("requests", 6, requestCount.get());
+        assertTrue("concurrent requests " + maxConcurrentRequests.get(), maxConcurrentRequests.get() <= 3);
+        assertEquals(USER_AGENT, lastUserAgent);
+
+        // every location finds "page(lat)" and "page(lat)-(lon)": 3 + 6 distinct pages
+        assertEquals(9, points.size());
+        assertEquals("50", points.get(0).getId());
+        assertEquals("50-10", points.get(1).getId());
+        assertEquals("50-11", points.get(2).getId());
+        assertTrue(out.exists());
+    }
+
+    @Test
+    public void shouldRateLimitRequests() throws IOException {
+        List<ILocation> locations = Geo2WikipediaDownloadWithSymbolsService.createGrid(
+                new GeoPointDto().setLatLon(50, 10), new GeoPointDto().setLatLon(51, 14), 1, 4);
+
+        final long start = System.currentTimeMillis();
+        createService()
+                .setMaxConcurrentRequests(4)
+                .setMinRequestIntervalMillis(100)
+                .getGeoPointInfos(locations);
+
+        // 4 requests start at least 3 intervals apart
+        assertTrue(System.currentTimeMillis() - start >= 300);
+        assertEquals(4, requestCount.get());
+    }
+
+    @Test
+    public void shouldServeNearbyQueriesFromCache() throws IOException {
+        GeoSearchCache cache = new GeoSearchCache(10, 60000).setPrecision(0.1);
+        // no rate limit: both locations are queried at the same time
+        Geo2WikipediaDownloadWithSymbolsService service = createService()
+                .setMinRequestIntervalMillis(0)
+                .setSearchCache(cache);
+
+        List<IGeoPointInfo> points = service.getGeoPointInfos(Arrays.asList(
+                new GeoPointDto().setLatLon(50.51, 10.52),
+                new GeoPointDto().setLatLon(50.53, 10.48)));
+        assertEquals("same quantised location", 1, requestCount.get());
+        assertEquals(2, points.size());
+        assertEquals("50-10", points.get(1).getId());
+
+        service.setRadius(500).getGeoPointInfos(Arrays.asList(new GeoPointDto().setLatLon(50.5, 10.5)));
+        assertEquals("other radius", 2, requestCount.get());
+    }
+
+    @Test
+    public void shouldNotRateLimitCacheHits() throws IOException {
+        GeoSearchCache cache = new GeoSearchCache(10, 60000).setPrecision(0.1);
+        Geo2WikipediaDownloadWithSymbolsService service = createService()
+                .setMinRequestIntervalMillis(2000)
+                .setSearchCache(cache);
+        service.getGeoPointInfos(Arrays.asList(new GeoPointDto().setLatLon(50.5, 10.5)));
+
+        final long start = System.currentTimeMillis();
+        service.getGeoPointInfos(Arrays.asList(
+                new GeoPointDto().setLatLon(50.51, 10.52),
+                new GeoPointDto().setLatLon(50.53, 10.48),
+                new GeoPointDto().setLatLon(50.49, 10.51)));
+
+        // a rate limited request would wait for 2 seconds
+        assertTrue(System.currentTimeMillis() - start < 2000);
+        assertEquals(1, requestCount.get());
+    }
+
+    private Geo2WikipediaDownloadWithSymbolsService createService() {
+        return (Geo2WikipediaDownloadWithSymbolsService) new Geo2WikipediaDownloadWithSymbolsService(
+                "test.wikipedia.org", USER_AGENT, null)
+                .setApiUrl(apiUrl);
+    }
+
+    /** pages of location lat|lon: one shared by all locations with the same lat and one unique */
+    private static String createResponse(String latLon) {
+        final String[] parts = latLon.split("\\|");
+        final String lat = parts[0].substring(0, parts[0].indexOf('.'));
+        final String lon = parts[1].substring(0, parts[1].indexOf('.'));
+        return "<?xml version=\"1.0\"?><api batchcomplete=\"\"><query><pages>"
+                + createPage(lat, parts[0], parts[1])
+                + createPage(lat + "-" + lon, parts[0], parts[1])
+                + "</pages></query></api>";
+    }
+
+    private static String createPage(String pageId, String lat, String lon) {
+        return "<page pageid=\"" + pageId + "\" title=\"page " + pageId + "\""
+                + " fullurl=\"https://test.wikipedia.org/wiki/" + pageId + "\">"
+                + "<coordinates><co lat=\"" + lat + "\" lon=\"" + lon + "\" primary=\"\" globe=\"earth\" /></coordinates>"
+                + "<extract>about " + pageId + "</extract></page>";
+    }
+
+    private static String getParameter(HttpExchange exchange, String name) throws IOException {
+        for (String parameter : exchange.getRequestURI().getRawQuery().split("&")) {
+            if (parameter.startsWith(name + "=")) {
+                return URLDecoder.decode(parameter.substring(name.length() + 1), "UTF-8");
+            }
+        }
+        return null;
+    }
+}
@@ -25,10 +25,26 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.io.FileWriter;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import de.k3b.geo.api.GeoPointDto;
+import de.k3b.geo.api.IGeoInfoHandler;
+import de.k3b.geo.api.IGeoPointInfo;
 import de.k3b.geo.api.IGeoRepository;
+import de.k3b.util.Unzip;
 
 /**
  * Created by k3b on 13.01.2015.
@@ -55,9 +71,13 @@ public class GeoFileRepositoryTests {
         return result;
     }
 
-    private IGeoRepository<GeoPointDto> createUnsavedRepo(String name, int numberOfItems) {
+    private GeoFileRepository<GeoPointDto> createUnsavedRepo(String name, int numberOfItems) {
         this.repositoryFile = new File(OUTDIR, name + "-repo.txt");
         repositoryFile.delete();
+        new File(repositoryFile.getPath() + GeoFileRepository.JOURNAL_EXT).delete();
+        new File(repositoryFile.getPath() + GeoFileRepository.JOURNAL_EXT + ".compacting").delete();
+        new File(repositoryFile.getPath() + ".new").delete();
+        new File(repositoryFile.getPath() + ".bak").delete();
 
         GeoFileRepository<GeoPointDto> result = new GeoFileRepository<GeoPointDto>(this.repositoryFile);
 
@@ -103,4 +123,411 @@ public class GeoFileRepositoryTests {
         Assert.assertEquals(3, items.size());
     }
 
+    @Test
+    public void shouldLoadParallelInFileOrder() throws Exception {
+        createUnsavedRepo("shouldLoadParallelInFileOrder", 1000).save();
+        GeoFileRepository<GeoPointDto> sut = new GeoFileRepository<GeoPointDto>(this.repositoryFile);
+
+        List<GeoPointDto> items = new ArrayList<>();
+        // small chunks so that every task gets only a few lines
+        sut.loadParallel(items, this.repositoryFile, new ForkJoinPool(4), 500);
+
+        List<GeoPointDto> expected = sut.load();
+        Assert.assertEquals(1000, items.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Assert.assertEquals(expected.get(i).toString(), items.get(i).toString());
+        }
+    }
+
+    @Test
+    public void shouldLoadParallelSameLinesAsSequential() throws Exception {
+        createUnsavedRepo("shouldLoadParallelSameLinesAsSequential", 0);
+        StringBuilder longName = new StringBuilder();
+        for (int i = 0; i < 300; i++) longName.append("Grüße");
+        Writer writer = new FileWriter(this.repositoryFile);
+        writer.write("# comment\r\n"
+                + "geo:1,2?n=Köln&id=1\r\n"
+                + "\n   \n"
+                + "geo:3,4?n=" + longName + "&id=2\n"
+                + "not a geo uri\n"
+                + "geo:5,6?n=last&id=3");
+        writer.close();
+        GeoFileRepository<GeoPointDto> sut = new GeoFileRepository<GeoPointDto>(this.repositoryFile);
+
+        List<GeoPointDto> items = new ArrayList<>();
+        sut.loadParallel(items, this.repositoryFile, new ForkJoinPool(2), 1);
+
+        List<GeoPointDto> expected = sut.load();
+        Assert.assertEquals(3, expected.size());
+        // the line is longer than the initial decode buffer. Umlauts depend on the platform charset.
+        Assert.assertEquals(longName.length(), expected.get(1).getName().length());
+        Assert.assertEquals(expected.size(), items.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Assert.assertEquals(expected.get(i).toString(), items.get(i).toString());
+        }
+    }
+
+    @Test
+    public void shouldStreamForEach() throws Exception {
+        createUnsavedRepo("shouldStreamForEach", 5).save();
+
+        int count = new GeoFileRepository<GeoPointDto>(this.repositoryFile).forEach(new IGeoInfoHandler() {
+            @Override
+            public boolean onGeoInfo(IGeoPointInfo geoInfo) {
+                return geoInfo.getLatitude() > 3;
+            }
+        });
+        Assert.assertEquals(3, count);
+    }
+
+    @Test
+    public void shouldStreamLoadFiltered() throws Exception {
+        createUnsavedRepo("shouldStreamLoadFiltered", 5).save();
+
+        List<GeoPointDto> items = new GeoFileRepository<GeoPointDto>(this.repositoryFile).load(new IGeoInfoHandler() {
+            @Override
+            public boolean onGeoInfo(IGeoPointInfo geoInfo) {
+                return geoInfo.getLatitude() > 3;
+            }
+        }, 2);
+        Assert.assertEquals(2, items.size());
+        Assert.assertEquals("Id3", items.get(0).getId());
+        Assert.assertEquals("Id4", items.get(1).getId());
+    }
+
+    @Test
+    public void shouldReplayJournal() throws Exception {
+        createUnsavedRepo("shouldReplayJournal", 3).save();
+        long fileSize = this.repositoryFile.length();
+
+        GeoFileRepository<GeoPointDto> sut = new GeoFileRepository<GeoPointDto>(this.repositoryFile)
+                .setJournalEnabled(true);
+        sut.add(createItem(4));
+        sut.put(createItem(1).setName("changed"));
+        sut.delete(sut.load().get(1));
+        Assert.assertEquals("file not rewritten", fileSize, this.repositoryFile.length());
+
+        List<GeoPointDto> items = new GeoFileRepository<GeoPointDto>(this.repositoryFile).load();
+        Assert.assertEquals(3, items.size());
+        Assert.assertEquals("changed", items.get(0).getName());
+        Assert.assertEquals("Id3", items.get(1).getId());
+        Assert.assertEquals("Id4", items.get(2).getId());
+
+        Assert.assertEquals("streaming sees journal", 3,
+                new GeoFileRepository<GeoPointDto>(this.repositoryFile).forEach(new IGeoInfoHandler() {
+            @Override
+            public boolean onGeoInfo(IGeoPointInfo geoInfo) {
+                return true;
+            }
+        }));
+    }
+
+    @Test
+    public void shouldStreamJournalWithoutLoading() throws Exception {
+        createUnsavedRepo("shouldStreamJournalWithoutLoading", 3).save();
+        GeoFileRepository<GeoPointDto> writer = new GeoFileRepository<GeoPointDto>(this.repositoryFile)
+                .setJournalEnabled(true);
+        writer.put(createItem(2).setName("changed"));
+        writer.deleteById("Id1");
+        writer.add(createItem(4));
+        writer.deleteById("Id3");
+        writer.put(createItem(3));
+        writer.put(createItem(5)).deleteById("Id5");
+
+        GeoFileRepository<GeoPointDto> sut = new GeoFileRepository<GeoPointDto>(this.repositoryFile);
+        StringBuilder streamed = new StringBuilder();
+        for (GeoFileRepository<GeoPointDto>.GeoFileIterator iterator = sut.iterator(); iterator.hasNext();) {
+            GeoPointDto item = iterator.next();
+            streamed.append(item.getId()).append(item.getName()).append(" ");
+        }
+        List<GeoPointDto> filtered = sut.load(new IGeoInfoHandler() {
+            @Override
+            public boolean onGeoInfo(IGeoPointInfo geoInfo) {
+                return !geoInfo.getId().equals("Id4");
+            }
+        }, 10);
+        Assert.assertNull("not loaded", sut.mGeoPointList);
+
+        Assert.assertEquals("Id2changed Id4Name4 Id3Name3 ", streamed.toString());
+        Assert.assertEquals(2, filtered.size());
+        Assert.assertEquals("changed", filtered.get(0).getName());
+        Assert.assertEquals("Id3", filtered.get(1).getId());
+
+        StringBuilder loaded = new StringBuilder();
+        for (GeoPointDto item : new GeoFileRepository<GeoPointDto>(this.repositoryFile).load()) {
+            loaded.append(item.getId()).append(item.getName()).append(" ");
+        }
+        Assert.assertEquals("same as load()", loaded.toString(), streamed.toString());
+    }
+
+    @Test
+    public void shouldSaveFileIfJournalCannotBeWritten() throws Exception {
+        createUnsavedRepo("shouldSaveFileIfJournalCannotBeWritten", 3).save();
+        // a non empty directory where the journal should be created
+        File journal = new File(this.repositoryFile.getPath() + GeoFileRepository.JOURNAL_EXT);
+        File compacting = new File(journal.getPath() + ".compacting");
+        new File(journal, "blocker").mkdirs();
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+        try {
+            GeoFileRepository<GeoPointDto> sut = new GeoFileRepository<GeoPointDto>(this.repositoryFile)
+                    .setJournalEnabled(true)
+                    .setSaveDelay(60000, executor);
+            sut.put(createItem(1).setName("changed"));
+            Assert.assertTrue("change only in memory", sut.isDirty());
+
+            sut.flush();
+            Assert.assertFalse(sut.isDirty());
+            Assert.assertEquals("changed",
+                    new GeoFileRepository<GeoPointDto>(this.repositoryFile).load().get(0).getName());
+        } finally {
+            executor.shutdownNow();
+            // the blocking directory may have been moved to the compacting journal
+            Unzip.deleteRecursive(journal);
+            Unzip.deleteRecursive(compacting);
+        }
+    }
+
+    @Test
+    public void shouldCompactJournal() throws Exception {
+        createUnsavedRepo("shouldCompactJournal", 0);
+        final List<Runnable> compactions = new ArrayList<>();
+        GeoFileRepository<GeoPointDto> sut = new GeoFileRepository<GeoPointDto>(this.repositoryFile)
+                .setJournalEnabled(true)
+                .setCompactThreshold(10)
+                .setCompactExecutor(new Executor() {
+                    @Override
+                    public void execute(Runnable command) {
+                        compactions.add(command);
+                    }
+                });
+        File journal = new File(this.repositoryFile.getPath() + GeoFileRepository.JOURNAL_EXT);
+        for (int i = 1; i <= 11; i++) {
+            sut.add(createItem(i));
+        }
+        Assert.assertEquals(1, compactions.size());
+        Assert.assertFalse("journal moved away", journal.exists());
+
+        // edits while the file is compacted go to a new journal
+        sut.add(createItem(12));
+        sut.delete(createItem(1));
+        Assert.assertEquals(11, new GeoFileRepository<GeoPointDto>(this.repositoryFile).load().size());
+
+        compactions.get(0).run();
+        Assert.assertTrue(this.repositoryFile.exists());
+        List<GeoPointDto> items = new GeoFileRepository<GeoPointDto>(this.repositoryFile).load();
+        Assert.assertEquals(11, items.size());
+        Assert.assertEquals("Id2", items.get(0).getId());
+        Assert.assertEquals("Id12", items.get(10).getId());
+
+        sut.save();
+        Assert.assertFalse("save() clears journal", journal.exists());
+        Assert.assertEquals(11, new GeoFileRepository<GeoPointDto>(this.repositoryFile).load().size());
+    }
+
+    @Test
+    public void shouldKeepOldFileIfSaveFails() throws Exception {
+        createUnsavedRepo("shouldKeepOldFileIfSaveFails", 3).save();
+
+        GeoFileRepository<GeoPointDto> sut = new GeoFileRepository<GeoPointDto>(this.repositoryFile) {
+            @Override
+            protected boolean saveItem(Writer writer, GeoPointDto geo) throws IOException {
+                if ("Id4".equals(geo.getId())) throw new IOException("simulated crash");
+                return super.saveItem(writer, geo);
+            }
+        };
+        sut.load().add(createItem(4));
+        sut.load().add(createItem(5));
+        sut.save();
+
+        Assert.assertEquals(3, new GeoFileRepository<GeoPointDto>(this.repositoryFile).load().size());
+        Assert.assertEquals("no temp files left", 1, OUTDIR.list(new FilenameFilter() {
+            @Override
+            public boolean accept(File dir, String name) {
+                return name.startsWith("shouldKeepOldFileIfSaveFails");
+            }
+        }).length);
+    }
+
+    @Test
+    public void shouldSaveFileWithShortName() throws Exception {
+        File file = new File(OUTDIR, "a");
+        file.delete();
+        GeoFileRepository<GeoPointDto> sut = new GeoFileRepository<GeoPointDto>(file);
+        sut.load().add(createItem(1));
+        sut.save();
+
+        Assert.assertEquals(1, new GeoFileRepository<GeoPointDto>(file).load().size());
+        Assert.assertFalse(sut.isDirty());
+    }
+
+    @Test
+    public void shouldRecoverFromBackupIfReplaceWasInterrupted() throws Exception {
+        createUnsavedRepo("shouldRecoverFromBackupIfReplaceWasInterrupted", 3).save();
+        // crash after the old file was renamed to the backup
+        File backup = new File(this.repositoryFile.getPath() + ".bak");
+        Assert.assertTrue(this.repositoryFile.renameTo(backup));
+
+        Assert.assertEquals(3, new GeoFileRepository<GeoPointDto>(this.repositoryFile).load().size());
+        Assert.assertTrue(this.repositoryFile.exists());
+        Assert.assertFalse(backup.exists());
+    }
+
+    @Test
+    public void shouldRecoverNewFileIfReplaceWasInterrupted() throws Exception {
+        createUnsavedRepo("shouldRecoverNewFileIfReplaceWasInterrupted", 3).save();
+        // crash after the complete new content was written
+        File next = new File(this.repositoryFile.getPath() + ".new");
+        Writer writer = new FileWriter(next);
+        writer.write("geo:1,2?n=new&id=1\n");
+        writer.close();
+
+        Assert.assertEquals("streaming", 1, new GeoFileRepository<GeoPointDto>(this.repositoryFile).forEach(new IGeoInfoHandler() {
+            @Override
+            public boolean onGeoInfo(IGeoPointInfo geoInfo) {
+                return true;
+            }
+        }));
+        Assert.assertTrue("streaming does not rename", next.exists());
+        List<GeoPointDto> items = new GeoFileRepository<GeoPointDto>(this.repositoryFile).load();
+        Assert.assertEquals(1, items.size());
+        Assert.assertEquals("new", items.get(0).getName());
+        Assert.assertFalse(next.exists());
+    }
+
+    @Test
+    public void shouldCoalesceDelayedSaves() throws Exception {
+        createUnsavedRepo("shouldCoalesceDelayedSaves", 0);
+        final AtomicInteger writeCount = new AtomicInteger();
+        // the delay never expires: the test runs the scheduled writes itself
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1);
+        try {
+            GeoFileRepository<GeoPointDto> sut = new GeoFileRepository<GeoPointDto>(this.repositoryFile) {
+                @Override
+                protected void save(List<GeoPointDto> source, Writer writer) throws IOException {
+                    writeCount.incrementAndGet();
+                    super.save(source, writer);
+                }
+            }.setSaveDelay(60 * 60 * 1000, executor);
+
+            for (int i = 1; i <= 5; i++) {
+                sut.load().add(createItem(i));
+                sut.save();
+            }
+            Assert.assertFalse("not written yet", this.repositoryFile.exists());
+            Assert.assertEquals("one scheduled write", 1, executor.getQueue().size());
+
+            runScheduled(executor);
+            Assert.assertEquals(1, writeCount.get());
+            Assert.assertEquals(5, new GeoFileRepository<GeoPointDto>(this.repositoryFile).load().size());
+
+            sut.load().add(createItem(6));
+            sut.save();
+            sut.flush();
+            Assert.assertEquals(2, writeCount.get());
+            Assert.assertEquals(6, new GeoFileRepository<GeoPointDto>(this.repositoryFile).load().size());
+
+            // already written by flush()
+            runScheduled(executor);
+            Assert.assertEquals(2, writeCount.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /** Runs the first scheduled task of executor now */
+    private static void runScheduled(ScheduledThreadPoolExecutor executor) {
+        Runnable task = executor.getQueue().iterator().next();
+        Assert.assertTrue(executor.remove(task));
+        task.run();
+    }
+
+    @Test
+    public void shouldGetPutDeleteById() throws Exception {
+        GeoFileRepository<GeoPointDto> sut = createUnsavedRepo("shouldGetPutDeleteById", 3);
+        sut.save();
+
+        Assert.assertEquals("Name2", sut.get("Id2").getName());
+        Assert.assertNull(sut.get("Id7"));
+
+        sut.put(createItem(2).setName("changed")).put(createItem(4));
+        Assert.assertEquals("changed", sut.get("Id2").getName());
+        Assert.assertEquals(4, sut.load().size());
+
+        // direct modification of the list is seen by the index
+        sut.load().remove(0);
+        sut.load().add(createItem(5));
+        Assert.assertNull(sut.get("Id1"));
+        Assert.assertEquals("Name5", sut.get("Id5").getName());
+
+        sut.deleteById("Id4").deleteById("Id7");
+        Assert.assertNull(sut.get("Id4"));
+
+        List<GeoPointDto> items = new GeoFileRepository<GeoPointDto>(this.repositoryFile).load();
+        Assert.assertEquals(3, items.size());
+        Assert.assertEquals("changed", items.get(0).getName());
+        Assert.assertEquals("Id5", items.get(2).getId());
+    }
+
+    @Test
+    public void shouldKeepOrderOnDelete() throws Exception {
+        GeoFileRepository<GeoPointDto> sut = createUnsavedRepo("shouldKeepOrderOnDelete", 5);
+        sut.save();
+
+        sut.delete(createItem(1));
+        sut.deleteById("Id3");
+
+        List<GeoPointDto> items = new GeoFileRepository<GeoPointDto>(this.repositoryFile).load();
+        Assert.assertEquals(3, items.size());
+        for (List<GeoPointDto> list : Arrays.asList(sut.load(), items)) {
+            Assert.assertEquals("Id2", list.get(0).getId());
+            Assert.assertEquals("Id4", list.get(1).getId());
+            Assert.assertEquals("Id5", list.get(2).getId());
+        }
+        Assert.assertEquals("Name5", sut.get("Id5").getName());
+
+        sut.setUnorderedDelete(true).delete(createItem(2));
+        Assert.assertEquals("last item moved into the gap", "Id5", sut.load().get(0).getId());
+        Assert.assertEquals("Id4", sut.load().get(1).getId());
+    }
+
+    @Test
+    public void shouldPutAndDeleteManyItemsById() throws Exception {
+        createUnsavedRepo("shouldPutAndDeleteManyItemsById", 0);
+        GeoFileRepository<GeoPointDto> sut = new GeoFileRepository<GeoPointDto>(this.repositoryFile)
+                .setJournalEnabled(true)
+                .setUnorderedDelete(true)
+                .setCompactExecutor(new Executor() {
+                    @Override
+                    public void execute(Runnable command) {
+                        command.run();
+                    }
+                });
+        final int count = 20000;
+        for (int i = 1; i <= count; i++) {
+            sut.put(createItem(i));
+        }
+        for (int i = 1; i <= count; i += 2) {
+            sut.deleteById("Id" + i);
+        }
+        Assert.assertEquals(count / 2, sut.load().size());
+
+        List<GeoPointDto> items = new GeoFileRepository<GeoPointDto>(this.repositoryFile).load();
+        Assert.assertEquals(count / 2, items.size());
+        for (GeoPointDto item : items) {
+            Assert.assertEquals(item.getId(), 0, Integer.parseInt(item.getId().substring(2)) % 2);
+        }
+    }
+
+    @Test
+    public void shouldStreamIterator() throws Exception {
+        createUnsavedRepo("shouldStreamIterator", 3).save();
+
+        StringBuilder ids = new StringBuilder();
+        Iterator<GeoPointDto> iterator = new GeoFileRepository<GeoPointDto>(this.repositoryFile).iterator();
+        while (iterator.hasNext()) {
+            ids.append(iterator.next().getId()).append(" ");
+        }
+        Assert.assertEquals("Id1 Id2 Id3 ", ids.toString());
+    }
+
 }
@@ -0,0 +1,55 @@
+package de.k3b.geo.io;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.StringWriter;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+
+import de.k3b.geo.api.IGeoPointInfo;
+
+public class GeoFormatterTest {
+    @Test
+    public void formatLatLonShouldBeSameAsDecimalFormat() {
+        DecimalFormat expected = new DecimalFormat("#.#######", new DecimalFormatSymbols(Locale.ENGLISH));
+        double[] values = {0, -0.0, 0.5, -0.5, 1e-9, -1e-9, 0.00000005, 0.00000015, 180, -180,
+                53.5501234, -56.78901234, 1.00000005, 1e10, Double.NaN};
+        for (double value : values) {
+            Assert.assertEquals("" + value, expected.format(value), GeoFormatter.formatLatLon(value));
+        }
+
+        Random random = new Random(4711);
+        for (int i = 0; i < 100000; i++) {
+            double value = (random.nextDouble() - 0.5) * 360;
+            Assert.assertEquals("" + value, expected.format(value), GeoFormatter.formatLatLon(value));
+        }
+        Assert.assertEquals("", GeoFormatter.formatLatLon(IGeoPointInfo.NO_LAT_LON));
+    }
+
+    @Test
+    public void formatDateShouldBeSameAsSimpleDateFormat() {
+        SimpleDateFormat expected = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'", Locale.US);
+        expected.setTimeZone(TimeZone.getTimeZone("UTC"));
+
+        Random random = new Random(4711);
+        for (int i = 0; i < 100000; i++) {
+            // 1900 ... 2100 and some before 1583 with julian calendar
+            Date value = new Date((long) ((random.nextDouble() - 0.35) * 6.4e12 * ((i % 100 == 0) ? 10 : 1)));
+            Assert.assertEquals("" + value.getTime(), expected.format(value), GeoFormatter.formatDate(value));
+        }
+        Assert.assertEquals("", GeoFormatter.formatDate(null));
+    }
+
+    @Test
+    public void shouldAppendToAppendable() throws Exception {
+        StringWriter result = new StringWriter();
+        GeoFormatter.appendDate(GeoFormatter.appendLatLon(result, -12.5).append(' '), new Date(0));
+        Assert.assertEquals("-12.5 1970-01-01T00:00:00Z", result.toString());
+    }
+}
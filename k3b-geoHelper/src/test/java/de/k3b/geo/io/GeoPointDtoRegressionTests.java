@@ -31,6 +31,7 @@ import java.util.List;
 
 import de.k3b.geo.api.GeoPointDto;
 import de.k3b.geo.api.IGeoPointInfo;
+import de.k3b.geo.io.gpx.GpxPullReader;
 import de.k3b.geo.io.gpx.GpxReader;
 import junitparams.JUnitParamsRunner;
 import junitparams.Parameters;
@@ -65,7 +66,27 @@ public class GeoPointDtoRegressionTests {
             "14, geo-uri.xml",
             "15, https-mapservice-urls.xml"})
     public void checkPoiResource(int expectedNumberOfPois, String resourceName)  {
-        List<IGeoPointInfo> pois = getiGeoPointInfos(resourceName);
+        checkPoiResource(expectedNumberOfPois, resourceName, false);
+    }
+
+    @Test
+    @Parameters({
+            // "1, debug.xml",
+            "0, empty.xml",
+            "1, gpx11.gpx",
+            "1, gpx10.gpx",
+            "5, kml22.kml",
+            "2, gpx-similar.gpx",
+            "10, poi.xml",
+            "2, wikimedia.poi",
+            "14, geo-uri.xml",
+            "15, https-mapservice-urls.xml"})
+    public void checkPoiResourceWithPullParser(int expectedNumberOfPois, String resourceName)  {
+        checkPoiResource(expectedNumberOfPois, resourceName, true);
+    }
+
+    private void checkPoiResource(int expectedNumberOfPois, String resourceName, boolean usePullParser)  {
+        List<IGeoPointInfo> pois = getiGeoPointInfos(resourceName, usePullParser);
         Assert.assertEquals("expectedNumberOfPois", expectedNumberOfPois, pois.size());
         int index = 1;
         for (IGeoPointInfo poi : pois) {
@@ -73,7 +94,7 @@ public class GeoPointDtoRegressionTests {
         }
     }
 
-    private List<IGeoPointInfo> getiGeoPointInfos(String resourceName) {
+    private List<IGeoPointInfo> getiGeoPointInfos(String resourceName, boolean usePullParser) {
         List<IGeoPointInfo> pois = null;
         try (InputStream xmlStream = getStream(resourceName)) {
             GpxReader<IGeoPointInfo> parser = new GpxReader<IGeoPointInfo>(null) {
@@ -89,6 +110,7 @@ public class GeoPointDtoRegressionTests {
                     };
                 }
             };
+            parser.setXmlParser(usePullParser ? new GpxPullReader() : null);
             pois = parser.getTracks(new InputSource(xmlStream));
         } catch (Exception e) {
             Assert.fail("cannot load  " +
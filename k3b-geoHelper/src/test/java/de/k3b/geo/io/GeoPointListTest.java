@@ -0,0 +1,96 @@
+package de.k3b.geo.io;
+
+import org.junit.Test;
+
+import de.k3b.geo.api.GeoPointDto;
+
+import static org.junit.Assert.*;
+
+public class GeoPointListTest {
+    private static GeoPointDto createItem(String id, String name) {
+        return new GeoPointDto().setLatLon(1, 2).setId(id).setName(name);
+    }
+
+    @Test
+    public void shouldPutGetAndRemoveById() {
+        GeoPointList<GeoPointDto> sut = new GeoPointList<>();
+        sut.put(createItem("a", "a1"));
+        sut.put(createItem("b", "b1"));
+        sut.put(createItem("c", "c1"));
+        sut.put(createItem("a", "a2"));
+
+        assertEquals(3, sut.size());
+        assertEquals("replaced in place", "a2", sut.get(0).getName());
+        assertEquals("a2", sut.getById("a").getName());
+
+        assertEquals("a2", sut.removeById("a", false).getName());
+        assertNull(sut.removeById("a", false));
+        assertEquals("last item moved into the gap", "c", sut.get(0).getId());
+        assertEquals("c1", sut.getById("c").getName());
+        assertEquals("b1", sut.getById("b").getName());
+    }
+
+    @Test
+    public void shouldKeepOrderOnRemove() {
+        GeoPointList<GeoPointDto> sut = new GeoPointList<>();
+        sut.put(createItem("a", "a1"));
+        sut.put(createItem("b", "b1"));
+        sut.put(createItem("c", "c1"));
+
+        assertEquals("a1", sut.removeById("a", true).getName());
+        assertEquals("b", sut.get(0).getId());
+        assertEquals("c", sut.get(1).getId());
+        assertEquals("c1", sut.getById("c").getName());
+        sut.put(createItem("c", "c2"));
+        assertEquals("c2", sut.get(1).getName());
+    }
+
+    @Test
+    public void shouldRebuildIndexAfterDirectModification() {
+        GeoPointList<GeoPointDto> sut = new GeoPointList<>();
+        sut.put(createItem("a", "a1"));
+        sut.put(createItem("b", "b1"));
+
+        sut.remove(0);
+        sut.set(0, createItem("c", "c1"));
+        sut.add(0, createItem("d", "d1"));
+
+        assertNull(sut.getById("a"));
+        assertNull(sut.getById("b"));
+        assertEquals("c1", sut.getById("c").getName());
+        assertEquals("d1", sut.getById("d").getName());
+    }
+
+    @Test
+    public void shouldFindRemainingItemWithDuplicateId() {
+        GeoPointList<GeoPointDto> sut = new GeoPointList<>();
+        sut.add(createItem("a", "a1"));
+        sut.add(createItem("b", "b1"));
+        sut.add(createItem("a", "a2"));
+
+        assertEquals("last one wins", "a2", sut.removeById("a", true).getName());
+        assertEquals("a1", sut.getById("a").getName());
+        assertEquals("a1", sut.removeById("a", true).getName());
+        assertNull(sut.getById("a"));
+        assertEquals(1, sut.size());
+    }
+
+    /** A linear search or array shift per call needs minutes for this */
+    @Test(timeout = 10000)
+    public void shouldPutAndRemoveInConstantTime() {
+        final int count = 200000;
+        GeoPointList<GeoPointDto> sut = new GeoPointList<>();
+        for (int i = 0; i < count; i++) {
+            sut.put(createItem("id" + i, null));
+        }
+        for (int i = 0; i < count; i++) {
+            sut.put(createItem("id" + i, "changed"));
+        }
+        // removing the first item is the worst case for ArrayList.remove(int)
+        for (int i = 0; i < count - 1; i++) {
+            assertNotNull(sut.removeById(sut.get(0).getId(), false));
+        }
+        assertEquals(1, sut.size());
+        assertEquals("changed", sut.get(0).getName());
+    }
+}
@@ -0,0 +1,58 @@
+package de.k3b.geo.io;
+
+import org.junit.Test;
+
+import java.io.File;
+
+import de.k3b.util.Unzip;
+
+import static org.junit.Assert.*;
+
+public class GeoSearchCacheTest {
+    private static final File OUTDIR = new File("./build/testresults/GeoSearchCacheTest");
+
+    @Test
+    public void shouldQuantiseToCellCenter() {
+        GeoSearchCache cache = new GeoSearchCache(10, 60000).setPrecision(0.1);
+        assertEquals(50.5, cache.quantise(50.53), 0.000001);
+        assertEquals(50.5, cache.quantise(50.46), 0.000001);
+        assertEquals(-8.2, cache.quantise(-8.19), 0.000001);
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsed() {
+        GeoSearchCache cache = new GeoSearchCache(2, 60000);
+        cache.put("a", new byte[]{1});
+        cache.put("b", new byte[]{2});
+        assertNotNull(cache.get("a"));
+        cache.put("c", new byte[]{3});
+
+        assertEquals(2, cache.getCount());
+        assertNotNull(cache.get("a"));
+        assertNull("least recently used", cache.get("b"));
+        assertNotNull(cache.get("c"));
+    }
+
+    @Test
+    public void shouldExpire() throws InterruptedException {
+        GeoSearchCache cache = new GeoSearchCache(2, 50);
+        cache.put("a", new byte[]{1});
+        assertNotNull(cache.get("a"));
+        Thread.sleep(100);
+        assertNull(cache.get("a"));
+    }
+
+    @Test
+    public void shouldLoadFromDisk() {
+        Unzip.deleteRecursive(OUTDIR);
+        new GeoSearchCache(2, 60000).setDiskDir(OUTDIR).put("en.wikipedia.org_50.5_8.5|x", new byte[]{1, 2});
+
+        GeoSearchCache cache = new GeoSearchCache(2, 60000).setDiskDir(OUTDIR);
+        assertArrayEquals(new byte[]{1, 2}, cache.get("en.wikipedia.org_50.5_8.5|x"));
+        assertNull(cache.get("other"));
+
+        GeoSearchCache expired = new GeoSearchCache(2, -1).setDiskDir(OUTDIR);
+        assertNull(expired.get("en.wikipedia.org_50.5_8.5|x"));
+        assertEquals("expired file removed", 0, OUTDIR.list().length);
+    }
+}
@@ -135,6 +135,63 @@ public class GeoUriTests {
         Assert.assertEquals("geoarea:12.345,-56.789,12,-53", result);
     }
     
+    @Test
+    public void fastPathShouldParseSameAsRegex() throws Exception {
+        GeoUri sut = new GeoUri(GeoUri.OPT_DEFAULT);
+        GeoUri sutRedundant = new GeoUri(GeoUri.OPT_FORMAT_REDUNDANT_LAT_LON);
+
+        String[] uris = {
+                sut.toUriString(createTestGeoPoint()),
+                sutRedundant.toUriString(createTestGeoPoint()),
+                sut.toUriString(new GeoPointDto(-0.5, 179.0000001, "N\u00e4me+with %&=; chars", null, null, null,
+                        "d\u00e9scription", GeoPointDto.NO_ZOOM, 17, null)),
+                "geo:1,2",
+                "geo:0,0",
+                "geo:-1.5,-2.25?q=(name)",
+                "geo:91,2?q=(name)",
+                "geo:?q=53.1,10.2&n=name&z=65",
+                "geo:1,2?q=(12:00)&t=1991-03-03T04:05:06Z",
+                "geo:1,2?unknown=x&d=a+b%20c",
+                "geo:1.123456789012345678,2",
+                "geo:",
+        };
+        for (String uri : uris) {
+            Assert.assertTrue(uri, GeoUri.isCanonicalGeoUri(uri));
+            Assert.assertEquals(uri,
+                    sut.toUriString(sut.uriParamParse(uri, new GeoPointDto())),
+                    sut.toUriString(sut.fromUri(uri, new GeoPointDto())));
+
+            // values that are already there must not be overwritten
+            Assert.assertEquals(uri,
+                    sut.toUriString(sut.uriParamParse(uri, createTestGeoPoint().setLatitude(GeoPointDto.NO_LAT_LON))),
+                    sut.toUriString(sut.fromUri(uri, createTestGeoPoint().setLatitude(GeoPointDto.NO_LAT_LON))));
+        }
+    }
+
+    @Test
+    public void fastPathShouldNotHandleNonCanonical() throws Exception {
+        String[] uris = {
+                "geo:1",
+                "geo:1,2,3",
+                "geo:1 , 2",
+                "geo:N1,E2",
+                "geo:1,2?ll=3,4",
+                "geo:1,2?q=(a)&q=(b)",
+                "geo:1,2?q=(a,b)",
+                "geo:1,2?q=(a%2Cb)",
+                "geo:1,2?q=(a(b))",
+                "geo:1,2?q=(12:00)",
+                "geo:1,2?q=name",
+                "geo:1,2?d=%zz",
+                "geo:1,2?d=a=b",
+                "geo:1,2?d=",
+                "geo:1,2?",
+        };
+        for (String uri : uris) {
+            Assert.assertFalse(uri, GeoUri.isCanonicalGeoUri(uri));
+        }
+    }
+
     private GeoPointDto createTestGeoPoint() {
         return new GeoPointDto(12.345, -56.78901234, "name", "link", "icon", "id", "description", 5, 7, new Date(91, 2, 3, 4, 5, 6));
         /*
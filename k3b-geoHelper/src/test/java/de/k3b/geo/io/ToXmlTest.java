@@ -23,7 +23,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.util.ArrayList;
@@ -34,6 +36,7 @@ import de.k3b.geo.api.GeoPointDto;
 import de.k3b.geo.api.IGeoPointInfo;
 import de.k3b.geo.io.gpx.GeoXmlOrTextParser;
 import de.k3b.geo.io.gpx.GpxFormatter;
+import de.k3b.geo.io.gpx.GpxWriter;
 import de.k3b.geo.io.kml.KmlFormatter;
 import de.k3b.geo.io.poi.PoiFormatter;
 import de.k3b.util.IsoDateTimeParser;
@@ -80,6 +83,39 @@ public class ToXmlTest {
         checkGeneratedXml(resultXml, "testGpxExport\n");
     }
 
+    /** Output of toGpxXml() before it was implemented with GpxWriter */
+    private static final String EXPECTED_GPX = "ToXmlTest-expected.gpx";
+
+    @Test
+    public void testGpxWriterSameAsExpectedGpx() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        GpxWriter gpxWriter = new GpxWriter(out);
+        for (IGeoPointInfo geoInfo : geoInfos) {
+            gpxWriter.write(geoInfo);
+        }
+        gpxWriter.close();
+
+        String expected = readResource(EXPECTED_GPX);
+        Assert.assertEquals("GpxWriter", expected, out.toString("UTF-8"));
+        Assert.assertEquals("toGpxXml", expected, GpxFormatter.toGpxXml(geoInfos));
+    }
+
+    private String readResource(String name) throws IOException {
+        InputStream in = this.getClass().getResourceAsStream(name);
+        Assert.assertNotNull(name, in);
+        try {
+            ByteArrayOutputStream result = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int length;
+            while ((length = in.read(buffer)) > 0) {
+                result.write(buffer, 0, length);
+            }
+            return result.toString("UTF-8");
+        } finally {
+            in.close();
+        }
+    }
+
     private void checkGeneratedXml(String resultXml, String logMessage) {
         LOGGER.info(logMessage + resultXml);
 
@@ -0,0 +1,111 @@
+package de.k3b.geo.io.geob;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import de.k3b.geo.GeoLoadService;
+import de.k3b.geo.api.GeoPointDto;
+import de.k3b.geo.api.IGeoInfoHandler;
+import de.k3b.geo.api.IGeoPointInfo;
+import de.k3b.geo.io.DownloadGpxKmlZipWithSymbolsService;
+import de.k3b.geo.io.gpx.GpxFormatter;
+import de.k3b.util.Unzip;
+
+import static org.junit.Assert.*;
+
+public class GeobReaderTest {
+    private static final File OUTDIR = new File("./build/testresults/GeobReaderTest");
+
+    @Test
+    public void shouldReadWhatWasWritten() throws IOException {
+        List<IGeoPointInfo> points = Arrays.<IGeoPointInfo>asList(
+                new GeoPointDto(53.1234567, -8.7654321, "name1", "link1", "symbol1", "id1",
+                        "description with ünicode", 3, 11, new Date(1424858685000L)),
+                new GeoPointDto().setLatLon(-33.9, 151.2).setSymbol("symbol1").setLink("link2"),
+                new GeoPointDto().setName("no location"),
+                new GeoPointDto(53.1234568, -8.7654321, "name4", "link1", "symbol1", null,
+                        null, IGeoPointInfo.NO_ZOOM, 5, new Date(1424858684000L)));
+
+        List<IGeoPointInfo> read = read(write(points));
+
+        assertEquals(points.size(), read.size());
+        for (int i = 0; i < points.size(); i++) {
+            assertEquals("point " + i, GeoPointDto.toString(points.get(i)), GeoPointDto.toString(read.get(i)));
+            assertEquals(points.get(i).getLatitude(), read.get(i).getLatitude(), 1e-9);
+        }
+    }
+
+    @Test
+    public void shouldBeSmallerThanGpx() throws IOException {
+        List<IGeoPointInfo> points = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            points.add(new GeoPointDto().setLatLon(53.1 + i * 0.0001, 8.7 - i * 0.0001)
+                    .setTimeOfMeasurement(new Date(1424858685000L + i * 1000))
+                    .setSymbol("https://example.org/icon" + (i % 3) + ".png"));
+        }
+        byte[] geob = write(points);
+        assertEquals(points.size(), read(geob).size());
+        assertTrue(geob.length + " bytes", geob.length * 10 < GpxFormatter.toGpxXml(points).length());
+    }
+
+    @Test
+    public void shouldRejectTruncatedStream() throws IOException {
+        byte[] geob = write(Arrays.<IGeoPointInfo>asList(new GeoPointDto().setName("truncated")));
+        try {
+            read(Arrays.copyOf(geob, geob.length - 2));
+            fail("IOException expected");
+        } catch (IOException expected) {
+        }
+    }
+
+    @Test
+    public void shouldSaveAndLoadGeobFiles() throws IOException {
+        Unzip.deleteRecursive(OUTDIR);
+        List<IGeoPointInfo> points = Arrays.<IGeoPointInfo>asList(
+                new GeoPointDto().setLatLon(53.1, 8.7).setName("p1"),
+                new GeoPointDto().setLatLon(53.2, 8.8).setName("p2"));
+        DownloadGpxKmlZipWithSymbolsService service = new DownloadGpxKmlZipWithSymbolsService("GeobReaderTest", null);
+
+        for (String name : new String[]{"points.geob", "points.geob.zip"}) {
+            File file = new File(OUTDIR, name);
+            service.saveAs(points, file);
+            List<IGeoPointInfo> read = new ArrayList<>();
+            GeoLoadService.loadGeoPointDtos(file, null, collect(read));
+            assertEquals(name, 2, read.size());
+            assertEquals(name, "p2", read.get(1).getName());
+        }
+    }
+
+    private static byte[] write(List<IGeoPointInfo> points) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        GeobWriter.export(points, out);
+        return out.toByteArray();
+    }
+
+    private static List<IGeoPointInfo> read(byte[] geob) throws IOException {
+        List<IGeoPointInfo> result = new ArrayList<>();
+        InputStream in = new ByteArrayInputStream(geob);
+        assertTrue(GeobReader.isGeob(in));
+        new GeobReader(collect(result), new GeoPointDto()).parse(in);
+        return result;
+    }
+
+    private static IGeoInfoHandler collect(final List<IGeoPointInfo> points) {
+        return new IGeoInfoHandler() {
+            @Override
+            public boolean onGeoInfo(IGeoPointInfo geoInfo) {
+                points.add(((GeoPointDto) geoInfo).clone());
+                return true;
+            }
+        };
+    }
+}
@@ -100,6 +100,60 @@ public class GpxReaderTest {
         Assert.assertEquals(xmlMinimal_gpx_v11, formatted);
     }
 
+    @Test
+    public void pullParserShouldReadSameAsSax() throws IOException {
+        String[] xmls = {xmlMinimal_gpx_v10, xmlMinimal_gpx_v11, xmlFull_gpx_v11, xmlFull_gpx_v11withNS, xmlMinimal_kml,
+                "<poi ll='1,2' n='name' z='5'><d>descr</d><id>4711</id><z2>7</z2><link href='http://x' /></poi>",
+                "<kml><Style><IconStyle id='i1'><Icon><href>icon.png</href></Icon></IconStyle></Style>"
+                        + "<Placemark><name>n</name><styleUrl>#i1</styleUrl><TimeStamp><when>2015-02-10T08:04:45Z</when></TimeStamp>"
+                        + "<Point><coordinates>8.7,53.1,0</coordinates></Point></Placemark></kml>",
+                "<api><query><pages><page pageid='1' title='t' fullurl='http://w' touched='2015-02-10T08:04:45Z'>"
+                        + "<coordinates><co lat='1.5' lon='2.5' /></coordinates><thumbnail source='s.png' />"
+                        + "<extract><![CDATA[some <b>text</b>]]></extract></page></pages></query></api>"};
+        for (String xml : xmls) {
+            Assert.assertEquals(xml, toGpx(xml, false), toGpx(xml, true));
+        }
+    }
+
+    @Test
+    public void shouldReadOnlySelectedFields() throws IOException {
+        String xml = "<gpx><trk><trkseg>"
+                + "<trkpt lat='53.1' lon='8.7'><name>n</name><desc>d</desc><time>2015-02-10T08:04:45Z</time>"
+                + "<extensions><x>lots of data</x></extensions><link href='http://l' /><sym>s.png</sym></trkpt>"
+                + "<poi ll='1,2' n='name' s='s.png' t='2015-02-10T08:04:45Z'><d>d</d><id>4711</id></poi>"
+                + "</trkseg></trk></gpx>";
+        for (boolean usePullParser : new boolean[] {false, true}) {
+            GpxReader<IGeoPointInfo> reader = new GpxReader<IGeoPointInfo>(null);
+            reader.setXmlParser(usePullParser ? new GpxPullReader() : null).setFields(GpxReaderBase.FIELD_TIME);
+            List<IGeoPointInfo> locations = reader.getTracks(new InputSource(new StringReader(xml)));
+
+            Assert.assertEquals(2, locations.size());
+            for (IGeoPointInfo location : locations) {
+                Assert.assertNotEquals(IGeoPointInfo.NO_LAT_LON, location.getLatitude(), 0.0);
+                Assert.assertNotNull(location.getTimeOfMeasurement());
+                Assert.assertNull(location.getName());
+                Assert.assertNull(location.getDescription());
+                Assert.assertNull(location.getLink());
+                Assert.assertNull(location.getSymbol());
+                Assert.assertNull(location.getId());
+            }
+        }
+    }
+
+    private static String toGpx(String xml, boolean usePullParser) throws IOException {
+        GpxReader<IGeoPointInfo> reader = new GpxReader<IGeoPointInfo>(null);
+        reader.setXmlParser(usePullParser ? new GpxPullReader() : null);
+        List<IGeoPointInfo> locations = reader.getTracks(new InputSource(new StringReader(xml)));
+
+        final StringBuilder result = new StringBuilder();
+        for (IGeoPointInfo location : locations) {
+            GpxFormatter.toGpx(result, location, location.getDescription(), location.getLink());
+            result.append(location.getId()).append(location.getSymbol()).append(location.getZoomMin())
+                    .append(location.getZoomMax()).append(location.getTimeOfMeasurement()).append("\n");
+        }
+        return result.toString();
+    }
+
     // used to test files that do not work
     // @Test
     public void parseFormatFileTest() throws IOException {
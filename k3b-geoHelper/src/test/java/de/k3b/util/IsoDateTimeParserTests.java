@@ -72,6 +72,30 @@ public class IsoDateTimeParserTests {
         assertEquals(EXPECTED_WITHOUT_MILLISECS, "2001-12-24T12:34:56.789+00:00");
     }
 
+    @Test
+    public void shoudParseLeapYearAndOverflowLikeCalendar() throws Exception {
+        assertEquals(IsoDateTimeParser.toDate(2000,2,29,0,0,0,0, TimeZone.getTimeZone("GMT")), "2000-02-29T00:00:00Z");
+        // lenient: month 13 is january of next year, hour 24 is next day
+        assertEquals(IsoDateTimeParser.toDate(2002,1,1,0,0,0,0, TimeZone.getTimeZone("GMT")), "2001-13-01T00:00:00Z");
+        assertEquals(IsoDateTimeParser.toDate(2001,12,25,0,0,0,0, TimeZone.getTimeZone("GMT")), "2001-12-24T24:00:00Z");
+    }
+
+    @Test
+    public void shoudParseIllegalTimeZoneAsGmt() throws Exception {
+        // same as TimeZone.getTimeZone("GMT+01:00Z")
+        assertEquals(EXPECTED_WITHOUT_MILLISECS, "2001-12-24T12:34:56+01:00Z");
+        assertEquals(EXPECTED_WITHOUT_MILLISECS, "2001-12-24T12:34:56+24:00");
+    }
+
+    @Test
+    public void shoudNotParseInvalid() throws Exception {
+        Assert.assertNull(IsoDateTimeParser.parse("2001-12-24 12:34:56Z"));
+        Assert.assertNull(IsoDateTimeParser.parse("2001-12-24T12:34:56.1234Z"));
+        Assert.assertNull(IsoDateTimeParser.parse("2001-12-24T12:34:56+1"));
+        Assert.assertNull(IsoDateTimeParser.parse("2001-12-24T12:34:56ZZ"));
+        Assert.assertNull(IsoDateTimeParser.parse("2001-12-24T12:34"));
+    }
+
     static public void assertEquals(Date expected,
                                     String actualString) {
         Date actual = IsoDateTimeParser.parse(actualString);
@@ -37,6 +37,13 @@ public class DocumentFileSymbolConverter extends SymbolConverterBase<DocumentFil
         super(rootDir, name2file, nextConverter);
     }
 
+    public DocumentFileSymbolConverter(@NonNull final DocumentFile rootDir,
+                                       @Nullable final Map<String, DocumentFile> name2file,
+                                       @Nullable Index index,
+                                       @Nullable IGeoInfoHandler nextConverter) {
+        super(rootDir, name2file, index, nextConverter);
+    }
+
     public static List<String> getGeoFiles(DocumentFile dir, Map<String, DocumentFile> name2file) {
         return new DocumentFileSymbolConverter(dir, name2file, null).getGeoFiles(dir);
     }
@@ -47,13 +54,11 @@ public class DocumentFileSymbolConverter extends SymbolConverterBase<DocumentFil
     @NonNull
     public List<String> getGeoFiles(DocumentFile dir) {
         final List<String> found = new ArrayList<>();
-        DocumentFile[] files = listFiles(dir);
+        DocumentFile[] files = addFiles("", dir);
         if (files != null) {
             for (DocumentFile file : files) {
                 String name = getName(file);
-                String nameLower = name.toLowerCase();
-                name2file.put(nameLower, file);
-                if (isGeo(nameLower)) {
+                if (isGeo(name.toLowerCase())) {
                     found.add(name);
                 }
             }